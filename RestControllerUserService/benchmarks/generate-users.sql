@@ -0,0 +1,68 @@
+-- Генератор тестовых пользователей для нагрузочных измерений.
+-- Схема должна быть создана миграциями Flyway (src/main/resources/db/migration).
+--
+-- Запуск (по умолчанию 10 000 000 строк):
+--   psql "$DATABASE_URL" -v rows=10000000 -f generate-users.sql
+--
+-- Данные детерминированы (setseed), поэтому повторный запуск даёт ту же выборку.
+-- Таблица users очищается перед загрузкой.
+
+\if :{?rows}
+\else
+\set rows 10000000
+\endif
+
+\timing on
+
+TRUNCATE users, user_tombstones;
+
+SELECT setseed(0.42);
+
+-- Индексы создаются после загрузки: построить индекс один раз быстрее, чем обновлять его на каждую строку.
+DROP INDEX IF EXISTS idx_users_created_at_id;
+DROP INDEX IF EXISTS idx_users_name_id;
+DROP INDEX IF EXISTS idx_users_updated_at_id;
+DROP INDEX IF EXISTS idx_users_name_search_id;
+DROP INDEX IF EXISTS idx_users_email_domain_id;
+DROP INDEX IF EXISTS idx_users_age_id;
+
+-- Имена составляются из 40 имён и 40 фамилий (1600 сочетаний), домены — из 50 доменов
+-- с убывающей частотой, возраст распределён равномерно от 18 до 90 лет.
+INSERT INTO users (id, name, email, email_normalized, age, created_at, updated_at, version)
+SELECT g,
+       first_name || ' ' || last_name,
+       lower(first_name) || '.' || lower(last_name) || '.' || g || '@' || domain,
+       lower(first_name) || '.' || lower(last_name) || '.' || g || '@' || domain,
+       18 + floor(random() * 73)::int,
+       created_at,
+       created_at + random() * interval '180 days',
+       0
+FROM (
+    SELECT g,
+           (ARRAY['Alexander', 'Alexey', 'Anna', 'Andrey', 'Boris', 'Daria', 'Dmitry', 'Elena', 'Egor', 'Ekaterina',
+                  'Fedor', 'Galina', 'Grigory', 'Igor', 'Irina', 'Ivan', 'Kirill', 'Ksenia', 'Larisa', 'Maria',
+                  'Maxim', 'Mikhail', 'Natalia', 'Nikita', 'Oleg', 'Olga', 'Pavel', 'Polina', 'Roman', 'Sergey',
+                  'Sofia', 'Stepan', 'Svetlana', 'Tatiana', 'Timur', 'Valentina', 'Victor', 'Vladimir', 'Yulia',
+                  'Zakhar'])[1 + floor(random() * 40)::int] AS first_name,
+           (ARRAY['Alekseev', 'Belov', 'Bogdanov', 'Volkov', 'Vorobiev', 'Gusev', 'Egorov', 'Zaitsev', 'Ivanov',
+                  'Kozlov', 'Kuznetsov', 'Lebedev', 'Makarov', 'Morozov', 'Nikolaev', 'Novikov', 'Orlov', 'Pavlov',
+                  'Petrov', 'Popov', 'Romanov', 'Semenov', 'Smirnov', 'Sokolov', 'Solovyov', 'Stepanov', 'Tarasov',
+                  'Fedorov', 'Frolov', 'Kovalev', 'Zhukov', 'Sidorov', 'Medvedev', 'Vinogradov', 'Golubev',
+                  'Komarov', 'Kiselev', 'Kudryavtsev', 'Baranov', 'Yakovlev'])[1 + floor(random() * 40)::int]
+               AS last_name,
+           'domain' || floor(50 * power(random(), 2))::int || '.example' AS domain,
+           timestamp '2024-01-01' + random() * interval '365 days' AS created_at
+    FROM generate_series(1, :rows) AS g
+) AS generated;
+
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
+CREATE INDEX idx_users_name_id ON users (name, id);
+CREATE INDEX idx_users_updated_at_id ON users (updated_at, id);
+CREATE INDEX idx_users_name_search_id ON users (name_search, id);
+CREATE INDEX idx_users_email_domain_id ON users (email_domain, id);
+CREATE INDEX idx_users_age_id ON users (age, id);
+
+-- Следующий блок идентификаторов сервиса начинается после загруженных строк.
+SELECT setval('users_seq', (SELECT max(id) FROM users) + 1);
+
+VACUUM ANALYZE users;
@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Сравнивает ответы чтения пользователей с HATEOAS-ссылками и без них (links=false):
+# размер ответа, задержку и пропускную способность.
+# Перед запуском таблица заполняется генератором: psql "$DATABASE_URL" -f ../generate-users.sql
+#
+# Использование: BASE_URL=http://localhost:8081 ./run.sh [запросов] [параллельность] [строк в users]
+# Результаты сохраняются в results/summary.txt.
+
+set -euo pipefail
+
+BASE_URL="${BASE_URL:-http://localhost:8081}"
+REQUESTS="${1:-10000}"
+CONCURRENCY="${2:-8}"
+ROWS="${3:-10000000}"
+DIR="$(cd "$(dirname "$0")" && pwd)"
+RESULTS="$DIR/results"
+WORK="$(mktemp -d)"
+
+trap 'rm -rf "$WORK"' EXIT
+mkdir -p "$RESULTS"
+
+# Одинаковая последовательность id для обоих режимов и повторных запусков.
+awk -v n="$REQUESTS" -v rows="$ROWS" 'BEGIN { srand(42); for (i = 0; i < n; i++) print 1 + int(rand() * rows) }' \
+    > "$WORK/ids"
+
+# Выполняет запросы к URL, полученным подстановкой id в шаблон, и печатает сводку.
+# Перед измерением выполняется прогрев той же последовательностью запросов.
+measure() {
+    local name="$1" template="$2"
+
+    awk -v t="$template" '{ i = index(t, "{id}"); print (i ? substr(t, 1, i - 1) $1 substr(t, i + 4) : t) }' "$WORK/ids" > "$WORK/$name.urls"
+
+    xargs -P "$CONCURRENCY" -n 1 curl -s -o /dev/null < "$WORK/$name.urls"
+
+    local start end
+    start="$(date +%s%N)"
+    xargs -P "$CONCURRENCY" -n 1 curl -s -o /dev/null \
+        -w '%{http_code} %{time_total} %{size_download}\n' < "$WORK/$name.urls" > "$WORK/$name.out"
+    end="$(date +%s%N)"
+
+    awk '{ print $2 }' "$WORK/$name.out" | sort -n > "$WORK/$name.latency"
+
+    awk -v name="$name" -v elapsed="$(( (end - start) / 1000000 ))" -v latency="$WORK/$name.latency" '
+        $1 != 200 { errors++ }
+        { bytes += $3 }
+        END {
+            while ((getline value < latency) > 0) l[++count] = value
+            printf "%-16s %8.0f B/ответ %8.1f запр/с  p50 %6.2f ms  p95 %6.2f ms  p99 %6.2f ms  ошибок %d\n",
+                name, bytes / NR, NR * 1000 / elapsed,
+                l[int(count * 0.50)] * 1000, l[int(count * 0.95)] * 1000, l[int(count * 0.99)] * 1000, errors
+        }' "$WORK/$name.out"
+}
+
+{
+    echo "Запросов: $REQUESTS, параллельность: $CONCURRENCY"
+    measure "list-hal" "$BASE_URL/users?limit=50"
+    measure "list-lean" "$BASE_URL/users?links=false&limit=50"
+    measure "one-hal" "$BASE_URL/users/{id}"
+    measure "one-lean" "$BASE_URL/users/{id}?links=false"
+} | tee "$RESULTS/summary.txt"
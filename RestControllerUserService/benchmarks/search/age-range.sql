@@ -0,0 +1,6 @@
+-- Поиск по диапазону возраста: GET /users/search?minAge=<от>&maxAge=<до>&limit=50.
+\set min_age random(18, 80)
+SELECT * FROM users
+WHERE age >= :min_age AND age <= :min_age + 10
+ORDER BY age, id
+LIMIT 50;
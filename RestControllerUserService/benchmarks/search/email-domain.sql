@@ -0,0 +1,7 @@
+-- Поиск по домену email: GET /users/search?emailDomain=<домен>&limit=50.
+-- Домены генератора встречаются с разной частотой, поэтому выборка включает частые и редкие домены.
+\set d random(0, 49)
+SELECT * FROM users
+WHERE email_domain = 'domain' || :d || '.example'
+ORDER BY id
+LIMIT 50;
@@ -0,0 +1,12 @@
+-- Следующая страница поиска по префиксу имени с фильтром по возрасту:
+-- GET /users/search?name=iva&minAge=<от>&maxAge=<до>&after=<курсор>&limit=50.
+-- Курсор (name_search, id) выбирается внутри диапазона префикса.
+\set min_age random(18, 80)
+\set after_id random(1, 10000000)
+SELECT * FROM users
+WHERE name_search >= 'iva'
+  AND name_search < ('iva' || chr(1114111))
+  AND age >= :min_age AND age <= :min_age + 10
+  AND (name_search, id) > ('ivan ivanov', :after_id)
+ORDER BY name_search, id
+LIMIT 50;
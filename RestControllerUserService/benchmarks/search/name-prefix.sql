@@ -0,0 +1,15 @@
+-- Поиск по префиксу имени: GET /users/search?name=<префикс>&limit=50.
+-- Префикс из трёх букв одного из имён генератора; запрос повторяет UsersSearchRepositoryImpl.
+\set n random(1, 40)
+SELECT * FROM users
+WHERE name_search >= lower((ARRAY['ale', 'ann', 'and', 'bor', 'dar', 'dmi', 'ele', 'ego', 'eka', 'fed',
+                                  'gal', 'gri', 'igo', 'iri', 'iva', 'kir', 'kse', 'lar', 'mar', 'max',
+                                  'mik', 'nat', 'nik', 'ole', 'olg', 'pav', 'pol', 'rom', 'ser', 'sof',
+                                  'ste', 'sve', 'tat', 'tim', 'val', 'vic', 'vla', 'yul', 'zak', 'al'])[:n])
+  AND name_search < (lower((ARRAY['ale', 'ann', 'and', 'bor', 'dar', 'dmi', 'ele', 'ego', 'eka', 'fed',
+                                  'gal', 'gri', 'igo', 'iri', 'iva', 'kir', 'kse', 'lar', 'mar', 'max',
+                                  'mik', 'nat', 'nik', 'ole', 'olg', 'pav', 'pol', 'rom', 'ser', 'sof',
+                                  'ste', 'sve', 'tat', 'tim', 'val', 'vic', 'vla', 'yul', 'zak', 'al'])[:n])
+                     || chr(1114111))
+ORDER BY name_search, id
+LIMIT 50;
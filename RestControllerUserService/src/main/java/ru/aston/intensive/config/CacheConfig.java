@@ -0,0 +1,49 @@
+package ru.aston.intensive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация локального кэша пользователей на базе Caffeine.
+ * Метрики попаданий, промахов и вытеснений публикуются через Actuator
+ * (метрики cache.gets, cache.puts, cache.evictions с тегом cache=users).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Имя кэша пользователей по идентификатору.
+     */
+    public static final String USERS_CACHE = "users";
+
+    /**
+     * Спецификация Caffeine: ограничение размера, время жизни записи и сбор статистики.
+     */
+    @Value("${users.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+    private String usersCacheSpec;
+
+    /**
+     * Создаёт менеджер кэшей.
+     * Менеджер обёрнут в транзакционный прокси: удаление и запись в кэш внутри транзакции
+     * откладываются до её фиксации, поэтому кэш не получает незафиксированные или откатанные данные.
+     * От гонки с параллельным чтением прокси не защищает: чтение, загрузившее строку до фиксации изменения,
+     * может положить её в кэш уже после удаления записи. Такую запись удаляет сообщение инвалидации,
+     * которое экземпляр получает и о собственных изменениях, а в худшем случае — истечение expireAfterWrite.
+     *
+     * @return менеджер кэшей
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(USERS_CACHE);
+        caffeineCacheManager.setCacheSpecification(usersCacheSpec);
+        caffeineCacheManager.setAllowNullValues(false);
+
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
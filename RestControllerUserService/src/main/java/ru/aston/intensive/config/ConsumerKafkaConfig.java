@@ -0,0 +1,69 @@
+package ru.aston.intensive.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Конфигурация консюмера Kafka для сообщений инвалидации кэша пользователей.
+ */
+@Configuration
+@EnableKafka
+public class ConsumerKafkaConfig {
+
+    /** Адрес сервера Kafka. */
+    @Value("${kafka.bootstrapAddress:localhost:29092}")
+    private String bootstrapAddress;
+
+    /** Максимальное время ожидания брокером новых сообщений при выборке, мс. */
+    @Value("${kafka.cacheInvalidation.fetchMaxWaitMs:100}")
+    private int fetchMaxWaitMs;
+
+    /**
+     * Создаёт фабрику консюмера сообщений инвалидации кэша.
+     * Консюмер работает без группы: партиции назначаются слушателю явно, поэтому сообщение
+     * доставляется всем экземплярам, а в брокере не остаются группы и смещения перезапущенных экземпляров.
+     * Чтение начинается с конца топика: при запуске локальный кэш пуст и прошлые инвалидации не нужны,
+     * поэтому смещения не фиксируются.
+     *
+     * @return Фабрика консюмера со строковыми десериализаторами
+     */
+    @Bean
+    public ConsumerFactory<String, String> cacheInvalidationConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    /**
+     * Создаёт фабрику контейнеров слушателей сообщений инвалидации кэша.
+     * Режим ручного подтверждения без вызова подтверждения в слушателе отключает фиксацию смещений контейнером.
+     *
+     * @return Фабрика контейнеров слушателей
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> cacheInvalidationListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(cacheInvalidationConsumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        return factory;
+    }
+}
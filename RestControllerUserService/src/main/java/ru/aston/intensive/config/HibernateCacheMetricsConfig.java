@@ -0,0 +1,66 @@
+package ru.aston.intensive.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация метрик кэша второго уровня Hibernate.
+ * Попадания и промахи по регионам публикует Spring Boot (HibernateMetricsAutoConfiguration) метрикой
+ * hibernate.second.level.cache.requests с тегами region и result; здесь добавляется доля попаданий —
+ * метрика hibernate.second.level.cache.hit.ratio с тегом region.
+ * Для сбора статистики должен быть включён параметр hibernate.generate_statistics.
+ */
+@Configuration
+public class HibernateCacheMetricsConfig {
+
+    /**
+     * Имя фабрики сессий в тегах метрик, совпадающее с тегом метрик Hibernate, которые регистрирует Spring Boot.
+     */
+    private static final String ENTITY_MANAGER_FACTORY_NAME = "entityManagerFactory";
+
+    /**
+     * Регистрирует долю попаданий для каждого региона кэша второго уровня.
+     * Если в контексте нет фабрики менеджеров сущностей (например, источник данных отключён), метрики не регистрируются.
+     *
+     * @param entityManagerFactoryProvider провайдер фабрики менеджеров сущностей
+     *
+     * @return метрики доли попаданий в кэш второго уровня
+     */
+    @Bean
+    public MeterBinder secondLevelCacheHitRatioMetrics(
+            ObjectProvider<EntityManagerFactory> entityManagerFactoryProvider) {
+        return registry -> entityManagerFactoryProvider.ifAvailable(entityManagerFactory -> {
+            SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+            Statistics statistics = sessionFactory.getStatistics();
+            for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                                stats -> hitRatio(stats.getDomainDataRegionStatistics(regionName)))
+                        .tags("entityManagerFactory", ENTITY_MANAGER_FACTORY_NAME, "region", regionName)
+                        .description("Доля попаданий в регион кэша второго уровня")
+                        .register(registry);
+            }
+        });
+    }
+
+    /**
+     * Вычисляет долю попаданий региона.
+     *
+     * @param regionStatistics статистика региона
+     *
+     * @return доля попаданий от 0 до 1 или 0, если обращений ещё не было
+     */
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        long hits = regionStatistics.getHitCount();
+        long requests = hits + regionStatistics.getMissCount();
+
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
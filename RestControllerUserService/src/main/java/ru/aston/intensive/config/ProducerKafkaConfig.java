@@ -26,14 +26,43 @@ public class ProducerKafkaConfig {
     @Value("${kafka.topicName:user-event}")
     private String topicName;
 
-    /** Количество партиций для топика. */
-    @Value("3")
+    /** Название компактируемого топика инвалидации кэша пользователей. */
+    @Value("${kafka.cacheInvalidationTopicName:user-cache-invalidation}")
+    private String cacheInvalidationTopicName;
+
+    /**
+     * Количество партиций для топика. Определяет максимальное число параллельных потребителей группы;
+     * при увеличении значения существующий топик дополняется партициями при запуске приложения.
+     */
+    @Value("${kafka.partitions:3}")
     private int partitionNumber;
 
     /** Количество реплик для топика. */
-    @Value("1")
+    @Value("${kafka.replicas:1}")
     private int replicasNumber;
 
+    /**
+     * Время ожидания накопления пакета продюсером, мс. Пакетная отправка из outbox
+     * сбрасывает буфер сразу после передачи порции, поэтому задержка ограничена одиночными отправками.
+     */
+    @Value("${kafka.producer.lingerMs:20}")
+    private int lingerMs;
+
+    /** Максимальный размер пакета сообщений одной партиции, байт. */
+    @Value("${kafka.producer.batchSize:65536}")
+    private int batchSize;
+
+    /** Алгоритм сжатия пакетов: none, gzip, snappy, lz4 или zstd. */
+    @Value("${kafka.producer.compressionType:lz4}")
+    private String compressionType;
+
+    /**
+     * Идемпотентная отправка: повторы продюсера не создают дубликатов и не меняют порядок сообщений
+     * в партиции. Требует подтверждения от всех синхронизированных реплик.
+     */
+    @Value("${kafka.producer.idempotence:true}")
+    private boolean idempotence;
+
     /** Адрес сервера Kafka. */
     @Value("${kafka.bootstrapAddress:localhost:29092}") //если брать из env падают тесты UsersServiceCrudImplIntegrationTest и UserControllerTest
     private String bootstrapAddress;
@@ -51,8 +80,26 @@ public class ProducerKafkaConfig {
                 .build();
     }
 
+    /**
+     * Создаёт компактируемый топик инвалидации кэша пользователей.
+     * Ключ сообщения — id пользователя, поэтому после компактирования в топике
+     * остаётся не больше одной записи на пользователя.
+     *
+     * @return Объект топика с заданными параметрами
+     */
+    @Bean
+    NewTopic createCacheInvalidationTopic() {
+        return TopicBuilder.name(cacheInvalidationTopicName)
+                .partitions(partitionNumber)
+                .replicas(replicasNumber)
+                .compact()
+                .build();
+    }
+
     /**
      * Создаёт фабрику продюсера Kafka.
+     * Продюсер настроен на пропускную способность: сообщения накапливаются в сжатые пакеты,
+     * а идемпотентность сохраняет порядок событий пользователя при повторах.
      *
      * @return Фабрика продюсера с настроенными сериализаторами
      */
@@ -62,6 +109,12 @@ public class ProducerKafkaConfig {
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        configProps.put(ProducerConfig.ACKS_CONFIG, idempotence ? "all" : "1");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 1000);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MAX_MS_CONFIG, 10000);
@@ -78,4 +131,35 @@ public class ProducerKafkaConfig {
     public KafkaTemplate<String, UserNotificationDto> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /**
+     * Создаёт фабрику продюсера для сообщений инвалидации кэша.
+     * Сообщения отправляются без задержки на накопление пакета, а ожидание метаданных
+     * ограничено, чтобы недоступность Kafka не задерживала операции записи.
+     *
+     * @return Фабрика продюсера со строковыми сериализаторами
+     */
+    @Bean
+    public ProducerFactory<String, String> cacheInvalidationProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "1");
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000);
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    /**
+     * Создаёт шаблон Kafka для отправки сообщений инвалидации кэша.
+     *
+     * @return Шаблон Kafka для работы с продюсером инвалидации
+     */
+    @Bean
+    public KafkaTemplate<String, String> cacheInvalidationKafkaTemplate() {
+        return new KafkaTemplate<>(cacheInvalidationProducerFactory());
+    }
 }
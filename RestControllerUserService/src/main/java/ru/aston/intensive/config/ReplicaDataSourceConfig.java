@@ -0,0 +1,106 @@
+package ru.aston.intensive.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация чтения с реплики базы данных.
+ * Транзакции только для чтения получают соединения реплики, остальные — основной базы.
+ * Выбор выполняет {@link LazyConnectionDataSourceProxy}: физическое соединение берётся при первом запросе,
+ * когда признак readOnly транзакции уже установлен. Включается свойством users.datasource.replica.enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Создаёт пул соединений основной базы по настройкам spring.datasource.
+     *
+     * @param properties настройки источника данных
+     *
+     * @return пул соединений основной базы
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+
+        return dataSource;
+    }
+
+    /**
+     * Создаёт пул соединений реплики.
+     * Если имя пользователя и пароль реплики не заданы, используются учётные данные основной базы.
+     *
+     * @param properties настройки источника данных
+     * @param url        адрес реплики
+     * @param username   имя пользователя реплики
+     * @param password   пароль реплики
+     *
+     * @return пул соединений реплики
+     */
+    @Bean
+    @ConfigurationProperties("users.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${users.datasource.replica.url}") String url,
+                                              @Value("${users.datasource.replica.username:}") String username,
+                                              @Value("${users.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(StringUtils.hasText(username) ? username : properties.determineUsername())
+                .password(StringUtils.hasText(password) ? password : properties.determinePassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+
+        return dataSource;
+    }
+
+    /**
+     * Создаёт источник соединений для транзакций только для чтения с учётом отставания реплики.
+     *
+     * @param primaryDataSource пул соединений основной базы
+     * @param replicaDataSource пул соединений реплики
+     * @param maxLagMs          допустимое отставание реплики, мс
+     *
+     * @return источник соединений для чтения
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${users.datasource.replica.maxLagMs:1000}") long maxLagMs) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, maxLagMs);
+    }
+
+    /**
+     * Создаёт источник данных приложения, направляющий транзакции только для чтения на реплику.
+     *
+     * @param primaryDataSource        пул соединений основной базы
+     * @param replicaRoutingDataSource источник соединений для чтения
+     *
+     * @return источник данных приложения
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.aston.intensive.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Источник соединений для транзакций только для чтения.
+ * Выдаёт соединения реплики, пока её отставание от основной базы не превышает допустимое,
+ * иначе и при недоступности реплики — соединения основной базы.
+ * Отставание периодически измеряется запросом к реплике.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * Отставание реплики в секундах. Если реплика получила и применила весь WAL,
+     * отставание равно нулю, даже если на основной базе давно не было записей.
+     */
+    static final String REPLICA_LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primaryDataSource;
+    private final DataSource replicaDataSource;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+
+    private volatile boolean replicaAvailable;
+    private volatile long replicationLagMs = -1;
+
+    /**
+     * Конструктор источника соединений.
+     * До первой проверки отставания соединения выдаются основной базой.
+     *
+     * @param primaryDataSource пул соединений основной базы
+     * @param replicaDataSource пул соединений реплики
+     * @param maxLagMs          допустимое отставание реплики, мс
+     */
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource, long maxLagMs) {
+        this(primaryDataSource, replicaDataSource, new JdbcTemplate(replicaDataSource), maxLagMs);
+    }
+
+    ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+                             JdbcTemplate replicaJdbcTemplate, long maxLagMs) {
+        this.primaryDataSource = primaryDataSource;
+        this.replicaDataSource = replicaDataSource;
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return currentTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return currentTarget().getConnection(username, password);
+    }
+
+    /**
+     * Измеряет отставание реплики и решает, можно ли направлять на неё чтение.
+     * Выполняется каждые users.datasource.replica.lagCheckInterval миллисекунд.
+     */
+    @Scheduled(fixedDelayString = "${users.datasource.replica.lagCheckInterval:5000}")
+    public void checkReplicationLag() {
+        boolean wasAvailable = replicaAvailable;
+
+        try {
+            Double lagSeconds = replicaJdbcTemplate.queryForObject(REPLICA_LAG_QUERY, Double.class);
+            replicationLagMs = lagSeconds != null ? Math.round(lagSeconds * 1000) : 0;
+            replicaAvailable = replicationLagMs <= maxLagMs;
+        } catch (DataAccessException e) {
+            replicationLagMs = -1;
+            replicaAvailable = false;
+
+            if (wasAvailable) {
+                log.warn("Реплика недоступна, чтение переключено на основную базу: {}", e.getMessage());
+            }
+
+            return;
+        }
+
+        if (wasAvailable && !replicaAvailable) {
+            log.warn("Отставание реплики {} мс превышает {} мс, чтение переключено на основную базу",
+                    replicationLagMs, maxLagMs);
+        } else if (!wasAvailable && replicaAvailable) {
+            log.info("Чтение направлено на реплику, отставание {} мс", replicationLagMs);
+        }
+    }
+
+    /**
+     * Возвращает признак того, что чтение направляется на реплику.
+     *
+     * @return true, если реплика доступна и отставание допустимо
+     */
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    /**
+     * Возвращает последнее измеренное отставание реплики.
+     *
+     * @return отставание, мс, или -1, если реплика недоступна либо проверка ещё не выполнялась
+     */
+    public long getReplicationLagMs() {
+        return replicationLagMs;
+    }
+
+    private DataSource currentTarget() {
+        return replicaAvailable ? replicaDataSource : primaryDataSource;
+    }
+}
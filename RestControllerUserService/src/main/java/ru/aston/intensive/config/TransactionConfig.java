@@ -0,0 +1,15 @@
+package ru.aston.intensive.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * Конфигурация управления транзакциями.
+ * Транзакционный advice получает более высокий приоритет, чем аспекты приложения,
+ * поэтому аспекты, записывающие события в outbox-таблицу, выполняются внутри транзакции сервиса.
+ */
+@Configuration
+@EnableTransactionManagement(proxyTargetClass = true, order = Ordered.LOWEST_PRECEDENCE - 10)
+public class TransactionConfig {
+}
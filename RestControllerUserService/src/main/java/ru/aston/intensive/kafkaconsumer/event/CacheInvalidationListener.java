@@ -0,0 +1,101 @@
+package ru.aston.intensive.kafkaconsumer.event;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+import ru.aston.intensive.config.CacheConfig;
+import ru.aston.intensive.kafkaproducer.event.CacheInvalidationSender;
+import ru.aston.intensive.springrestuserservice.dto.UserMutationEvent;
+import ru.aston.intensive.springrestuserservice.repositories.UsersRepository;
+import ru.aston.intensive.springrestuserservice.services.EmailBloomFilter;
+import ru.aston.intensive.springrestuserservice.services.UserChangeStream;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Компонент для обработки сообщений инвалидации кэша пользователей.
+ * Удаляет из локального кэша и кэша второго уровня Hibernate записи, изменённые любым экземпляром сервиса,
+ * и публикует изменения в локальный поток SSE, поэтому подписчики любого экземпляра получают изменения всего кластера.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private final CacheManager cacheManager;
+
+    private final UsersRepository usersRepository;
+
+    private final UserChangeStream userChangeStream;
+
+    private final EmailBloomFilter emailBloomFilter;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param cacheManager     Менеджер кэшей
+     * @param usersRepository  Репозиторий пользователей
+     * @param userChangeStream Поток изменений пользователей для подписчиков SSE
+     * @param emailBloomFilter Фильтр Блума занятых email
+     */
+    @Autowired
+    public CacheInvalidationListener(CacheManager cacheManager, UsersRepository usersRepository,
+                                     UserChangeStream userChangeStream, EmailBloomFilter emailBloomFilter) {
+        this.cacheManager = cacheManager;
+        this.usersRepository = usersRepository;
+        this.userChangeStream = userChangeStream;
+        this.emailBloomFilter = emailBloomFilter;
+    }
+
+    /**
+     * Удаляет пользователя из локальных кэшей по ключу сообщения и публикует изменение подписчикам SSE.
+     * Сначала запись удаляется из кэша второго уровня, иначе чтение между двумя удалениями
+     * снова заполнило бы кэш users устаревшей сущностью. Подписчики получают изменение после очистки кэшей,
+     * поэтому повторное чтение пользователя по событию возвращает новые данные.
+     * Email созданного или обновлённого пользователя добавляется в локальный фильтр Блума.
+     * Слушателю назначаются все партиции топика, число которых задаёт kafka.partitions.
+     *
+     * @param invalidationRecord Сообщение, ключ которого — id пользователя, а значение — тип изменения
+     */
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${kafka.cacheInvalidationTopicName:user-cache-invalidation}",
+                    partitions = "0-#{${kafka.partitions:3} - 1}"),
+            containerFactory = "cacheInvalidationListenerContainerFactory",
+            autoStartup = "${kafka.cacheInvalidation.enabled:true}"
+    )
+    public void listenCacheInvalidations(ConsumerRecord<String, String> invalidationRecord) {
+        Long id;
+
+        try {
+            id = Long.valueOf(invalidationRecord.key());
+        } catch (NumberFormatException e) {
+            log.warn("Пропущено сообщение инвалидации с некорректным ключом: {}", invalidationRecord.key());
+            return;
+        }
+
+        usersRepository.evictFromEntityCache(id);
+
+        Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+
+        if (usersCache != null) {
+            usersCache.evict(id);
+        }
+
+        Header emailHeader = invalidationRecord.headers().lastHeader(CacheInvalidationSender.EMAIL_HEADER);
+        String email = emailHeader != null ? new String(emailHeader.value(), StandardCharsets.UTF_8) : null;
+
+        if (email != null && !"DELETED".equals(invalidationRecord.value())) {
+            emailBloomFilter.put(email);
+        }
+
+        userChangeStream.publish(new UserMutationEvent(id, invalidationRecord.value(), email));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.aston.intensive.kafkaproducer.aspect;
+
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.aston.intensive.kafkaproducer.event.CacheInvalidationSender;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
+import ru.aston.intensive.springrestuserservice.dto.UserMutationEvent;
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+
+import java.util.List;
+
+/**
+ * Аспект для публикации инвалидаций кэша пользователей после сохранения, обновления и удаления.
+ * Инвалидации получают все экземпляры сервиса, поэтому они же служат источником потока изменений SSE.
+ */
+@Aspect
+@Component
+public class CacheInvalidationAspect {
+
+    private final CacheInvalidationSender cacheInvalidationSender;
+
+    @Autowired
+    public CacheInvalidationAspect(CacheInvalidationSender cacheInvalidationSender) {
+        this.cacheInvalidationSender = cacheInvalidationSender;
+    }
+
+    /**
+     * Публикует инвалидацию после сохранения пользователя.
+     *
+     * @param userEntity Сохранённый пользователь
+     */
+    @AfterReturning(
+            pointcut = "execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrud.save(..))",
+            returning = "userEntity"
+    )
+    public void invalidateSavedUser(UserEntity userEntity) {
+        cacheInvalidationSender.sendInvalidation(
+                new UserMutationEvent(userEntity.getId(), "CREATED", userEntity.getEmail()));
+    }
+
+    /**
+     * Публикует инвалидации после пакетного сохранения пользователей.
+     *
+     * @param results Результаты обработки пакета
+     */
+    @AfterReturning(
+            pointcut = "execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrud.saveAll(..))",
+            returning = "results"
+    )
+    public void invalidateSavedUsers(List<UserBatchItemResult> results) {
+        List<UserMutationEvent> events = results.stream()
+                .filter(result -> result.getStatus() == UserBatchItemResult.Status.CREATED)
+                .map(result -> new UserMutationEvent(result.getId(), "CREATED", result.getEmail()))
+                .toList();
+
+        cacheInvalidationSender.sendInvalidations(events);
+    }
+
+    /**
+     * Публикует инвалидацию после полного или частичного обновления пользователя.
+     *
+     * @param userEntity Обновлённый пользователь
+     */
+    @AfterReturning(
+            pointcut = "execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrud.update(..)) || execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrud.patch(..))",
+            returning = "userEntity"
+    )
+    public void invalidateUpdatedUser(UserEntity userEntity) {
+        cacheInvalidationSender.sendInvalidation(
+                new UserMutationEvent(userEntity.getId(), "UPDATED", userEntity.getEmail()));
+    }
+
+    /**
+     * Публикует инвалидацию после удаления пользователя.
+     *
+     * @param userEntity Удалённый пользователь
+     */
+    @AfterReturning(
+            pointcut = "execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrud.delete(..))",
+            returning = "userEntity"
+    )
+    public void invalidateDeletedUser(UserEntity userEntity) {
+        cacheInvalidationSender.sendInvalidation(
+                new UserMutationEvent(userEntity.getId(), "DELETED", userEntity.getEmail()));
+    }
+}
@@ -2,33 +2,33 @@ package ru.aston.intensive.kafkaproducer.aspect;
 
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import ru.aston.intensive.common.dto.UserNotificationDto;
-import ru.aston.intensive.kafkaproducer.event.EventSender;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventEntity;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventWriter;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
-import ru.aston.intensive.springrestuserservice.services.UserMapper;
-import ru.aston.intensive.springrestuserservice.services.UsersServiceCrud;
+
+import java.util.List;
 
 /**
  * Аспект для публикации событий создания и удаления пользователей в Kafka.
+ * События записываются в outbox-таблицу в транзакции изменения пользователя
+ * и отправляются в Kafka фоновым {@link ru.aston.intensive.kafkaproducer.outbox.OutboxRelay}.
+ * Аспект имеет наименьший приоритет, поэтому выполняется внутри транзакции сервиса.
  */
 @Aspect
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE)
 public class KafkaEventPublishingAspect {
 
-    private final EventSender eventSender;
-    private final UsersServiceCrud usersServiceCrud;
-    private final UserMapper userMapper;
+    private final OutboxEventWriter outboxEventWriter;
 
     @Autowired
-    public KafkaEventPublishingAspect(EventSender eventSender,
-                                      UsersServiceCrud usersServiceCrud,
-                                      UserMapper userMapper) {
-        this.eventSender = eventSender;
-        this.usersServiceCrud = usersServiceCrud;
-        this.userMapper = userMapper;
+    public KafkaEventPublishingAspect(OutboxEventWriter outboxEventWriter) {
+        this.outboxEventWriter = outboxEventWriter;
     }
 
     /**
@@ -38,27 +38,47 @@ public class KafkaEventPublishingAspect {
      */
     @AfterReturning(
             pointcut = "execution(* ru.aston.intensive.springrestuserservice.services." +
-            "UsersServiceCrud.save(..)) && args(userEntity)"
+            "UsersServiceCrud.save(..))",
+            returning = "userEntity"
     )
     public void publishUserCreatedEvent(UserEntity userEntity) {
-        UserNotificationDto userNotificationDto = userMapper.toUserNotificationDto(userEntity);
-        userNotificationDto.setEventType("CREATED");
-        eventSender.sendMessage(userNotificationDto);
+        outboxEventWriter.write(new OutboxEventEntity(userEntity.getId(), userEntity.getEmail(), "CREATED"));
+    }
+
+    /**
+     * Публикует события создания пользователей после успешного пакетного сохранения.
+     * События записываются одним пакетом только для фактически созданных пользователей.
+     *
+     * @param results Результаты обработки пакета
+     */
+    @AfterReturning(
+            pointcut = "execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrud.saveAll(..))",
+            returning = "results"
+    )
+    public void publishUsersCreatedEvent(List<UserBatchItemResult> results) {
+        List<OutboxEventEntity> outboxEvents = results.stream()
+                .filter(result -> result.getStatus() == UserBatchItemResult.Status.CREATED)
+                .map(result -> new OutboxEventEntity(result.getId(), result.getEmail(), "CREATED"))
+                .toList();
+
+        if (!outboxEvents.isEmpty()) {
+            outboxEventWriter.writeAll(outboxEvents);
+        }
     }
 
     /**
-     * Публикует событие удаления пользователя перед выполнением операции удаления.
+     * Публикует событие удаления пользователя после успешного удаления.
+     * Событие строится по строке, возвращённой запросом удаления, без дополнительного чтения.
      *
-     * @param id Идентификатор пользователя
+     * @param userEntity Удалённая сущность пользователя
      */
-    @Before(
-            "execution(* ru.aston.intensive.springrestuserservice.services." +
-            "UsersServiceCrud.delete(..)) && args(id)"
+    @AfterReturning(
+            pointcut = "execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrud.delete(..))",
+            returning = "userEntity"
     )
-    public void publishUserDeletedEvent(Long id) {
-        UserEntity user = usersServiceCrud.findOne(id);
-        UserNotificationDto userNotificationDto = userMapper.toUserNotificationDto(user);
-        userNotificationDto.setEventType("DELETED");
-        eventSender.sendMessage(userNotificationDto);
+    public void publishUserDeletedEvent(UserEntity userEntity) {
+        outboxEventWriter.write(new OutboxEventEntity(userEntity.getId(), userEntity.getEmail(), "DELETED"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package ru.aston.intensive.kafkaproducer.event;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.aston.intensive.springrestuserservice.dto.UserMutationEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Компонент для отправки сообщений инвалидации кэша пользователей в Kafka.
+ * Сообщение отправляется после фиксации транзакции, чтобы другие экземпляры сервиса
+ * не загрузили в кэш ещё не зафиксированные данные.
+ * Ключ сообщения — id пользователя, значение — тип изменения, email передаётся заголовком:
+ * по этим сообщениям каждый экземпляр сервиса также наполняет свой поток изменений для подписчиков SSE.
+ */
+@Component
+public class CacheInvalidationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationSender.class);
+
+    /**
+     * Заголовок сообщения с email пользователя.
+     */
+    public static final String EMAIL_HEADER = "email";
+
+    /**
+     * Название топика инвалидации кэша.
+     */
+    @Value("${kafka.cacheInvalidationTopicName:user-cache-invalidation}")
+    private String topicName;
+
+    /**
+     * Шаблон Kafka для отправки сообщений инвалидации.
+     */
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param kafkaTemplate Шаблон Kafka для отправки сообщений инвалидации
+     */
+    @Autowired
+    CacheInvalidationSender(KafkaTemplate<String, String> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Отправляет инвалидацию записи пользователя.
+     *
+     * @param event Изменение пользователя
+     */
+    public void sendInvalidation(UserMutationEvent event) {
+        sendInvalidations(List.of(event));
+    }
+
+    /**
+     * Отправляет инвалидации записей пользователей.
+     * При активной транзакции отправка откладывается до её фиксации.
+     *
+     * @param events Изменения пользователей
+     */
+    public void sendInvalidations(List<UserMutationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(events);
+                }
+            });
+        } else {
+            send(events);
+        }
+    }
+
+    private void send(List<UserMutationEvent> events) {
+        for (UserMutationEvent event : events) {
+            Long id = event.getUserId();
+
+            try {
+                kafkaTemplate.send(toRecord(event))
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                log.warn("Не удалось отправить инвалидацию кэша для пользователя {}: {}",
+                                        id, ex.getMessage());
+                            }
+                        });
+            } catch (RuntimeException e) {
+                log.warn("Не удалось отправить инвалидацию кэша для пользователя {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private ProducerRecord<String, String> toRecord(UserMutationEvent event) {
+        ProducerRecord<String, String> invalidationRecord =
+                new ProducerRecord<>(topicName, String.valueOf(event.getUserId()), event.getType());
+
+        if (event.getEmail() != null) {
+            invalidationRecord.headers().add(EMAIL_HEADER, event.getEmail().getBytes(StandardCharsets.UTF_8));
+        }
+
+        return invalidationRecord;
+    }
+}
@@ -1,22 +1,35 @@
 package ru.aston.intensive.kafkaproducer.event;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MimeTypeUtils;
 import ru.aston.intensive.common.dto.UserNotificationDto;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventEntity;
 import ru.aston.intensive.springrestuserservice.util.KafkaOperationException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Компонент для отправки сообщений в Kafka.
+ * Ключом сообщения служит id пользователя: события одного пользователя попадают в одну партицию
+ * и читаются в порядке отправки, а партиционер продюсера распределяет пользователей по всем партициям.
  */
 @Component
 public class EventSender {
@@ -30,54 +43,123 @@ public class EventSender {
     private String topicName;
 
     /**
-     * Номер партиции для отправки сообщений.
+     * Максимальное время ожидания подтверждения пакета сообщений брокером, мс.
      */
-    @Value("1")
-    private int partition;
+    @Value("${kafka.sendTimeoutMs:10000}")
+    private long sendTimeoutMs;
 
     /**
      * Шаблон Kafka для отправки сообщений.
      */
     private final KafkaTemplate<String, UserNotificationDto> kafkaTemplate;
 
+    /**
+     * Время от передачи сообщения продюсеру до подтверждения брокером, успешные отправки.
+     */
+    private final Timer sendSuccessTimer;
+
+    /**
+     * Время от передачи сообщения продюсеру до ошибки отправки.
+     */
+    private final Timer sendFailureTimer;
+
     /**
      * Конструктор для внедрения зависимостей.
      *
      * @param kafkaTemplate Шаблон Kafka для отправки сообщений
+     * @param meterRegistry Реестр метрик
      */
     @Autowired
-    EventSender(KafkaTemplate<String, UserNotificationDto> kafkaTemplate) {
+    EventSender(KafkaTemplate<String, UserNotificationDto> kafkaTemplate, MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.sendSuccessTimer = sendTimer(meterRegistry, "success");
+        this.sendFailureTimer = sendTimer(meterRegistry, "failure");
     }
 
     /**
-     * Отправляет сообщение в Kafka.
+     * Отправляет пакет сообщений в Kafka и ожидает подтверждения брокером всех сообщений.
+     * Сообщения передаются продюсеру без ожидания подтверждения каждого,
+     * после чего буфер продюсера сбрасывается один раз для всего пакета.
+     * Порядок событий каждого пользователя сохраняется, так как они отправляются в порядке outbox-таблицы
+     * с одним ключом.
+     *
+     * @param outboxEvents События outbox-таблицы
      *
-     * @param userNotificationDto DTO с информацией о пользователе
+     * @throws KafkaOperationException если брокер не подтвердил отправку за kafka.sendTimeoutMs
      */
-    @CircuitBreaker(name = "KafkaCircuitBreaker", fallbackMethod = "fallbackKafkaOperation")
-    public void sendMessage(UserNotificationDto userNotificationDto) {
-        Message<UserNotificationDto> message = MessageBuilder.withPayload(userNotificationDto)
+    @CircuitBreaker(name = "KafkaCircuitBreaker", fallbackMethod = "fallbackKafkaBatchOperation")
+    public void sendMessages(List<OutboxEventEntity> outboxEvents) {
+        List<CompletableFuture<SendResult<String, UserNotificationDto>>> sendResults = new ArrayList<>();
+
+        for (OutboxEventEntity outboxEvent : outboxEvents) {
+            sendResults.add(send(buildMessage(outboxEvent.getUserId(), toUserNotificationDto(outboxEvent))));
+        }
+
+        kafkaTemplate.flush();
+
+        try {
+            CompletableFuture.allOf(sendResults.toArray(new CompletableFuture[0]))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaOperationException("Отправка сообщений в Kafka прервана", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaOperationException("Kafka не подтвердила отправку сообщений", e);
+        }
+    }
+
+    private CompletableFuture<SendResult<String, UserNotificationDto>> send(Message<UserNotificationDto> message) {
+        long startNanos = System.nanoTime();
+
+        return kafkaTemplate.send(message).whenComplete((result, ex) -> {
+            long elapsedNanos = System.nanoTime() - startNanos;
+
+            if (ex == null) {
+                sendSuccessTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            } else {
+                sendFailureTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+                log.warn("Kafka не подтвердила отправку сообщения с ключом {}: {}",
+                        message.getHeaders().get(KafkaHeaders.KEY), ex.getMessage());
+            }
+        });
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("kafka.user.events.send")
+                .description("Время подтверждения отправки событий пользователей брокером Kafka")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Message<UserNotificationDto> buildMessage(Long userId, UserNotificationDto userNotificationDto) {
+        return MessageBuilder.withPayload(userNotificationDto)
                 .setHeader(KafkaHeaders.TOPIC, topicName)
-                .setHeader(KafkaHeaders.PARTITION, partition)
+                .setHeader(KafkaHeaders.KEY, String.valueOf(userId))
                 .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
                 .build();
+    }
 
-        kafkaTemplate.send(message);
+    private UserNotificationDto toUserNotificationDto(OutboxEventEntity outboxEvent) {
+        UserNotificationDto userNotificationDto = new UserNotificationDto();
+        userNotificationDto.setEmail(outboxEvent.getEmail());
+        userNotificationDto.setEventType(outboxEvent.getEventType());
+
+        return userNotificationDto;
     }
 
     /**
-     * Fallback-метод для обработки сбоев Kafka.
+     * Fallback-метод для обработки сбоев Kafka при пакетной отправке.
      *
-     * @param userNotificationDto DTO с информацией о пользователе
-     * @param t                   исключение, вызвавшее сбой
+     * @param outboxEvents События outbox-таблицы
+     * @param t            исключение, вызвавшее сбой
      *
      * @throws KafkaOperationException для передачи ошибки в GlobalExceptionHandler
      */
-    public void fallbackKafkaOperation(UserNotificationDto userNotificationDto, Throwable t) {
-        log.error("Не удалось отправить сообщения в Kafka для пользователя {}: {}",
-                userNotificationDto.getEmail(), t.getMessage());
+    public void fallbackKafkaBatchOperation(List<OutboxEventEntity> outboxEvents, Throwable t) {
+        log.error("Не удалось отправить пакет из {} сообщений в Kafka: {}",
+                outboxEvents.size(), t.getMessage());
 
-        throw new KafkaOperationException("Не удалось отправить сообщение в Kafka", t);
+        throw new KafkaOperationException("Не удалось отправить сообщения в Kafka", t);
     }
+
 }
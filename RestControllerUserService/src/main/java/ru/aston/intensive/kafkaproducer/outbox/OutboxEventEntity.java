@@ -0,0 +1,112 @@
+package ru.aston.intensive.kafkaproducer.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись outbox-таблицы: событие жизненного цикла пользователя, ожидающее отправки в Kafka.
+ * Записывается в той же транзакции, что и изменение пользователя, и удаляется после подтверждения брокера.
+ */
+@Entity
+@Table(name = "user_event_outbox")
+public class OutboxEventEntity {
+
+    /**
+     * Идентификатор записи. Определяет порядок отправки событий.
+     */
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_event_outbox_seq")
+    @SequenceGenerator(name = "user_event_outbox_seq", sequenceName = "user_event_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Идентификатор пользователя, к которому относится событие.
+     */
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Email пользователя.
+     */
+    @Column(name = "email")
+    private String email;
+
+    /**
+     * Тип события.
+     */
+    @Column(name = "event_type")
+    private String eventType;
+
+    /**
+     * Время создания записи.
+     */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public OutboxEventEntity() {}
+
+    /**
+     * Конструктор записи события.
+     *
+     * @param userId    идентификатор пользователя
+     * @param email     email пользователя
+     * @param eventType тип события
+     */
+    public OutboxEventEntity(Long userId, String email, String eventType) {
+        this.userId = userId;
+        this.email = email;
+        this.eventType = eventType;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
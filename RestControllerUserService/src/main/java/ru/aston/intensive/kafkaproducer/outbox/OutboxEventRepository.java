@@ -0,0 +1,42 @@
+package ru.aston.intensive.kafkaproducer.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий outbox-таблицы событий пользователей.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Ключ advisory-блокировки PostgreSQL, которую удерживает экземпляр сервиса, отправляющий события.
+     */
+    long RELAY_LOCK_KEY = 0x75736572_6F757462L;
+
+    /**
+     * Пытается получить advisory-блокировку отправки событий до конца текущей транзакции.
+     * Отправку в каждый момент выполняет только получивший блокировку экземпляр сервиса,
+     * поэтому события одного пользователя не обгоняют друг друга при отправке в Kafka.
+     *
+     * @return true, если блокировка получена
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(" + RELAY_LOCK_KEY + ")", nativeQuery = true)
+    boolean tryLockRelay();
+
+    /**
+     * Выбирает и блокирует очередную порцию событий в порядке их записи.
+     * Вызывается под блокировкой {@link #tryLockRelay()}.
+     *
+     * @param limit Размер порции.
+     *
+     * @return Список заблокированных событий.
+     */
+    @Query(value = "SELECT * FROM user_event_outbox ORDER BY id LIMIT :limit FOR UPDATE",
+            nativeQuery = true)
+    List<OutboxEventEntity> lockNextBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,48 @@
+package ru.aston.intensive.kafkaproducer.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Компонент для записи событий пользователей в outbox-таблицу.
+ * Запись допускается только внутри уже открытой транзакции изменения пользователя,
+ * чтобы событие фиксировалось и откатывалось вместе с ним.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxEventWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param outboxEventRepository Репозиторий outbox-таблицы
+     */
+    @Autowired
+    public OutboxEventWriter(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    /**
+     * Записывает событие в outbox-таблицу.
+     *
+     * @param outboxEvent Событие пользователя
+     */
+    public void write(OutboxEventEntity outboxEvent) {
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    /**
+     * Записывает пакет событий в outbox-таблицу.
+     *
+     * @param outboxEvents События пользователей
+     */
+    public void writeAll(List<OutboxEventEntity> outboxEvents) {
+        outboxEventRepository.saveAll(outboxEvents);
+    }
+}
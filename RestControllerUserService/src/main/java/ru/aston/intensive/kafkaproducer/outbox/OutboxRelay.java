@@ -0,0 +1,133 @@
+package ru.aston.intensive.kafkaproducer.outbox;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.aston.intensive.kafkaproducer.event.EventSender;
+
+import java.util.List;
+
+/**
+ * Фоновая отправка событий из outbox-таблицы в Kafka.
+ * Порция событий блокируется, отправляется в Kafka с ожиданием подтверждения брокера
+ * и удаляется в той же транзакции. При ошибке отправки транзакция откатывается и порция
+ * отправляется повторно при следующем опросе, поэтому доставка выполняется не менее одного раза.
+ * Outbox-таблица служит журналом событий на время недоступности Kafka: запись пользователя от Kafka
+ * не зависит, а пока KafkaCircuitBreaker открыт, опросы пропускаются без обращения к таблице и брокеру.
+ * После перехода CircuitBreaker в полуоткрытое состояние журнал отправляется в порядке записи.
+ * Опрос выполняется на каждом экземпляре сервиса, но порцию отправляет только экземпляр, получивший
+ * advisory-блокировку на время транзакции: параллельная отправка разных порций нарушила бы порядок
+ * событий одного пользователя в Kafka.
+ */
+@Component
+@ConditionalOnProperty(name = "users.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventSender eventSender;
+    private final TransactionTemplate transactionTemplate;
+    private final CircuitBreaker kafkaCircuitBreaker;
+
+    /**
+     * Максимальное количество событий, отправляемых за одну транзакцию.
+     */
+    @Value("${users.outbox.batchSize:100}")
+    private int batchSize;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param outboxEventRepository  Репозиторий outbox-таблицы
+     * @param eventSender            Компонент отправки сообщений в Kafka
+     * @param transactionManager     Менеджер транзакций
+     * @param circuitBreakerRegistry Реестр CircuitBreaker, используемых аннотацией {@code @CircuitBreaker}
+     */
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       EventSender eventSender,
+                       PlatformTransactionManager transactionManager,
+                       CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventSender = eventSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaCircuitBreaker = circuitBreakerRegistry.circuitBreaker("KafkaCircuitBreaker");
+    }
+
+    /**
+     * Отправляет накопленные события порциями, пока таблица не опустеет.
+     * Опрос повторяется через users.outbox.pollInterval миллисекунд после завершения предыдущего.
+     */
+    @Scheduled(initialDelayString = "${users.outbox.pollInterval:500}",
+            fixedDelayString = "${users.outbox.pollInterval:500}")
+    public void relay() {
+        if (!kafkaAvailable()) {
+            log.debug("KafkaCircuitBreaker открыт, отправка событий из outbox отложена");
+            return;
+        }
+
+        try {
+            int relayed;
+
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось отправить события из outbox в Kafka, повтор при следующем опросе: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Проверяет, пропустит ли KafkaCircuitBreaker вызов.
+     * Проверка переводит открытый CircuitBreaker в полуоткрытое состояние по истечении времени ожидания;
+     * полученное разрешение сразу возвращается, так как вызов выполняется через аннотацию EventSender.
+     *
+     * @return true, если отправку можно выполнять
+     */
+    private boolean kafkaAvailable() {
+        if (!kafkaCircuitBreaker.tryAcquirePermission()) {
+            return false;
+        }
+
+        kafkaCircuitBreaker.releasePermission();
+
+        return true;
+    }
+
+    /**
+     * Отправляет одну порцию событий.
+     *
+     * @return количество отправленных событий; 0, если события отправляет другой экземпляр сервиса
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            if (!outboxEventRepository.tryLockRelay()) {
+                log.debug("События из outbox отправляет другой экземпляр сервиса");
+                return 0;
+            }
+
+            List<OutboxEventEntity> outboxEvents = outboxEventRepository.lockNextBatch(batchSize);
+
+            if (outboxEvents.isEmpty()) {
+                return 0;
+            }
+
+            eventSender.sendMessages(outboxEvents);
+            outboxEventRepository.deleteAllByIdInBatch(outboxEvents.stream().map(OutboxEventEntity::getId).toList());
+
+            return outboxEvents.size();
+        });
+
+        return relayed != null ? relayed : 0;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.aston.intensive.springrestuserservice.actuator;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import ru.aston.intensive.springrestuserservice.services.EmailBloomFilter;
+
+/**
+ * Endpoint Actuator для фильтра Блума email.
+ * GET /actuator/emailbloomfilter возвращает статистику, POST перестраивает фильтр.
+ */
+@Component
+@Endpoint(id = "emailbloomfilter")
+public class EmailBloomFilterEndpoint {
+
+    private final EmailBloomFilter emailBloomFilter;
+
+    /**
+     * Конструктор endpoint'а.
+     *
+     * @param emailBloomFilter фильтр Блума email
+     */
+    @Autowired
+    public EmailBloomFilterEndpoint(EmailBloomFilter emailBloomFilter) {
+        this.emailBloomFilter = emailBloomFilter;
+    }
+
+    /**
+     * Возвращает статистику фильтра.
+     *
+     * @return статистика фильтра
+     */
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return emailBloomFilter.getStats();
+    }
+
+    /**
+     * Перестраивает фильтр по текущему содержимому таблицы users.
+     *
+     * @return статистика перестроенного фильтра
+     */
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        emailBloomFilter.rebuild();
+
+        return emailBloomFilter.getStats();
+    }
+}
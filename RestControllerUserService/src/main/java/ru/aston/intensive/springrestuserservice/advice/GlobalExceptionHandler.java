@@ -9,6 +9,7 @@ import ru.aston.intensive.springrestuserservice.util.KafkaOperationException;
 import ru.aston.intensive.springrestuserservice.util.UserErrorResponse;
 import ru.aston.intensive.springrestuserservice.util.UserNotCreatedException;
 import ru.aston.intensive.springrestuserservice.util.UserNotFoundException;
+import ru.aston.intensive.springrestuserservice.util.UserVersionConflictException;
 
 import java.time.LocalDateTime;
 
@@ -35,6 +36,23 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Обрабатывает исключение, когда пользователь изменён другим запросом.
+     *
+     * @param e Исключение UserVersionConflictException
+     *
+     * @return Ответ с описанием ошибки и статусом 409
+     */
+    @ExceptionHandler
+    public ResponseEntity<UserErrorResponse> handleException(UserVersionConflictException e) {
+        UserErrorResponse response = new UserErrorResponse(
+                e.getMessage() != null ? e.getMessage() : "Пользователь изменён другим запросом",
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     /**
      * Обрабатывает исключение, когда пользователь не создан или не обновлён.
      *
@@ -46,7 +46,7 @@ public class ControllerLoggingAspect {
      * @param id Идентификатор пользователя
      */
     @Before("execution(* ru.aston.intensive.springrestuserservice.controllers." +
-            "UsersController.getUser(..)) && args(id)")
+            "UsersController.getUser(..)) && args(id,..)")
     public void logBeforeGetUser(Long id) {
         logger.info("Получен GET-запрос для получения пользователя с ID: {}", id);
     }
@@ -82,6 +82,17 @@ public class ControllerLoggingAspect {
         logger.info("Пользователь успешно создан");
     }
 
+    /**
+     * Логирует вызов метода пакетного создания пользователей перед его выполнением.
+     *
+     * @param userDtos DTO пользователей
+     */
+    @Before("execution(* ru.aston.intensive.springrestuserservice.controllers." +
+            "UsersController.createUsers(..)) && args(userDtos)")
+    public void logBeforeCreateUsers(List<UserDto> userDtos) {
+        logger.info("Получен POST-запрос для пакетного создания {} пользователей", userDtos.size());
+    }
+
     /**
      * Логирует вызов метода обновления пользователя перед его выполнением.
      *
@@ -6,6 +6,7 @@ import org.aspectj.lang.annotation.Before;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
 
 import java.util.List;
@@ -84,6 +85,31 @@ public class ServiceLoggingAspect {
         logger.info("Пользователь с email {} успешно сохранен", userEntity.getEmail());
     }
 
+    /**
+     * Логирует вызов метода пакетного сохранения пользователей перед его выполнением.
+     *
+     * @param userEntities Сущности пользователей
+     */
+    @Before("execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrudImpl.saveAll(..)) && args(userEntities)")
+    public void logBeforeSaveAll(List<UserEntity> userEntities) {
+        logger.info("Попытка пакетного сохранения {} пользователей", userEntities.size());
+    }
+
+    /**
+     * Логирует результат пакетного сохранения пользователей.
+     *
+     * @param result Результаты обработки пакета
+     */
+    @AfterReturning(pointcut = "execution(* ru.aston.intensive.springrestuserservice.services." +
+            "UsersServiceCrudImpl.saveAll(..))", returning = "result")
+    public void logAfterSaveAll(List<UserBatchItemResult> result) {
+        long created = result.stream()
+                .filter(item -> item.getStatus() == UserBatchItemResult.Status.CREATED)
+                .count();
+        logger.info("Пакетно сохранено {} из {} пользователей", created, result.size());
+    }
+
     /**
      * Логирует вызов метода обновления пользователя перед его выполнением.
      *
@@ -91,7 +117,7 @@ public class ServiceLoggingAspect {
      * @param userEntity Сущность пользователя
      */
     @Before("execution(* ru.aston.intensive.springrestuserservice.services." +
-            "UsersServiceCrudImpl.update(..)) && args(id,userEntity)")
+            "UsersServiceCrudImpl.update(..)) && args(id,userEntity,..)")
     public void logBeforeUpdate(Long id, UserEntity userEntity) {
         logger.info("Попытка обновления пользователя с ID: {}", id);
     }
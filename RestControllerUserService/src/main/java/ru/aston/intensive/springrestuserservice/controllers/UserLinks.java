@@ -0,0 +1,81 @@
+package ru.aston.intensive.springrestuserservice.controllers;
+
+import org.springframework.hateoas.Link;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Шаблоны HATEOAS-ссылок на пользователей.
+ * Базовый URI контроллера вычисляется один раз на запрос, а ссылки на конкретного пользователя
+ * получаются подстановкой id в готовую строку, без прокси {@code methodOn} и повторного разбора запроса.
+ * Ссылки совпадают с теми, что строит {@code linkTo(methodOn(UsersController.class)...)}.
+ */
+final class UserLinks {
+
+    private final String usersUri;
+    private final Link usersLink;
+
+    private UserLinks(String usersUri) {
+        this.usersUri = usersUri;
+        this.usersLink = Link.of(usersUri, "users");
+    }
+
+    /**
+     * Создаёт шаблоны ссылок для текущего HTTP-запроса.
+     *
+     * @return шаблоны ссылок с базовым URI контроллера пользователей
+     */
+    static UserLinks forCurrentRequest() {
+        return new UserLinks(linkTo(UsersController.class).toUri().toString());
+    }
+
+    /**
+     * Ссылка на пользователя.
+     *
+     * @param id идентификатор пользователя
+     *
+     * @return ссылка с отношением self
+     */
+    Link self(Long id) {
+        return Link.of(usersUri + "/" + id);
+    }
+
+    /**
+     * Ссылка на список пользователей.
+     *
+     * @return ссылка с отношением users
+     */
+    Link users() {
+        return usersLink;
+    }
+
+    /**
+     * Ссылка на удаление пользователя.
+     *
+     * @param id идентификатор пользователя
+     *
+     * @return ссылка с отношением delete
+     */
+    Link delete(Long id) {
+        return Link.of(usersUri + "/delete/" + id, "delete");
+    }
+
+    /**
+     * Ссылка на список пользователей с отношением self.
+     *
+     * @return ссылка с отношением self
+     */
+    Link collectionSelf() {
+        return Link.of(usersUri);
+    }
+
+    /**
+     * Построитель URI списка пользователей для добавления параметров запроса.
+     *
+     * @return построитель URI
+     */
+    UriComponentsBuilder collectionUriBuilder() {
+        return UriComponentsBuilder.fromUriString(usersUri);
+    }
+}
@@ -7,34 +7,67 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
+import ru.aston.intensive.springrestuserservice.dto.UserChangesPage;
 import ru.aston.intensive.springrestuserservice.dto.UserDto;
+import ru.aston.intensive.springrestuserservice.dto.UserFieldsPage;
+import ru.aston.intensive.springrestuserservice.dto.UserMultiGetResult;
+import ru.aston.intensive.springrestuserservice.dto.UserPlainDto;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.springrestuserservice.services.IdempotencyStore;
+import ru.aston.intensive.springrestuserservice.services.UserChangeStream;
 import ru.aston.intensive.springrestuserservice.services.UserMapper;
+import ru.aston.intensive.springrestuserservice.services.UsersExportService;
 import ru.aston.intensive.springrestuserservice.services.UsersServiceCrud;
+import ru.aston.intensive.springrestuserservice.util.UserBatchConflictException;
+import ru.aston.intensive.springrestuserservice.util.UserChangeCursor;
+import ru.aston.intensive.springrestuserservice.util.UserCursor;
+import ru.aston.intensive.springrestuserservice.util.UserETag;
+import ru.aston.intensive.springrestuserservice.util.UserExportFormat;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+import ru.aston.intensive.springrestuserservice.util.UserMergePatch;
 import ru.aston.intensive.springrestuserservice.util.UserNotCreatedException;
 import ru.aston.intensive.springrestuserservice.util.UserNotFoundException;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCriteria;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCursor;
+import ru.aston.intensive.springrestuserservice.util.UserSortField;
+import ru.aston.intensive.springrestuserservice.util.UserVersionConflictException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST-контроллер для управления пользователями.
@@ -45,64 +78,471 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Tag(name = "Пользователи", description = "Взаимодействие с пользователями")
 public class UsersController {
 
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    /**
+     * Заголовок с курсором следующей страницы в облегчённом режиме без ссылок.
+     */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UsersServiceCrud usersServiceCRUD;
+    private final UsersExportService usersExportService;
+    private final UserChangeStream userChangeStream;
+    private final IdempotencyStore idempotencyStore;
     private final UserMapper userMapper;
+    private final Validator validator;
+
+    /**
+     * Максимальное количество пользователей в одном пакетном запросе.
+     */
+    @Value("${users.batch.maxSize:1000}")
+    private int maxBatchSize;
 
     /**
      * Конструктор контроллера пользователей.
      *
      * @param usersServiceCRUD Сервис для работы с пользователями
+     * @param usersExportService Сервис потоковой выгрузки пользователей
+     * @param userChangeStream Поток изменений пользователей для подписчиков SSE
+     * @param idempotencyStore Хранилище ответов на запросы с ключом идемпотентности
      * @param userMapper Маппер для преобразования объектов между UserEntity и UserDto
+     * @param validator Валидатор для проверки элементов пакетного запроса
      */
     @Autowired
-    public UsersController(UsersServiceCrud usersServiceCRUD, UserMapper userMapper) {
+    public UsersController(UsersServiceCrud usersServiceCRUD,
+                           UsersExportService usersExportService,
+                           UserChangeStream userChangeStream,
+                           IdempotencyStore idempotencyStore,
+                           UserMapper userMapper,
+                           Validator validator) {
         this.usersServiceCRUD = usersServiceCRUD;
+        this.usersExportService = usersExportService;
+        this.userChangeStream = userChangeStream;
+        this.idempotencyStore = idempotencyStore;
         this.userMapper = userMapper;
+        this.validator = validator;
     }
 
 
     /**
-     * Получает список всех пользователей.
+     * Получает страницу пользователей.
+     * Используется keyset-пагинация: ссылка next содержит курсор следующей страницы.
+     * Если пользователи не изменялись после If-None-Match или If-Modified-Since, возвращается 304.
+     *
+     * @param after      Курсор следующей страницы (или id пользователя при сортировке по id)
+     * @param limit      Размер страницы
+     * @param sort       Поле сортировки: id, created_at или name
+     * @param webRequest Запрос для проверки условных заголовков
      *
-     * @return Список пользователей в формате UserDto
+     * @return Страница пользователей в формате UserDto или null, если список не изменился
      *
-     * @throws UserNotFoundException Если пользователи не найдены
+     * @throws IllegalArgumentException Если параметры пагинации некорректны
      */
     @GetMapping
     @Operation(
-            summary = "Получение всех пользователей",
-            description = "Позволяет получить список данных всех пользователей"
+            summary = "Получение пользователей",
+            description = "Позволяет получить страницу пользователей, отсортированную по id, created_at или name"
     )
     @ApiResponses( value = {
-            @ApiResponse(responseCode = "200", description = "Все пользователи получены", content = {
+            @ApiResponse(responseCode = "200", description = "Страница пользователей получена", content = {
                     @Content(mediaType = "application/json", schema = @Schema(implementation = UserDto.class))
             }),
+            @ApiResponse(responseCode = "304", description = "Пользователи не изменились"),
             @ApiResponse(responseCode = "400", description = "Неверный запрос"),
             @ApiResponse(responseCode = "404", description = "Страница не найдена"),
             @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
             @ApiResponse(responseCode = "503", description = "Сервис недоступен")
     })
-    public CollectionModel<UserDto> getUsers() {
-        List<UserDto> users = usersServiceCRUD.findAll().stream()
+    public CollectionModel<UserDto> getUsers(
+            @Parameter(description = "Курсор следующей страницы")
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @Parameter(description = "Поле сортировки: id, created_at или name")
+            @RequestParam(value = "sort", defaultValue = "id") String sort,
+            WebRequest webRequest
+    ) {
+        UserSortField sortField = UserSortField.fromParam(sort);
+        UserCursor cursor = after != null ? UserCursor.decode(after, sortField) : null;
+
+        if (isCollectionNotModified(webRequest)) {
+            return null;
+        }
+
+        List<UserEntity> page = usersServiceCRUD.findPage(sortField, cursor, limit);
+        UserLinks links = UserLinks.forCurrentRequest();
+
+        List<UserDto> users = page.stream()
                 .map(userEntity -> {
                     UserDto userDto = userMapper.toUserDto(userEntity);
-                    userDto.add(linkTo(methodOn(UsersController.class).getUser(userEntity.getId())).withSelfRel());
-                    userDto.add(linkTo(methodOn(UsersController.class).getUsers()).withRel("users"));
+                    userDto.add(links.self(userEntity.getId()));
+                    userDto.add(links.users());
                     userDto.add(Link.of("users/update/" + userEntity.getId(), "update").withType("PUT"));
                     return userDto;
                 })
                 .toList();
-        return CollectionModel.of(users,
-                linkTo(methodOn(UsersController.class).getUsers()).withSelfRel(),
+
+        CollectionModel<UserDto> collectionModel = CollectionModel.of(users,
+                links.collectionSelf(),
                 Link.of("users/create", "create").withType("POST"));
+
+        if (page.size() == limit) {
+            String nextCursor = UserCursor.of(sortField, page.get(page.size() - 1)).encode();
+            collectionModel.add(Link.of(links.collectionUriBuilder()
+                    .queryParam("after", nextCursor)
+                    .queryParam("limit", limit)
+                    .queryParam("sort", sortField.getParamName())
+                    .toUriString(), "next"));
+        }
+
+        return collectionModel;
+    }
+
+    /**
+     * Получает страницу пользователей без HATEOAS-ссылок.
+     * Ссылки не строятся, а курсор следующей страницы передаётся в заголовке X-Next-Cursor.
+     * Если пользователи не изменялись после If-None-Match или If-Modified-Since, возвращается 304.
+     *
+     * @param after      Курсор следующей страницы (или id пользователя при сортировке по id)
+     * @param limit      Размер страницы
+     * @param sort       Поле сортировки: id, created_at или name
+     * @param webRequest Запрос для проверки условных заголовков
+     *
+     * @return Страница пользователей в формате UserPlainDto или null, если список не изменился
+     *
+     * @throws IllegalArgumentException Если параметры пагинации некорректны
+     */
+    @GetMapping(params = {"links=false", "!fields", "!ids"})
+    @Operation(
+            summary = "Получение пользователей без ссылок",
+            description = "Позволяет получить страницу пользователей без HATEOAS-ссылок; " +
+                    "курсор следующей страницы передаётся в заголовке X-Next-Cursor"
+    )
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "Страница пользователей получена", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = UserPlainDto.class))
+            }),
+            @ApiResponse(responseCode = "304", description = "Пользователи не изменились"),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public ResponseEntity<List<UserPlainDto>> getUsersPlain(
+            @Parameter(description = "Курсор следующей страницы")
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @Parameter(description = "Поле сортировки: id, created_at или name")
+            @RequestParam(value = "sort", defaultValue = "id") String sort,
+            WebRequest webRequest
+    ) {
+        UserSortField sortField = UserSortField.fromParam(sort);
+        UserCursor cursor = after != null ? UserCursor.decode(after, sortField) : null;
+
+        if (isCollectionNotModified(webRequest)) {
+            return null;
+        }
+
+        List<UserEntity> page = usersServiceCRUD.findPage(sortField, cursor, limit);
+        List<UserPlainDto> users = page.stream().map(userMapper::toUserPlainDto).toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (page.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, UserCursor.of(sortField, page.get(page.size() - 1)).encode());
+        }
+
+        return response.body(users);
+    }
+
+    /**
+     * Получает страницу пользователей, содержащую только указанные поля.
+     * Поля выбираются из базы данных проекцией, ссылки не строятся,
+     * курсор следующей страницы передаётся в заголовке X-Next-Cursor.
+     * Если пользователи не изменялись после If-None-Match или If-Modified-Since, возвращается 304.
+     *
+     * @param fields     Список полей через запятую: id, name, email, age, created_at, updated_at
+     * @param after      Курсор следующей страницы (или id пользователя при сортировке по id)
+     * @param limit      Размер страницы
+     * @param sort       Поле сортировки: id, created_at или name
+     * @param webRequest Запрос для проверки условных заголовков
+     *
+     * @return Страница пользователей: имя поля — значение или null, если список не изменился
+     *
+     * @throws IllegalArgumentException Если список полей или параметры пагинации некорректны
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(
+            summary = "Получение выбранных полей пользователей",
+            description = "Позволяет получить страницу пользователей только с перечисленными полями; " +
+                    "курсор следующей страницы передаётся в заголовке X-Next-Cursor"
+    )
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "Страница пользователей получена"),
+            @ApiResponse(responseCode = "304", description = "Пользователи не изменились"),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getUsersFields(
+            @Parameter(description = "Список полей через запятую", example = "id,email")
+            @RequestParam("fields") String fields,
+            @Parameter(description = "Курсор следующей страницы")
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @Parameter(description = "Поле сортировки: id, created_at или name")
+            @RequestParam(value = "sort", defaultValue = "id") String sort,
+            WebRequest webRequest
+    ) {
+        Set<UserField> userFields = UserField.parse(fields);
+        UserSortField sortField = UserSortField.fromParam(sort);
+        UserCursor cursor = after != null ? UserCursor.decode(after, sortField) : null;
+
+        if (isCollectionNotModified(webRequest)) {
+            return null;
+        }
+
+        UserFieldsPage page = usersServiceCRUD.findPageFields(userFields, sortField, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+
+        return response.body(page.getUsers());
+    }
+
+    /**
+     * Получает нескольких пользователей по списку идентификаторов.
+     * Пользователи возвращаются без HATEOAS-ссылок в порядке идентификаторов в запросе,
+     * ненайденные идентификаторы перечисляются в missingIds без ошибки 404 для всего запроса.
+     *
+     * @param ids Идентификаторы пользователей через запятую
+     *
+     * @return Найденные пользователи и ненайденные идентификаторы
+     *
+     * @throws IllegalArgumentException Если количество идентификаторов вне допустимого диапазона
+     */
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "Получение нескольких пользователей",
+            description = "Позволяет получить пользователей по списку Id одним запросом"
+    )
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "Пользователи получены", content = {
+                    @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserMultiGetResult.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public UserMultiGetResult getUsersByIds(
+            @Parameter(description = "Список Id через запятую", example = "1,2,3")
+            @RequestParam("ids") List<Long> ids
+    ) {
+        Map<Long, UserEntity> foundUsers = usersServiceCRUD.findAllByIds(ids);
+
+        List<UserPlainDto> users = foundUsers.values().stream().map(userMapper::toUserPlainDto).toList();
+        List<Long> missingIds = ids.stream()
+                .distinct()
+                .filter(id -> !foundUsers.containsKey(id))
+                .toList();
+
+        return new UserMultiGetResult(users, missingIds);
+    }
+
+    /**
+     * Ищет пользователей по префиксу имени, домену email и диапазону возраста.
+     * Условия объединяются через И, должно быть задано хотя бы одно.
+     * Пользователи возвращаются без HATEOAS-ссылок; используется keyset-пагинация,
+     * курсор следующей страницы передаётся в заголовке X-Next-Cursor.
+     *
+     * @param name        Префикс имени без учёта регистра
+     * @param emailDomain Домен email, например example.com
+     * @param minAge      Минимальный возраст включительно
+     * @param maxAge      Максимальный возраст включительно
+     * @param after       Курсор следующей страницы
+     * @param limit       Размер страницы
+     *
+     * @return Страница найденных пользователей в формате UserPlainDto
+     *
+     * @throws IllegalArgumentException Если условия поиска или параметры пагинации некорректны
+     */
+    @GetMapping("/search")
+    @Operation(
+            summary = "Поиск пользователей",
+            description = "Позволяет найти пользователей по префиксу имени, домену email и диапазону возраста; " +
+                    "курсор следующей страницы передаётся в заголовке X-Next-Cursor"
+    )
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "Страница пользователей получена", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = UserPlainDto.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public ResponseEntity<List<UserPlainDto>> searchUsers(
+            @Parameter(description = "Префикс имени", example = "joh")
+            @RequestParam(value = "name", required = false) String name,
+            @Parameter(description = "Домен email", example = "example.com")
+            @RequestParam(value = "emailDomain", required = false) String emailDomain,
+            @Parameter(description = "Минимальный возраст")
+            @RequestParam(value = "minAge", required = false) Integer minAge,
+            @Parameter(description = "Максимальный возраст")
+            @RequestParam(value = "maxAge", required = false) Integer maxAge,
+            @Parameter(description = "Курсор следующей страницы")
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(value = "limit", defaultValue = "50") int limit
+    ) {
+        UserSearchCriteria criteria = UserSearchCriteria.of(name, emailDomain, minAge, maxAge);
+        UserSearchCursor cursor = after != null ? UserSearchCursor.decode(after, criteria.getOrder()) : null;
+
+        List<UserEntity> page = usersServiceCRUD.search(criteria, cursor, limit);
+        List<UserPlainDto> users = page.stream().map(userMapper::toUserPlainDto).toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (page.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER,
+                    UserSearchCursor.of(criteria.getOrder(), page.get(page.size() - 1)).encode());
+        }
+
+        return response.body(users);
+    }
+
+    /**
+     * Получает изменения пользователей после курсора для инкрементальной синхронизации.
+     * Удалённые пользователи возвращаются отметками с признаком deleted.
+     * Курсор nextCursor передаётся в следующий запрос; при hasMore=false изменения получены полностью.
+     *
+     * @param since Курсор последнего полученного изменения; без курсора изменения выдаются с начала
+     * @param limit Максимальное количество изменений
+     *
+     * @return Страница изменений с курсором для следующего запроса
+     *
+     * @throws IllegalArgumentException Если курсор или размер страницы некорректны
+     */
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Получение изменений пользователей",
+            description = "Позволяет получить пользователей, изменённых или удалённых после курсора"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изменения получены", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = UserChangesPage.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public UserChangesPage getUserChanges(
+            @Parameter(description = "Курсор последнего полученного изменения")
+            @RequestParam(value = "since", required = false) String since,
+            @Parameter(description = "Максимальное количество изменений")
+            @RequestParam(value = "limit", defaultValue = "100") int limit
+    ) {
+        UserChangeCursor cursor = since != null ? UserChangeCursor.decode(since) : null;
+
+        return usersServiceCRUD.findChanges(cursor, limit);
+    }
+
+    /**
+     * Подписывает клиента на поток изменений пользователей (Server-Sent Events).
+     * События CREATED, UPDATED и DELETED передаются после фиксации изменений.
+     * При переподключении с заголовком Last-Event-ID передаются пропущенные события;
+     * если они недоступны, передаётся событие RESET, после которого изменения догружаются через /users/changes.
+     *
+     * @param lastEventId Идентификатор последнего полученного события
+     *
+     * @return SSE-подключение
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Поток изменений пользователей",
+            description = "Server-Sent Events о создании, обновлении и удалении пользователей"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Подписка оформлена", content = {
+                    @Content(mediaType = "text/event-stream")
+            }),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера")
+    })
+    public SseEmitter streamUserChanges(
+            @Parameter(description = "Идентификатор последнего полученного события")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return userChangeStream.subscribe(lastEventId);
+    }
+
+    /**
+     * Выгружает всех пользователей потоком в формате NDJSON или CSV.
+     * Строки пишутся в ответ по мере чтения из базы данных.
+     *
+     * @param format Формат выгрузки: ndjson или csv
+     * @param gzip   Сжимать ли ответ gzip
+     *
+     * @return Потоковое тело ответа
+     *
+     * @throws IllegalArgumentException Если формат не поддерживается
+     */
+    @GetMapping("/export")
+    @Operation(
+            summary = "Выгрузка всех пользователей",
+            description = "Потоковая выгрузка всех пользователей в формате NDJSON или CSV"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка начата", content = {
+                    @Content(mediaType = "application/x-ndjson"),
+                    @Content(mediaType = "text/csv")
+            }),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Формат выгрузки: ndjson или csv")
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @Parameter(description = "Сжимать ответ gzip")
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip
+    ) {
+        UserExportFormat exportFormat = UserExportFormat.fromParam(format);
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+                usersExportService.exportAll(exportFormat, gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                usersExportService.exportAll(exportFormat, outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=users." + exportFormat.getParamName());
+
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(body);
     }
 
     /**
      * Получает пользователя по идентификатору.
+     * Версия пользователя возвращается в заголовке ETag и может быть передана в If-Match при обновлении,
+     * время обновления — в заголовке Last-Modified.
+     * Если пользователь не изменялся после If-None-Match или If-Modified-Since, возвращается 304 без тела.
      *
-     * @param id идентификатор пользователя
+     * @param id         идентификатор пользователя
+     * @param webRequest запрос для проверки условных заголовков
      *
-     * @return пользователь в формате UserDto
+     * @return пользователь в формате UserDto или null, если пользователь не изменился
      *
      * @throws UserNotFoundException если пользователь не найден
      */
@@ -115,30 +555,112 @@ public class UsersController {
             @ApiResponse(responseCode = "200", description = "Пользователь получен успешно", content = {
                     @Content(mediaType = "application/json", schema = @Schema(implementation = UserDto.class))
             }),
+            @ApiResponse(responseCode = "304", description = "Пользователь не изменился"),
             @ApiResponse(responseCode = "400", description = "Неверный запрос"),
             @ApiResponse(responseCode = "404", description = "Страница не найдена"),
             @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
             @ApiResponse(responseCode = "503", description = "Сервис недоступен")
     })
-    public EntityModel<UserDto> getUser(@Parameter(description = "Id пользователя") @PathVariable("id") Long id) {
-       UserDto userDto = userMapper.toUserDto(usersServiceCRUD.findOne(id));
-       userDto.add(linkTo(methodOn(UsersController.class).getUser(id)).withSelfRel());
-       userDto.add(linkTo(methodOn(UsersController.class).getUsers()).withRel("users"));
+    public ResponseEntity<EntityModel<UserDto>> getUser(
+            @Parameter(description = "Id пользователя") @PathVariable("id") Long id,
+            WebRequest webRequest) {
+       UserEntity userEntity = usersServiceCRUD.findOne(id);
+
+       if (isUserNotModified(userEntity, webRequest)) {
+           return null;
+       }
+
+       UserDto userDto = userMapper.toUserDto(userEntity);
+       UserLinks links = UserLinks.forCurrentRequest();
+       userDto.add(links.self(id));
+       userDto.add(links.users());
        userDto.add(Link.of("/users/update/" + id, "update").withType("PUT"));
-       userDto.add(linkTo(methodOn(UsersController.class).deleteUser(id)).withRel("delete"));
-       return EntityModel.of(userDto);
+       userDto.add(links.delete(id));
+       return ResponseEntity.ok(EntityModel.of(userDto));
+    }
+
+    /**
+     * Получает пользователя по идентификатору без HATEOAS-ссылок.
+     * Заголовки ETag и Last-Modified и ответ 304 — как при получении пользователя со ссылками.
+     *
+     * @param id         Идентификатор пользователя
+     * @param webRequest Запрос для проверки условных заголовков
+     *
+     * @return пользователь в формате UserPlainDto или null, если пользователь не изменился
+     *
+     * @throws UserNotFoundException если пользователь не найден
+     */
+    @GetMapping(value = "/{id}", params = {"links=false", "!fields"})
+    @Operation(
+            summary = "Получение пользователя без ссылок",
+            description = "Позволяет получить данные пользователя по его Id без HATEOAS-ссылок"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь получен успешно", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = UserPlainDto.class))
+            }),
+            @ApiResponse(responseCode = "304", description = "Пользователь не изменился"),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public ResponseEntity<UserPlainDto> getUserPlain(
+            @Parameter(description = "Id пользователя") @PathVariable("id") Long id,
+            WebRequest webRequest) {
+        UserEntity userEntity = usersServiceCRUD.findOne(id);
+
+        if (isUserNotModified(userEntity, webRequest)) {
+            return null;
+        }
+
+        return ResponseEntity.ok(userMapper.toUserPlainDto(userEntity));
+    }
+
+    /**
+     * Получает указанные поля пользователя по идентификатору.
+     *
+     * @param id     Идентификатор пользователя
+     * @param fields Список полей через запятую: id, name, email, age, created_at, updated_at
+     *
+     * @return Поля пользователя: имя поля — значение
+     *
+     * @throws UserNotFoundException    если пользователь не найден
+     * @throws IllegalArgumentException если список полей некорректен
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(
+            summary = "Получение выбранных полей пользователя",
+            description = "Позволяет получить только перечисленные поля пользователя по его Id"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь получен успешно"),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public Map<String, Object> getUserFields(
+            @Parameter(description = "Id пользователя") @PathVariable("id") Long id,
+            @Parameter(description = "Список полей через запятую", example = "id,email")
+            @RequestParam("fields") String fields
+    ) {
+        return usersServiceCRUD.findOneFields(UserField.parse(fields), id);
     }
 
     /**
      * Создает нового пользователя.
+     * При переданном заголовке Idempotency-Key повторный запрос с тем же ключом
+     * получает ответ на первый запрос без повторного создания пользователя.
      *
-     * @param userDto       Данные пользователя в формате UserDto
-     * @param bindingResult Результат валидации
+     * @param userDto        Данные пользователя в формате UserDto
+     * @param bindingResult  Результат валидации
+     * @param idempotencyKey Ключ идемпотентности
      *
      * @return HTTP-статус OK при успешном создании
      *
      * @throws UserNotCreatedException  Если данные пользователя некорректны
-     * @throws IllegalArgumentException Если email уже занят
+     * @throws IllegalArgumentException Если email уже занят или ключ идемпотентности использован с другим запросом
      */
     @PostMapping("/create")
     @Operation(
@@ -157,7 +679,9 @@ public class UsersController {
     })
     public ResponseEntity<UserDto> createUser(
             @RequestBody @Valid @Parameter(description = "Объект пользователя") UserDto userDto,
-            @Parameter(description = "Ожидаемый результат")BindingResult bindingResult) {
+            @Parameter(description = "Ожидаемый результат")BindingResult bindingResult,
+            @Parameter(description = "Ключ идемпотентности")
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         if (bindingResult.hasErrors()) {
             StringBuilder errorMsg = new StringBuilder();
@@ -173,26 +697,122 @@ public class UsersController {
             throw new UserNotCreatedException(errorMsg.toString());
         }
 
+        if (idempotencyKey == null) {
+            return createUserResponse(userDto);
+        }
+
+        return idempotencyStore.execute("create:" + idempotencyKey, fingerprint(userDto),
+                () -> createUserResponse(userDto));
+    }
+
+    private ResponseEntity<UserDto> createUserResponse(UserDto userDto) {
         UserEntity savedUser = usersServiceCRUD.save(userMapper.toUserEntity(userDto));
         UserDto saveUserDto = userMapper.toUserDto(savedUser);
-        saveUserDto.add(linkTo(methodOn(UsersController.class).getUser(savedUser.getId())).withSelfRel());
-        saveUserDto.add(linkTo(methodOn(UsersController.class).getUsers()).withRel("users"));
+        UserLinks links = UserLinks.forCurrentRequest();
+        saveUserDto.add(links.self(savedUser.getId()));
+        saveUserDto.add(links.users());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(saveUserDto);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(UserETag.of(savedUser.getVersion())).body(saveUserDto);
+    }
+
+    /**
+     * Создаёт пакет пользователей.
+     * Каждый элемент валидируется отдельно, невалидные и повторяющиеся элементы
+     * не прерывают обработку остальных и возвращаются в результатах.
+     * Если пакет отклонён из-за email, не проверенного в базе данных, сохранение повторяется один раз.
+     *
+     * @param userDtos Данные пользователей в формате UserDto
+     *
+     * @return Результаты обработки в порядке элементов запроса
+     *
+     * @throws UserNotCreatedException Если пакет пуст или превышает допустимый размер
+     */
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Пакетное создание пользователей",
+            description = "Позволяет создать несколько пользователей одним запросом с результатом по каждому"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пакет обработан", content = {
+                    @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserBatchItemResult.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Ошибка создания пользователей"),
+            @ApiResponse(responseCode = "404", description = "Страница не найдена"),
+            @ApiResponse(responseCode = "405", description = "Метод не разрешен"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public ResponseEntity<List<UserBatchItemResult>> createUsers(
+            @RequestBody @Parameter(description = "Список пользователей") List<UserDto> userDtos) {
+
+        if (userDtos.isEmpty() || userDtos.size() > maxBatchSize) {
+            throw new UserNotCreatedException("Размер пакета должен быть от 1 до " + maxBatchSize);
+        }
+
+        UserBatchItemResult[] results = new UserBatchItemResult[userDtos.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<UserEntity> validUserEntities = new ArrayList<>();
+
+        for (int i = 0; i < userDtos.size(); i++) {
+            UserDto userDto = userDtos.get(i);
+            Set<ConstraintViolation<UserDto>> violations = validator.validate(userDto);
+
+            if (violations.isEmpty()) {
+                validIndexes.add(i);
+                validUserEntities.add(userMapper.toUserEntity(userDto));
+                continue;
+            }
+
+            StringBuilder errorMsg = new StringBuilder();
+
+            for (ConstraintViolation<UserDto> violation : violations) {
+                errorMsg.append(violation.getPropertyPath())
+                        .append(" - ").append(violation.getMessage())
+                        .append(";");
+            }
+
+            results[i] = UserBatchItemResult.invalid(i, userDto.getEmail(), errorMsg.toString());
+        }
+
+        List<UserBatchItemResult> savedResults;
+
+        try {
+            savedResults = usersServiceCRUD.saveAll(validUserEntities);
+        } catch (UserBatchConflictException e) {
+            savedResults = usersServiceCRUD.saveAll(validUserEntities);
+        }
+
+        for (UserBatchItemResult savedResult : savedResults) {
+            int index = validIndexes.get(savedResult.getIndex());
+            savedResult.setIndex(index);
+            results[index] = savedResult;
+        }
+
+        return ResponseEntity.ok(Arrays.asList(results));
     }
 
     /**
      * Обновляет данные пользователя.
+     * При переданном заголовке If-Match с версией из ETag пользователь обновляется,
+     * только если с момента получения версии его не изменил другой запрос.
+     * Новая версия пользователя возвращается в заголовке ETag.
+     * При переданном заголовке Idempotency-Key повторный запрос с тем же ключом
+     * получает ответ на первый запрос без повторного обновления.
      *
-     * @param id            идентификатор пользователя
-     * @param userDto       обновленные данные пользователя в формате UserDto
-     * @param bindingResult результат валидации
+     * @param id             идентификатор пользователя
+     * @param userDto        обновленные данные пользователя в формате UserDto
+     * @param bindingResult  результат валидации
+     * @param idempotencyKey ключ идемпотентности
+     * @param ifMatch        ожидаемая версия пользователя в формате ETag
      *
      * @return HTTP-статус OK при успешном обновлении
      *
-     * @throws UserNotCreatedException  если данные пользователя некорректны
-     * @throws UserNotFoundException    если пользователь не найден
-     * @throws IllegalArgumentException если email уже занят
+     * @throws UserNotCreatedException      если данные пользователя некорректны
+     * @throws UserNotFoundException        если пользователь не найден
+     * @throws UserVersionConflictException если версия пользователя не совпадает с If-Match
+     * @throws IllegalArgumentException     если email уже занят, заголовок If-Match некорректен
+     *                                      или ключ идемпотентности использован с другим запросом
      */
     @PutMapping("/update/{id}")
     @Operation(
@@ -206,13 +826,18 @@ public class UsersController {
             @ApiResponse(responseCode = "400", description = "Неверный запрос"),
             @ApiResponse(responseCode = "404", description = "Страница не найдена"),
             @ApiResponse(responseCode = "405", description = "Метод не разрешен"),
+            @ApiResponse(responseCode = "409", description = "Пользователь изменён другим запросом"),
             @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
             @ApiResponse(responseCode = "503", description = "Сервис недоступен")
     })
     public ResponseEntity<UserDto> updateUser(
             @Parameter(description = "Id пользователя") @PathVariable("id")  Long id,
             @Parameter(description = "Объект пользователя") @RequestBody @Valid  UserDto userDto,
-            @Parameter(description = "Ожидаемый результат") BindingResult bindingResult
+            @Parameter(description = "Ожидаемый результат") BindingResult bindingResult,
+            @Parameter(description = "Ключ идемпотентности")
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Parameter(description = "Ожидаемая версия пользователя из ETag", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
 
         if (bindingResult.hasErrors()) {
@@ -228,13 +853,151 @@ public class UsersController {
             throw new UserNotCreatedException(errorMsg.toString());
         }
 
-        UserEntity updatedUserEntity = usersServiceCRUD.update(id, userMapper.toUserEntity(userDto));
+        Long expectedVersion = UserETag.parseIfMatch(ifMatch);
+
+        if (idempotencyKey == null) {
+            return updateUserResponse(id, userDto, expectedVersion);
+        }
+
+        return idempotencyStore.execute("update/" + id + ":" + idempotencyKey,
+                fingerprint(userDto) + "\n" + expectedVersion,
+                () -> updateUserResponse(id, userDto, expectedVersion));
+    }
+
+    private ResponseEntity<UserDto> updateUserResponse(Long id, UserDto userDto, Long expectedVersion) {
+        UserEntity userEntity = userMapper.toUserEntity(userDto);
+        UserEntity updatedUserEntity = expectedVersion == null
+                ? usersServiceCRUD.update(id, userEntity)
+                : usersServiceCRUD.update(id, userEntity, expectedVersion);
         UserDto updatedUserDto = userMapper.toUserDto(updatedUserEntity);
-        updatedUserDto.add(linkTo(methodOn(UsersController.class).getUser(id)).withSelfRel());
-        updatedUserDto.add(linkTo(methodOn(UsersController.class).getUsers()).withRel("users"));
-        updatedUserDto.add(linkTo(methodOn(UsersController.class).deleteUser(id)).withRel("delete"));
+        UserLinks links = UserLinks.forCurrentRequest();
+        updatedUserDto.add(links.self(id));
+        updatedUserDto.add(links.users());
+        updatedUserDto.add(links.delete(id));
+
+        return ResponseEntity.ok().eTag(UserETag.of(updatedUserEntity.getVersion())).body(updatedUserDto);
+    }
+
+    /**
+     * Проверяет условный запрос к пользователю по его версии и времени обновления
+     * и устанавливает заголовки ETag и Last-Modified ответа.
+     * Пользователь читается из кэша, поэтому при попадании в кэш ответ 304 не требует ни обращения
+     * к базе данных, ни преобразования и сериализации пользователя.
+     *
+     * @param userEntity пользователь
+     * @param webRequest запрос
+     *
+     * @return true, если пользователь не изменился и клиенту отправляется ответ 304
+     */
+    private boolean isUserNotModified(UserEntity userEntity, WebRequest webRequest) {
+        return webRequest.checkNotModified(UserETag.of(userEntity.getVersion()),
+                UserETag.lastModified(userEntity.getUpdated_at()));
+    }
+
+    /**
+     * Проверяет условный запрос к списку пользователей по времени последнего изменения пользователей,
+     * включая удаления, и устанавливает заголовки ETag и Last-Modified ответа.
+     * Время изменения запрашивается до чтения страницы, поэтому изменение между запросами
+     * приводит к повторной выдаче страницы, а не к устаревшему ответу 304.
+     *
+     * @param webRequest запрос
+     *
+     * @return true, если пользователи не изменились и клиенту отправляется ответ 304
+     */
+    private boolean isCollectionNotModified(WebRequest webRequest) {
+        LocalDateTime lastChangedAt = usersServiceCRUD.findLastChangedAt();
+
+        return webRequest.checkNotModified(UserETag.ofLastChange(lastChangedAt), UserETag.lastModified(lastChangedAt));
+    }
+
+    /**
+     * Строит отпечаток тела запроса для проверки, что ключ идемпотентности не использован с другими данными.
+     *
+     * @param userDto данные пользователя
+     *
+     * @return отпечаток запроса
+     */
+    private String fingerprint(UserDto userDto) {
+        return userDto.getName() + "\n" + userDto.getEmail() + "\n" + userDto.getAge();
+    }
+
+    /**
+     * Частично обновляет пользователя в формате JSON Merge Patch.
+     * Изменяются только переданные поля, запрос к базе данных записывает только их колонки.
+     * Пустое изменение не выполняет запись и возвращает текущего пользователя.
+     * При переданном заголовке If-Match пользователь обновляется, только если его версия совпадает.
+     * Новая версия пользователя возвращается в заголовке ETag.
+     *
+     * @param id      идентификатор пользователя
+     * @param body    изменяемые поля: name, email, age
+     * @param ifMatch ожидаемая версия пользователя в формате ETag
+     *
+     * @return обновлённый пользователь
+     *
+     * @throws UserNotCreatedException      если новые значения полей некорректны
+     * @throws UserNotFoundException        если пользователь не найден
+     * @throws UserVersionConflictException если версия пользователя не совпадает с If-Match
+     * @throws IllegalArgumentException     если поле нельзя изменить, email уже занят
+     *                                      или заголовок If-Match некорректен
+     */
+    @PatchMapping(value = "/{id}", consumes = {UserMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+            summary = "Частичное обновление пользователя",
+            description = "Обновляет только переданные поля пользователя в формате JSON Merge Patch"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь успешно обновлен", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = UserDto.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+            @ApiResponse(responseCode = "409", description = "Пользователь изменён другим запросом"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен")
+    })
+    public ResponseEntity<UserDto> patchUser(
+            @Parameter(description = "Id пользователя") @PathVariable("id") Long id,
+            @Parameter(description = "Изменяемые поля пользователя", example = "{\"age\": 31}")
+            @RequestBody Map<String, Object> body,
+            @Parameter(description = "Ожидаемая версия пользователя из ETag", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        UserMergePatch patch = UserMergePatch.parse(body);
+        Long expectedVersion = UserETag.parseIfMatch(ifMatch);
+        StringBuilder errorMsg = new StringBuilder();
+
+        patch.getChanges().forEach((field, value) -> {
+            for (ConstraintViolation<UserDto> violation :
+                    validator.validateValue(UserDto.class, field.getParamName(), value)) {
+                errorMsg.append(field.getParamName())
+                        .append(" - ").append(violation.getMessage())
+                        .append(";");
+            }
+        });
+
+        if (!errorMsg.isEmpty()) {
+            throw new UserNotCreatedException(errorMsg.toString());
+        }
+
+        UserEntity patchedUserEntity;
+
+        if (patch.isEmpty()) {
+            patchedUserEntity = usersServiceCRUD.findOne(id);
+
+            if (expectedVersion != null && patchedUserEntity.getVersion() != expectedVersion) {
+                throw new UserVersionConflictException("Пользователь изменён другим запросом");
+            }
+        } else {
+            patchedUserEntity = usersServiceCRUD.patch(id, patch, expectedVersion);
+        }
+
+        UserDto patchedUserDto = userMapper.toUserDto(patchedUserEntity);
+        UserLinks links = UserLinks.forCurrentRequest();
+        patchedUserDto.add(links.self(id));
+        patchedUserDto.add(links.users());
+        patchedUserDto.add(links.delete(id));
 
-        return ResponseEntity.ok(updatedUserDto);
+        return ResponseEntity.ok().eTag(UserETag.of(patchedUserEntity.getVersion())).body(patchedUserDto);
     }
 
     /**
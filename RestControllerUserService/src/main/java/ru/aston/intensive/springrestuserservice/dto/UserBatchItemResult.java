@@ -0,0 +1,137 @@
+package ru.aston.intensive.springrestuserservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Результат обработки одного пользователя в пакетном запросе на создание.
+ */
+@Schema(description = "Результат создания одного пользователя в пакетном запросе")
+public class UserBatchItemResult {
+
+    /**
+     * Статус обработки элемента пакета.
+     */
+    public enum Status {
+        /** Пользователь создан. */
+        CREATED,
+        /** Данные пользователя не прошли валидацию. */
+        INVALID,
+        /** Email уже занят или повторяется в пакете. */
+        DUPLICATE
+    }
+
+    @Schema(description = "Позиция элемента в запросе", example = "0")
+    private int index;
+
+    @Schema(description = "Статус обработки", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "Id созданного пользователя", example = "1")
+    private Long id;
+
+    @Schema(description = "Email пользователя", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "Описание ошибки", example = "Email уже занят")
+    private String message;
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public UserBatchItemResult() {}
+
+    /**
+     * Конструктор результата обработки элемента.
+     *
+     * @param index   позиция элемента в запросе
+     * @param status  статус обработки
+     * @param id      идентификатор созданного пользователя
+     * @param email   email пользователя
+     * @param message описание ошибки
+     */
+    public UserBatchItemResult(int index, Status status, Long id, String email, String message) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.email = email;
+        this.message = message;
+    }
+
+    /**
+     * Создаёт результат для успешно созданного пользователя.
+     *
+     * @param index позиция элемента в запросе
+     * @param id    идентификатор созданного пользователя
+     * @param email email пользователя
+     *
+     * @return результат со статусом CREATED
+     */
+    public static UserBatchItemResult created(int index, Long id, String email) {
+        return new UserBatchItemResult(index, Status.CREATED, id, email, null);
+    }
+
+    /**
+     * Создаёт результат для пользователя, не прошедшего валидацию.
+     *
+     * @param index   позиция элемента в запросе
+     * @param email   email пользователя
+     * @param message описание ошибок валидации
+     *
+     * @return результат со статусом INVALID
+     */
+    public static UserBatchItemResult invalid(int index, String email, String message) {
+        return new UserBatchItemResult(index, Status.INVALID, null, email, message);
+    }
+
+    /**
+     * Создаёт результат для пользователя с занятым email.
+     *
+     * @param index позиция элемента в запросе
+     * @param email email пользователя
+     *
+     * @return результат со статусом DUPLICATE
+     */
+    public static UserBatchItemResult duplicate(int index, String email) {
+        return new UserBatchItemResult(index, Status.DUPLICATE, null, email, "Email уже занят");
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
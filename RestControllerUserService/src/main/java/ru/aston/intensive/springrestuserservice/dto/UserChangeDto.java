@@ -0,0 +1,125 @@
+package ru.aston.intensive.springrestuserservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * Изменение пользователя в ленте изменений.
+ * Для удалённого пользователя содержит только id, время удаления и признак deleted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Изменение пользователя: актуальные данные или отметка об удалении")
+public class UserChangeDto {
+
+    @Schema(description = "Id пользователя", example = "1")
+    private Long id;
+
+    @Schema(description = "Пользователь удалён", example = "false")
+    private boolean deleted;
+
+    @Schema(description = "Время изменения или удаления", example = "2025-01-15T10:30:45.123456")
+    private LocalDateTime changedAt;
+
+    @Schema(description = "Имя пользователя", example = "John Doe")
+    private String name;
+
+    @Schema(description = "Email пользователя", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "Возраст пользователя", example = "30")
+    private Integer age;
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public UserChangeDto() {}
+
+    /**
+     * Создаёт изменение с актуальными данными пользователя.
+     *
+     * @param id        идентификатор пользователя
+     * @param changedAt время изменения
+     * @param name      имя пользователя
+     * @param email     email пользователя
+     * @param age       возраст пользователя
+     *
+     * @return изменение пользователя
+     */
+    public static UserChangeDto upserted(Long id, LocalDateTime changedAt, String name, String email, Integer age) {
+        UserChangeDto change = new UserChangeDto();
+        change.id = id;
+        change.changedAt = changedAt;
+        change.name = name;
+        change.email = email;
+        change.age = age;
+
+        return change;
+    }
+
+    /**
+     * Создаёт отметку об удалении пользователя.
+     *
+     * @param id        идентификатор пользователя
+     * @param deletedAt время удаления
+     *
+     * @return изменение пользователя с признаком deleted
+     */
+    public static UserChangeDto deleted(Long id, LocalDateTime deletedAt) {
+        UserChangeDto change = new UserChangeDto();
+        change.id = id;
+        change.deleted = true;
+        change.changedAt = deletedAt;
+
+        return change;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.aston.intensive.springrestuserservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Страница ленты изменений пользователей.
+ */
+@Schema(description = "Изменения пользователей после курсора")
+public class UserChangesPage {
+
+    @Schema(description = "Изменения в порядке (changedAt, id)")
+    private List<UserChangeDto> changes;
+
+    @Schema(description = "Курсор для следующего запроса изменений")
+    private String nextCursor;
+
+    @Schema(description = "Есть ли ещё изменения, которые не поместились в страницу", example = "false")
+    private boolean hasMore;
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public UserChangesPage() {}
+
+    /**
+     * Конструктор страницы.
+     *
+     * @param changes    изменения в порядке (changedAt, id)
+     * @param nextCursor курсор для следующего запроса или null, если изменений ещё не было
+     * @param hasMore    есть ли ещё изменения после страницы
+     */
+    public UserChangesPage(List<UserChangeDto> changes, String nextCursor, boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<UserChangeDto> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<UserChangeDto> changes) {
+        this.changes = changes;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.aston.intensive.springrestuserservice.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Страница пользователей, содержащая только запрошенные поля.
+ */
+public class UserFieldsPage {
+
+    private final List<Map<String, Object>> users;
+    private final String nextCursor;
+
+    /**
+     * Конструктор страницы.
+     *
+     * @param users      строки пользователей: имя поля — значение
+     * @param nextCursor курсор следующей страницы или null, если страница последняя
+     */
+    public UserFieldsPage(List<Map<String, Object>> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Map<String, Object>> getUsers() {
+        return users;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.aston.intensive.springrestuserservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Результат получения нескольких пользователей по списку идентификаторов.
+ */
+@Schema(description = "Пользователи, найденные по списку Id, и Id, которые не найдены")
+public class UserMultiGetResult {
+
+    @Schema(description = "Найденные пользователи в порядке Id в запросе")
+    private List<UserPlainDto> users;
+
+    @Schema(description = "Id, для которых пользователи не найдены", example = "[42]")
+    private List<Long> missingIds;
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public UserMultiGetResult() {}
+
+    /**
+     * Конструктор результата.
+     *
+     * @param users      найденные пользователи в порядке идентификаторов в запросе
+     * @param missingIds идентификаторы, для которых пользователи не найдены
+     */
+    public UserMultiGetResult(List<UserPlainDto> users, List<Long> missingIds) {
+        this.users = users;
+        this.missingIds = missingIds;
+    }
+
+    public List<UserPlainDto> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserPlainDto> users) {
+        this.users = users;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
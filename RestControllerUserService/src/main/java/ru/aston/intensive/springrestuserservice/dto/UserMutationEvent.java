@@ -0,0 +1,61 @@
+package ru.aston.intensive.springrestuserservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Событие изменения пользователя в потоке Server-Sent Events.
+ */
+@Schema(description = "Событие создания, обновления или удаления пользователя")
+public class UserMutationEvent {
+
+    @Schema(description = "Id пользователя", example = "1")
+    private Long userId;
+
+    @Schema(description = "Тип события: CREATED, UPDATED или DELETED", example = "UPDATED")
+    private String type;
+
+    @Schema(description = "Email пользователя", example = "john.doe@example.com")
+    private String email;
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public UserMutationEvent() {}
+
+    /**
+     * Конструктор события.
+     *
+     * @param userId идентификатор пользователя
+     * @param type   тип события
+     * @param email  email пользователя
+     */
+    public UserMutationEvent(Long userId, String type, String email) {
+        this.userId = userId;
+        this.type = type;
+        this.email = email;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
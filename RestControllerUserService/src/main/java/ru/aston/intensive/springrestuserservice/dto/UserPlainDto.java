@@ -0,0 +1,55 @@
+package ru.aston.intensive.springrestuserservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Облегчённое представление пользователя без HATEOAS-ссылок.
+ * Возвращается при запросе с параметром links=false клиентам, которые не переходят по ссылкам.
+ */
+@Schema(description = "Пользователь без HATEOAS-ссылок")
+public class UserPlainDto {
+
+    @Schema(description = "Id пользователя", example = "1")
+    private Long id;
+
+    @Schema(description = "Имя пользователя", example = "John Doe")
+    private String name;
+
+    @Schema(description = "Email пользователя", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "Возраст пользователя", example = "30")
+    private int age;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+}
@@ -1,36 +1,76 @@
 package ru.aston.intensive.springrestuserservice.models;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.aston.intensive.springrestuserservice.util.NoDigits;
 import ru.aston.intensive.springrestuserservice.util.ValidEmail;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 /**
  * Класс, представляющий сущность пользователя в системе.
  * Сопоставляется с таблицей "users" в базе данных.
+ * Составные индексы (поле, id) обслуживают постраничную выборку с сортировкой по этим полям,
+ * индекс (updated_at, id) — выборку изменений для синхронизации,
+ * индексы (name_search, id), (email_domain, id) и (age, id) — поиск пользователей.
+ * Уникальность email обеспечивается ограничением на нормализованный email.
+ * Сущность хранится в кэше второго уровня Hibernate в регионе {@link #CACHE_REGION}.
+ * Версия записи увеличивается при каждом обновлении и используется для условного обновления.
  */
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserEntity.CACHE_REGION)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_users_name_id", columnList = "name, id"),
+        @Index(name = "idx_users_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_users_name_search_id", columnList = "name_search, id"),
+        @Index(name = "idx_users_email_domain_id", columnList = "email_domain, id"),
+        @Index(name = "idx_users_age_id", columnList = "age, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = UserEntity.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email_normalized")
+})
 public class UserEntity {
 
+    /**
+     * Имя ограничения уникальности нормализованного email.
+     */
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_users_email_normalized";
+
+    /**
+     * Имя региона кэша второго уровня для пользователей.
+     */
+    public static final String CACHE_REGION = "user-entity";
+
     /**
      * Уникальный идентификатор пользователя.
+     * Берётся из последовательности блоками по allocationSize значений (оптимизатор pooled),
+     * что позволяет Hibernate объединять вставки в JDBC-пакеты.
      */
     @Id
     @Column(name="id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -52,6 +92,13 @@ public class UserEntity {
     @ValidEmail
     private String email;
 
+    /**
+     * Email в нормализованном виде (без пробелов по краям, в нижнем регистре).
+     * Заполняется перед вставкой и обновлением записи.
+     */
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
     /**
      * Возраст пользователя. Должен быть больше 0 и меньше 150 лет.
      */
@@ -72,6 +119,30 @@ public class UserEntity {
     @Column(name = "updated_at")
     private LocalDateTime updated_at;
 
+    /**
+     * Имя в нижнем регистре для поиска по префиксу.
+     * Вычисляется базой данных при каждой записи; сравнивается побайтно (collation "C"),
+     * поэтому имена с общим префиксом идут в индексе подряд.
+     */
+    @Column(name = "name_search", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) collate \"C\" generated always as (lower(name)) stored")
+    private String nameSearch;
+
+    /**
+     * Домен нормализованного email для поиска по домену.
+     * Вычисляется базой данных при каждой записи.
+     */
+    @Column(name = "email_domain", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (split_part(email_normalized, '@', 2)) stored")
+    private String emailDomain;
+
+    /**
+     * Версия записи. Увеличивается при каждом обновлении пользователя.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
+
     /**
      * Конструктор по умолчанию.
      */
@@ -90,6 +161,23 @@ public class UserEntity {
         this.age = age;
     }
 
+    /**
+     * Приводит email к виду, в котором проверяется его уникальность.
+     *
+     * @param email адрес электронной почты
+     *
+     * @return нормализованный email или null, если email не задан
+     */
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void fillEmailNormalized() {
+        emailNormalized = normalizeEmail(email);
+    }
+
     public Long getId() {
         return id;
     }
@@ -114,6 +202,10 @@ public class UserEntity {
         this.email = email;
     }
 
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
+
     public int getAge() {
         return age;
     }
@@ -137,4 +229,16 @@ public class UserEntity {
     public void setUpdated_at(LocalDateTime updated_at) {
         this.updated_at = updated_at;
     }
+
+    public String getNameSearch() {
+        return nameSearch;
+    }
+
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    public long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,55 @@
+package ru.aston.intensive.springrestuserservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отметка об удалении пользователя.
+ * Записывается тем же запросом, что удаляет пользователя, и позволяет клиентам синхронизации
+ * узнать об удалении из ленты изменений. Индекс (deleted_at, user_id) обслуживает выборку изменений.
+ */
+@Entity
+@Table(name = "user_tombstones", indexes = {
+        @Index(name = "idx_user_tombstones_deleted_at_user_id", columnList = "deleted_at, user_id")
+})
+public class UserTombstoneEntity {
+
+    /**
+     * Идентификатор удалённого пользователя.
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Время удаления пользователя.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public UserTombstoneEntity() {}
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import ru.aston.intensive.springrestuserservice.dto.UserChangeDto;
+import ru.aston.intensive.springrestuserservice.util.UserChangeCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Фрагмент репозитория пользователей для выборки ленты изменений.
+ * Лента объединяет изменённых пользователей и отметки об удалении в порядке (время изменения, id),
+ * поэтому стоимость запроса зависит от количества изменений, а не от размера таблицы.
+ */
+public interface UsersChangesRepository {
+
+    /**
+     * Возвращает изменения пользователей после курсора методом keyset-пагинации.
+     *
+     * @param after курсор последнего выданного изменения или null для выборки с начала
+     * @param upTo  время, позже которого изменения не выбираются
+     * @param limit максимальное количество изменений
+     *
+     * @return изменения в порядке (время изменения, id)
+     */
+    List<UserChangeDto> findChanges(UserChangeCursor after, LocalDateTime upTo, int limit);
+
+    /**
+     * Возвращает время последнего изменения пользователей с учётом удалений не позже указанного времени.
+     * Максимумы читаются с индексов (updated_at, id) и (deleted_at, user_id), а не полным просмотром таблиц.
+     *
+     * @param upTo время, позже которого изменения не учитываются
+     *
+     * @return время последнего изменения или null, если пользователей и удалений нет
+     */
+    LocalDateTime findLastChangedAt(LocalDateTime upTo);
+}
@@ -0,0 +1,95 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.aston.intensive.springrestuserservice.dto.UserChangeDto;
+import ru.aston.intensive.springrestuserservice.util.UserChangeCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Реализация выборки ленты изменений нативным запросом UNION ALL по таблицам users и user_tombstones.
+ * Каждая ветка читает свой индекс (время, id) и ограничена размером страницы.
+ */
+public class UsersChangesRepositoryImpl implements UsersChangesRepository {
+
+    private static final String USERS_AFTER = " AND (updated_at, id) > (:changedAt, :afterId)";
+    private static final String TOMBSTONES_AFTER = " AND (deleted_at, user_id) > (:changedAt, :afterId)";
+
+    private final EntityManager entityManager;
+
+    /**
+     * Конструктор фрагмента репозитория.
+     *
+     * @param entityManager менеджер сущностей
+     */
+    @Autowired
+    public UsersChangesRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UserChangeDto> findChanges(UserChangeCursor after, LocalDateTime upTo, int limit) {
+        String sql = "(SELECT id, name, email, age, updated_at AS changed_at, false AS deleted FROM users " +
+                "WHERE updated_at <= :upTo" + (after != null ? USERS_AFTER : "") +
+                " ORDER BY updated_at, id LIMIT :limit) " +
+                "UNION ALL " +
+                "(SELECT user_id, CAST(NULL AS varchar), CAST(NULL AS varchar), CAST(NULL AS integer), " +
+                "deleted_at, true FROM user_tombstones " +
+                "WHERE deleted_at <= :upTo" + (after != null ? TOMBSTONES_AFTER : "") +
+                " ORDER BY deleted_at, user_id LIMIT :limit) " +
+                "ORDER BY changed_at, id LIMIT :limit";
+
+        NativeQuery<Tuple> query = entityManager.createNativeQuery(sql, Tuple.class)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("name", String.class)
+                .addScalar("email", String.class)
+                .addScalar("age", Integer.class)
+                .addScalar("changed_at", LocalDateTime.class)
+                .addScalar("deleted", Boolean.class);
+
+        query.setParameter("upTo", upTo);
+        query.setParameter("limit", limit);
+
+        if (after != null) {
+            query.setParameter("changedAt", after.getChangedAt());
+            query.setParameter("afterId", after.getId());
+        }
+
+        return query.getResultList()
+                .stream()
+                .map(this::toChange)
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public LocalDateTime findLastChangedAt(LocalDateTime upTo) {
+        NativeQuery<LocalDateTime> query = entityManager.createNativeQuery(
+                        "SELECT GREATEST((SELECT max(updated_at) FROM users WHERE updated_at <= :upTo), " +
+                                "(SELECT max(deleted_at) FROM user_tombstones WHERE deleted_at <= :upTo)) " +
+                                "AS last_changed_at")
+                .unwrap(NativeQuery.class)
+                .addScalar("last_changed_at", LocalDateTime.class)
+                .setParameter("upTo", upTo);
+
+        return query.getSingleResult();
+    }
+
+    private UserChangeDto toChange(Tuple tuple) {
+        Long id = tuple.get("id", Long.class);
+        LocalDateTime changedAt = tuple.get("changed_at", LocalDateTime.class);
+
+        if (tuple.get("deleted", Boolean.class)) {
+            return UserChangeDto.deleted(id, changedAt);
+        }
+
+        return UserChangeDto.upserted(id, changedAt, tuple.get("name", String.class),
+                tuple.get("email", String.class), tuple.get("age", Integer.class));
+    }
+}
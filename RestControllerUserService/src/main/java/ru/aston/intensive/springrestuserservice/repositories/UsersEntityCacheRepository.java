@@ -0,0 +1,17 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+/**
+ * Фрагмент репозитория пользователей для работы с кэшем второго уровня Hibernate.
+ * Нативные запросы изменения данных не обновляют кэш второго уровня,
+ * поэтому после них запись пользователя удаляется из кэша явно.
+ */
+public interface UsersEntityCacheRepository {
+
+    /**
+     * Удаляет пользователя из кэша второго уровня сразу и повторно после завершения текущей транзакции,
+     * чтобы параллельное чтение до фиксации не оставило в кэше старые данные.
+     *
+     * @param id идентификатор пользователя
+     */
+    void evictFromEntityCache(Long id);
+}
@@ -0,0 +1,41 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+
+/**
+ * Реализация удаления пользователей из кэша второго уровня через {@link Cache} фабрики менеджеров сущностей.
+ */
+public class UsersEntityCacheRepositoryImpl implements UsersEntityCacheRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Конструктор фрагмента репозитория.
+     *
+     * @param entityManager менеджер сущностей
+     */
+    @Autowired
+    public UsersEntityCacheRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void evictFromEntityCache(Long id) {
+        Cache entityCache = entityManager.getEntityManagerFactory().getCache();
+        entityCache.evict(UserEntity.class, id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityCache.evict(UserEntity.class, id);
+                }
+            });
+        }
+    }
+}
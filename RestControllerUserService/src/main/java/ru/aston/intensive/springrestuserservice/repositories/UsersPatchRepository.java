@@ -0,0 +1,30 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Фрагмент репозитория пользователей для частичного обновления.
+ * Запрос UPDATE строится только по изменённым колонкам.
+ */
+public interface UsersPatchRepository {
+
+    /**
+     * Обновляет переданные поля пользователя одним запросом и возвращает обновлённую запись.
+     * Остальные колонки, кроме времени обновления и версии, не перезаписываются;
+     * нормализованный email обновляется только вместе с email.
+     *
+     * @param id              идентификатор пользователя
+     * @param changes         новые значения изменяемых полей: имя, email, возраст
+     * @param updatedAt       время обновления
+     * @param expectedVersion ожидаемая версия записи или null для обновления без проверки версии
+     *
+     * @return обновлённый пользователь или пустой Optional, если пользователь не найден или его версия изменилась
+     */
+    Optional<UserEntity> patchReturning(Long id, Map<UserField, Object> changes, LocalDateTime updatedAt,
+                                        Long expectedVersion);
+}
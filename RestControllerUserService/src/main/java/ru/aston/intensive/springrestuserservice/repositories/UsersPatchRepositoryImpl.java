@@ -0,0 +1,75 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Реализация частичного обновления нативным запросом UPDATE ... RETURNING,
+ * в котором перечислены только изменённые колонки.
+ * Имена колонок берутся из {@link UserField}, значения передаются параметрами запроса.
+ * Возвращённая запись не помещается в кэш второго уровня, как и при полном обновлении.
+ */
+public class UsersPatchRepositoryImpl implements UsersPatchRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Конструктор фрагмента репозитория.
+     *
+     * @param entityManager менеджер сущностей
+     */
+    @Autowired
+    public UsersPatchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<UserEntity> patchReturning(Long id, Map<UserField, Object> changes, LocalDateTime updatedAt,
+                                               Long expectedVersion) {
+        StringBuilder sql = new StringBuilder("UPDATE users SET ");
+
+        for (UserField field : changes.keySet()) {
+            sql.append(field.getParamName()).append(" = :").append(field.getParamName()).append(", ");
+
+            if (field == UserField.EMAIL) {
+                sql.append("email_normalized = :emailNormalized, ");
+            }
+        }
+
+        sql.append("updated_at = :updatedAt, version = version + 1 WHERE id = :id");
+
+        if (expectedVersion != null) {
+            sql.append(" AND version = :expectedVersion");
+        }
+
+        sql.append(" RETURNING *");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), UserEntity.class)
+                .setHint(UsersRepository.CACHE_STORE_MODE_HINT, "BYPASS")
+                .setParameter("id", id)
+                .setParameter("updatedAt", updatedAt);
+
+        changes.forEach((field, value) -> query.setParameter(field.getParamName(), value));
+
+        if (changes.containsKey(UserField.EMAIL)) {
+            query.setParameter("emailNormalized", UserEntity.normalizeEmail((String) changes.get(UserField.EMAIL)));
+        }
+
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+
+        List<UserEntity> result = query.getResultList();
+
+        return result.stream().findFirst();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import ru.aston.intensive.springrestuserservice.util.UserCursor;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+import ru.aston.intensive.springrestuserservice.util.UserSortField;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Фрагмент репозитория пользователей для выборки отдельных полей.
+ * Запрос выбирает только перечисленные колонки и не создаёт сущностей,
+ * поэтому для результата не выполняются снимки состояния и проверка изменений.
+ */
+public interface UsersProjectionRepository {
+
+    /**
+     * Возвращает страницу пользователей с указанными полями методом keyset-пагинации.
+     * Кроме запрошенных полей, строка всегда содержит id и поле сортировки, необходимые для курсора.
+     *
+     * @param fields    запрошенные поля
+     * @param sortField поле сортировки
+     * @param after     курсор последней записи предыдущей страницы или null для первой страницы
+     * @param limit     размер страницы
+     *
+     * @return строки страницы: имя поля — значение
+     */
+    List<Map<String, Object>> findPageProjection(Set<UserField> fields, UserSortField sortField,
+                                                 UserCursor after, int limit);
+
+    /**
+     * Возвращает указанные поля пользователя.
+     *
+     * @param fields запрошенные поля
+     * @param id     идентификатор пользователя
+     *
+     * @return строка пользователя: имя поля — значение, или пустой Optional, если пользователь не найден
+     */
+    Optional<Map<String, Object>> findProjectionById(Set<UserField> fields, Long id);
+}
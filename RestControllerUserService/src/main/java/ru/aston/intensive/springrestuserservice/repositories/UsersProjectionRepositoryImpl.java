@@ -0,0 +1,137 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.springrestuserservice.util.UserCursor;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+import ru.aston.intensive.springrestuserservice.util.UserSortField;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Реализация выборки отдельных полей пользователей через Criteria API с результатом в виде Tuple.
+ */
+public class UsersProjectionRepositoryImpl implements UsersProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Конструктор фрагмента репозитория.
+     *
+     * @param entityManager менеджер сущностей
+     */
+    @Autowired
+    public UsersProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findPageProjection(Set<UserField> fields, UserSortField sortField,
+                                                        UserCursor after, int limit) {
+        Set<UserField> selected = EnumSet.copyOf(fields);
+        selected.add(UserField.ID);
+        selected.add(UserField.of(sortField));
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<UserEntity> root = query.from(UserEntity.class);
+        query.multiselect(selections(root, selected));
+
+        Path<Long> id = root.get(UserField.ID.getParamName());
+
+        if (after != null) {
+            query.where(keysetPredicate(criteriaBuilder, root, id, sortField, after));
+        }
+
+        if (sortField == UserSortField.ID) {
+            query.orderBy(criteriaBuilder.asc(id));
+        } else {
+            query.orderBy(criteriaBuilder.asc(root.get(sortField.getParamName())), criteriaBuilder.asc(id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(tuple -> toRow(tuple, selected))
+                .toList();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectionById(Set<UserField> fields, Long id) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<UserEntity> root = query.from(UserEntity.class);
+        query.multiselect(selections(root, fields));
+        query.where(criteriaBuilder.equal(root.get(UserField.ID.getParamName()), id));
+
+        return entityManager.createQuery(query)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(tuple -> toRow(tuple, fields));
+    }
+
+    private List<Selection<?>> selections(Root<UserEntity> root, Set<UserField> fields) {
+        List<Selection<?>> selections = new ArrayList<>();
+
+        for (UserField field : fields) {
+            selections.add(root.get(field.getParamName()).alias(field.getParamName()));
+        }
+
+        return selections;
+    }
+
+    /**
+     * Строит условие продолжения выборки после курсора.
+     * Для составного ключа (поле, id) ведущее условие поле >= значение курсора задаёт начало диапазона
+     * индекса (поле, id), поэтому страница читается с позиции курсора, а не фильтрацией с начала индекса.
+     */
+    private Predicate keysetPredicate(CriteriaBuilder criteriaBuilder, Root<UserEntity> root, Path<Long> id,
+                                      UserSortField sortField, UserCursor after) {
+        return switch (sortField) {
+            case ID -> criteriaBuilder.greaterThan(id, after.getId());
+            case CREATED_AT -> {
+                Path<LocalDateTime> createdAt = root.get(UserField.CREATED_AT.getParamName());
+                yield criteriaBuilder.and(
+                        criteriaBuilder.greaterThanOrEqualTo(createdAt, after.getCreatedAt()),
+                        criteriaBuilder.or(
+                                criteriaBuilder.greaterThan(createdAt, after.getCreatedAt()),
+                                criteriaBuilder.greaterThan(id, after.getId())));
+            }
+            case NAME -> {
+                Path<String> name = root.get(UserField.NAME.getParamName());
+                yield criteriaBuilder.and(
+                        criteriaBuilder.greaterThanOrEqualTo(name, after.getName()),
+                        criteriaBuilder.or(
+                                criteriaBuilder.greaterThan(name, after.getName()),
+                                criteriaBuilder.greaterThan(id, after.getId())));
+            }
+        };
+    }
+
+    private Map<String, Object> toRow(Tuple tuple, Set<UserField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+
+        for (UserField field : fields) {
+            row.put(field.getParamName(), tuple.get(field.getParamName()));
+        }
+
+        return row;
+    }
+}
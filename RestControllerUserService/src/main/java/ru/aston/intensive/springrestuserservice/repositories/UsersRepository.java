@@ -1,22 +1,185 @@
 package ru.aston.intensive.springrestuserservice.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Репозиторий для работы с пользователями.
  * Предоставляет методы для выполнения операций CRUD с сущностью {@link UserEntity}.
+ * Выборка отдельных полей реализована во фрагменте {@link UsersProjectionRepository},
+ * удаление из кэша второго уровня — во фрагменте {@link UsersEntityCacheRepository},
+ * выборка ленты изменений — во фрагменте {@link UsersChangesRepository},
+ * частичное обновление — во фрагменте {@link UsersPatchRepository},
+ * поиск — во фрагменте {@link UsersSearchRepository}.
  */
 @Repository
-public interface UsersRepository extends JpaRepository<UserEntity, Long> {
+public interface UsersRepository extends JpaRepository<UserEntity, Long>, UsersProjectionRepository,
+        UsersEntityCacheRepository, UsersChangesRepository, UsersPatchRepository, UsersSearchRepository {
+
+    /**
+     * Подсказка запросу не помещать прочитанные сущности в кэш второго уровня.
+     */
+    String CACHE_STORE_MODE_HINT = "jakarta.persistence.cache.storeMode";
+
+    /**
+     * Возвращает те нормализованные email из переданного набора, которые уже заняты, одним запросом.
+     *
+     * @param emails Набор проверяемых нормализованных email.
+     *
+     * @return Список занятых нормализованных email.
+     */
+    @Query("SELECT u.emailNormalized FROM UserEntity u WHERE u.emailNormalized IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Обновляет данные пользователя одним запросом и возвращает обновлённую запись.
+     * Дата создания не изменяется, версия записи увеличивается на единицу.
+     * Возвращённая запись не помещается в кэш второго уровня, так как транзакция ещё не зафиксирована;
+     * старую запись из кэша удаляет {@link #evictFromEntityCache(Long)}.
+     *
+     * @param id              Идентификатор пользователя.
+     * @param name            Новое имя.
+     * @param email           Новый email.
+     * @param emailNormalized Новый нормализованный email.
+     * @param age             Новый возраст.
+     * @param updatedAt       Время обновления.
+     *
+     * @return Обновлённый пользователь или пустой Optional, если пользователь не найден.
+     */
+    @QueryHints(@QueryHint(name = CACHE_STORE_MODE_HINT, value = "BYPASS"))
+    @Query(value = "UPDATE users SET name = :name, email = :email, email_normalized = :emailNormalized, " +
+            "age = :age, updated_at = :updatedAt, version = version + 1 WHERE id = :id RETURNING *", nativeQuery = true)
+    Optional<UserEntity> updateReturning(@Param("id") Long id,
+                                         @Param("name") String name,
+                                         @Param("email") String email,
+                                         @Param("emailNormalized") String emailNormalized,
+                                         @Param("age") int age,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Обновляет данные пользователя одним запросом, только если версия записи совпадает с ожидаемой,
+     * и возвращает обновлённую запись. Версия записи увеличивается на единицу.
+     * Возвращённая запись не помещается в кэш второго уровня, как и в {@link #updateReturning}.
+     *
+     * @param id              Идентификатор пользователя.
+     * @param expectedVersion Ожидаемая версия записи.
+     * @param name            Новое имя.
+     * @param email           Новый email.
+     * @param emailNormalized Новый нормализованный email.
+     * @param age             Новый возраст.
+     * @param updatedAt       Время обновления.
+     *
+     * @return Обновлённый пользователь или пустой Optional, если пользователь не найден или его версия изменилась.
+     */
+    @QueryHints(@QueryHint(name = CACHE_STORE_MODE_HINT, value = "BYPASS"))
+    @Query(value = "UPDATE users SET name = :name, email = :email, email_normalized = :emailNormalized, " +
+            "age = :age, updated_at = :updatedAt, version = version + 1 " +
+            "WHERE id = :id AND version = :expectedVersion RETURNING *", nativeQuery = true)
+    Optional<UserEntity> updateReturningIfVersion(@Param("id") Long id,
+                                                  @Param("expectedVersion") long expectedVersion,
+                                                  @Param("name") String name,
+                                                  @Param("email") String email,
+                                                  @Param("emailNormalized") String emailNormalized,
+                                                  @Param("age") int age,
+                                                  @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Удаляет пользователя одним запросом, записывает отметку об удалении для ленты изменений
+     * и возвращает удалённую запись.
+     * Запись из кэша второго уровня удаляет {@link #evictFromEntityCache(Long)}.
+     *
+     * @param id        Идентификатор пользователя.
+     * @param deletedAt Время удаления.
+     *
+     * @return Удалённый пользователь или пустой Optional, если пользователь не найден.
+     */
+    @QueryHints(@QueryHint(name = CACHE_STORE_MODE_HINT, value = "BYPASS"))
+    @Query(value = "WITH deleted AS (DELETE FROM users WHERE id = :id RETURNING *), " +
+            "tombstone AS (INSERT INTO user_tombstones (user_id, deleted_at) SELECT id, :deletedAt FROM deleted " +
+            "ON CONFLICT (user_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at) " +
+            "SELECT * FROM deleted", nativeQuery = true)
+    Optional<UserEntity> deleteReturning(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Возвращает первую страницу пользователей, отсортированных по id.
+     *
+     * @param limit Размер страницы.
+     *
+     * @return Список пользователей.
+     */
+    @Query(value = "SELECT * FROM users ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<UserEntity> findFirstPageOrderById(@Param("limit") int limit);
+
+    /**
+     * Возвращает страницу пользователей, отсортированных по id, начиная после указанного id.
+     *
+     * @param afterId Идентификатор последнего пользователя предыдущей страницы.
+     * @param limit   Размер страницы.
+     *
+     * @return Список пользователей.
+     */
+    @Query(value = "SELECT * FROM users WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<UserEntity> findPageOrderByIdAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * Возвращает первую страницу пользователей, отсортированных по времени создания.
+     *
+     * @param limit Размер страницы.
+     *
+     * @return Список пользователей.
+     */
+    @Query(value = "SELECT * FROM users ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<UserEntity> findFirstPageOrderByCreatedAt(@Param("limit") int limit);
+
+    /**
+     * Возвращает страницу пользователей, отсортированных по времени создания,
+     * начиная после пары (created_at, id) последнего пользователя предыдущей страницы.
+     *
+     * @param createdAt Время создания последнего пользователя предыдущей страницы.
+     * @param afterId   Идентификатор последнего пользователя предыдущей страницы.
+     * @param limit     Размер страницы.
+     *
+     * @return Список пользователей.
+     */
+    @Query(value = "SELECT * FROM users WHERE (created_at, id) > (:createdAt, :afterId) " +
+            "ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<UserEntity> findPageOrderByCreatedAtAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("afterId") Long afterId,
+                                                   @Param("limit") int limit);
+
+    /**
+     * Возвращает первую страницу пользователей, отсортированных по имени.
+     *
+     * @param limit Размер страницы.
+     *
+     * @return Список пользователей.
+     */
+    @Query(value = "SELECT * FROM users ORDER BY name, id LIMIT :limit", nativeQuery = true)
+    List<UserEntity> findFirstPageOrderByName(@Param("limit") int limit);
 
     /**
-     * Проверяет, существует ли пользователь с указанным email.
+     * Возвращает страницу пользователей, отсортированных по имени,
+     * начиная после пары (name, id) последнего пользователя предыдущей страницы.
      *
-     * @param email Email пользователя, которого нужно проверить.
+     * @param name    Имя последнего пользователя предыдущей страницы.
+     * @param afterId Идентификатор последнего пользователя предыдущей страницы.
+     * @param limit   Размер страницы.
      *
-     * @return true, если пользователь с таким email существует, иначе false.
+     * @return Список пользователей.
      */
-    boolean existsByEmail(String email);
+    @Query(value = "SELECT * FROM users WHERE (name, id) > (:name, :afterId) " +
+            "ORDER BY name, id LIMIT :limit", nativeQuery = true)
+    List<UserEntity> findPageOrderByNameAfter(@Param("name") String name,
+                                              @Param("afterId") Long afterId,
+                                              @Param("limit") int limit);
 }
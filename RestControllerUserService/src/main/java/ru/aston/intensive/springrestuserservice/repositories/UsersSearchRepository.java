@@ -0,0 +1,26 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCriteria;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCursor;
+
+import java.util.List;
+
+/**
+ * Фрагмент репозитория пользователей для поиска по префиксу имени, домену email и диапазону возраста.
+ * Каждому ведущему условию соответствует индекс, по которому страница читается одним диапазоном:
+ * (name_search, id), (email_domain, id) или (age, id); остальные условия проверяются по найденным строкам.
+ */
+public interface UsersSearchRepository {
+
+    /**
+     * Возвращает страницу пользователей, удовлетворяющих условиям поиска, методом keyset-пагинации.
+     *
+     * @param criteria условия поиска
+     * @param after    курсор последней записи предыдущей страницы или null для первой страницы
+     * @param limit    размер страницы
+     *
+     * @return пользователи в порядке {@link UserSearchCriteria#getOrder()}
+     */
+    List<UserEntity> search(UserSearchCriteria criteria, UserSearchCursor after, int limit);
+}
@@ -0,0 +1,108 @@
+package ru.aston.intensive.springrestuserservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCriteria;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация поиска пользователей нативным запросом, составленным из заданных условий.
+ * Префикс имени ищется диапазоном [prefix, prefix || U+10FFFF) по колонке name_search
+ * с побайтным сравнением, что позволяет использовать индекс и при параметризованном запросе,
+ * в отличие от LIKE с параметром.
+ * Пользователи читаются из результата запроса, а не из кэша второго уровня: в кэше после вставки
+ * хранятся сущности без вычисляемых базой данных колонок, а по name_search строится курсор.
+ */
+public class UsersSearchRepositoryImpl implements UsersSearchRepository {
+
+    private static final String CACHE_RETRIEVE_MODE_HINT = "jakarta.persistence.cache.retrieveMode";
+
+    private final EntityManager entityManager;
+
+    /**
+     * Конструктор фрагмента репозитория.
+     *
+     * @param entityManager менеджер сущностей
+     */
+    @Autowired
+    public UsersSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UserEntity> search(UserSearchCriteria criteria, UserSearchCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+
+        if (criteria.getNamePrefix() != null) {
+            conditions.add("name_search >= lower(:namePrefix)");
+            conditions.add("name_search < (lower(:namePrefix) || chr(1114111))");
+        }
+
+        if (criteria.getEmailDomain() != null) {
+            conditions.add("email_domain = :emailDomain");
+        }
+
+        if (criteria.getMinAge() != null) {
+            conditions.add("age >= :minAge");
+        }
+
+        if (criteria.getMaxAge() != null) {
+            conditions.add("age <= :maxAge");
+        }
+
+        String orderBy = switch (criteria.getOrder()) {
+            case NAME -> "name_search, id";
+            case EMAIL_DOMAIN -> "id";
+            case AGE -> "age, id";
+        };
+
+        if (after != null) {
+            conditions.add(switch (criteria.getOrder()) {
+                case NAME -> "(name_search, id) > (:afterKey, :afterId)";
+                case EMAIL_DOMAIN -> "id > :afterId";
+                case AGE -> "(age, id) > (:afterKey, :afterId)";
+            });
+        }
+
+        String sql = "SELECT * FROM users WHERE " + String.join(" AND ", conditions) +
+                " ORDER BY " + orderBy + " LIMIT :limit";
+
+        Query query = entityManager.createNativeQuery(sql, UserEntity.class)
+                .setHint(CACHE_RETRIEVE_MODE_HINT, "BYPASS")
+                .setParameter("limit", limit);
+
+        if (criteria.getNamePrefix() != null) {
+            query.setParameter("namePrefix", criteria.getNamePrefix());
+        }
+
+        if (criteria.getEmailDomain() != null) {
+            query.setParameter("emailDomain", criteria.getEmailDomain());
+        }
+
+        if (criteria.getMinAge() != null) {
+            query.setParameter("minAge", criteria.getMinAge());
+        }
+
+        if (criteria.getMaxAge() != null) {
+            query.setParameter("maxAge", criteria.getMaxAge());
+        }
+
+        if (after != null) {
+            query.setParameter("afterId", after.getId());
+
+            switch (criteria.getOrder()) {
+                case NAME -> query.setParameter("afterKey", after.getNameSearch());
+                case AGE -> query.setParameter("afterKey", after.getAge());
+                case EMAIL_DOMAIN -> { }
+            }
+        }
+
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,298 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+
+/**
+ * Фильтр Блума занятых email.
+ * Отрицательный ответ фильтра означает, что email точно свободен и обращаться к базе данных не нужно;
+ * положительный ответ требует проверки в базе данных. Фильтр строится потоковым чтением таблицы users
+ * при запуске приложения и пополняется при сохранении и обновлении пользователей.
+ * Удалить email из фильтра нельзя, поэтому удалённые email остаются ложноположительными до перестроения.
+ * Фильтр локален для экземпляра сервиса: email, занятые другими экземплярами, попадают в него из сообщений
+ * инвалидации кэша, а до их получения ответ "точно свободен" может оказаться неверным.
+ */
+@Component
+public class EmailBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private static final String COUNT_QUERY = "SELECT count(*) FROM users";
+
+    private static final String SCAN_QUERY =
+            "SELECT email_normalized FROM users WHERE email_normalized IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Ожидаемое количество email. Фильтр строится не меньше чем на удвоенное число строк таблицы.
+     */
+    @Value("${users.bloom.expectedInsertions:1000000}")
+    private long expectedInsertions;
+
+    /**
+     * Допустимая вероятность ложноположительного ответа при ожидаемом заполнении.
+     */
+    @Value("${users.bloom.falsePositiveProbability:0.01}")
+    private double falsePositiveProbability;
+
+    /**
+     * Количество строк, которое драйвер получает из курсора за одно обращение к базе данных.
+     */
+    @Value("${users.export.fetchSize:1000}")
+    private int fetchSize;
+
+    private volatile BloomBits current;
+    private volatile BloomBits building;
+    private volatile Instant lastRebuild;
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong definiteNegatives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param jdbcTemplate       шаблон для выполнения JDBC-запросов
+     * @param transactionManager менеджер транзакций для чтения таблицы курсором; транзакция не помечается
+     *                           только для чтения, чтобы таблицу читала основная база, а не отстающая реплика
+     */
+    @Autowired
+    public EmailBloomFilter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Строит фильтр после запуска приложения.
+     * Пока фильтр не построен, все проверки передаются в базу данных.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Не удалось построить фильтр Блума email: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Перестраивает фильтр по текущему содержимому таблицы users.
+     * Email, добавленные во время перестроения, попадают и в новый фильтр.
+     */
+    public synchronized void rebuild() {
+        Long rowCount = jdbcTemplate.queryForObject(COUNT_QUERY, Long.class);
+        long capacity = Math.max(expectedInsertions, rowCount != null ? rowCount * 2 : 0);
+        BloomBits fresh = new BloomBits(capacity, falsePositiveProbability);
+        building = fresh;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        SCAN_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, resultSet -> {
+                fresh.put(resultSet.getString(1));
+            }));
+
+            current = fresh;
+            lastRebuild = Instant.now();
+            checks.set(0);
+            definiteNegatives.set(0);
+            falsePositives.set(0);
+            staleEntries.set(0);
+            log.info("Фильтр Блума email построен: {} email, {} бит", fresh.insertions.get(), fresh.bitCount);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Проверяет, может ли email быть занят.
+     *
+     * @param email проверяемый email
+     *
+     * @return false, если email точно свободен; true, если требуется проверка в базе данных
+     */
+    public boolean mightContain(String email) {
+        BloomBits bits = current;
+
+        if (bits == null) {
+            return true;
+        }
+
+        checks.incrementAndGet();
+
+        if (!bits.mightContain(UserEntity.normalizeEmail(email))) {
+            definiteNegatives.incrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Добавляет email в фильтр.
+     *
+     * @param email занятый email
+     */
+    public void put(String email) {
+        String normalizedEmail = UserEntity.normalizeEmail(email);
+        BloomBits bits = current;
+        BloomBits pending = building;
+
+        if (bits != null) {
+            bits.put(normalizedEmail);
+        }
+
+        if (pending != null) {
+            pending.put(normalizedEmail);
+        }
+    }
+
+    /**
+     * Учитывает ложноположительный ответ: фильтр не исключил email, а база данных его не нашла.
+     */
+    public void recordFalsePositive() {
+        falsePositives.incrementAndGet();
+    }
+
+    /**
+     * Учитывает удаление пользователя, email которого остаётся в фильтре до перестроения.
+     */
+    public void recordRemoval() {
+        staleEntries.incrementAndGet();
+    }
+
+    /**
+     * Возвращает статистику фильтра.
+     *
+     * @return статистика: заполнение, расчётная и наблюдаемая доля ложноположительных ответов
+     */
+    public Map<String, Object> getStats() {
+        BloomBits bits = current;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", bits != null);
+        stats.put("lastRebuild", lastRebuild);
+
+        if (bits != null) {
+            stats.put("bitCount", bits.bitCount);
+            stats.put("hashCount", bits.hashCount);
+            stats.put("insertions", bits.insertions.get());
+            stats.put("expectedFalsePositiveRate", bits.expectedFalsePositiveRate());
+        }
+
+        long negatives = definiteNegatives.get();
+        long positives = falsePositives.get();
+        stats.put("checks", checks.get());
+        stats.put("definiteNegatives", negatives);
+        stats.put("falsePositives", positives);
+        stats.put("observedFalsePositiveRate",
+                negatives + positives > 0 ? (double) positives / (negatives + positives) : 0.0);
+        stats.put("staleEntries", staleEntries.get());
+
+        return stats;
+    }
+
+    /**
+     * Битовый массив фильтра Блума с k хеш-функциями, полученными двойным хешированием.
+     */
+    private static final class BloomBits {
+
+        private static final long SECOND_HASH_SEED = 0x9E3779B97F4A7C15L;
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLong insertions = new AtomicLong();
+
+        BloomBits(long capacity, double falsePositiveProbability) {
+            long n = Math.max(1, capacity);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+            this.bitCount = words.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        }
+
+        void put(String value) {
+            if (value == null) {
+                return;
+            }
+
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 + SECOND_HASH_SEED) | 1;
+
+            for (int i = 1; i <= hashCount; i++) {
+                long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+                long mask = 1L << index;
+                words.getAndUpdate((int) (index >>> 6), word -> word | mask);
+            }
+
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(String value) {
+            if (value == null) {
+                return false;
+            }
+
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 + SECOND_HASH_SEED) | 1;
+
+            for (int i = 1; i <= hashCount; i++) {
+                long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+        }
+
+        private static long hash(String value) {
+            long hash = 0xCBF29CE484222325L;
+
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001B3L;
+            }
+
+            return mix(hash);
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xFF51AFD7ED558CCDL;
+            value ^= value >>> 33;
+            value *= 0xC4CEB9FE1A85EC53L;
+            value ^= value >>> 33;
+
+            return value;
+        }
+    }
+}
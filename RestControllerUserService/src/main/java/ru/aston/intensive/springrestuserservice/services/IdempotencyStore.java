@@ -0,0 +1,112 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Хранилище ответов на запросы с заголовком Idempotency-Key.
+ * Повторный запрос с тем же ключом получает сохранённый ответ без обращения к базе данных и Kafka;
+ * если исходный запрос ещё выполняется, повтор дожидается его ответа.
+ * Сохраняются только успешные ответы: после ошибки ключ освобождается и запрос можно повторить.
+ * Размер хранилища и время жизни записей ограничиваются спецификацией Caffeine.
+ * Хранилище локально для экземпляра сервиса.
+ */
+@Component
+public class IdempotencyStore {
+
+    /**
+     * Заголовок с ключом идемпотентности.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Заголовок, которым помечается повторно выданный ответ.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<String, StoredResponse> responses;
+
+    /**
+     * Конструктор хранилища.
+     *
+     * @param spec спецификация Caffeine: ограничение размера и время жизни записей
+     */
+    public IdempotencyStore(
+            @Value("${users.idempotency.spec:maximumSize=100000,expireAfterWrite=24h}") String spec) {
+        this.responses = Caffeine.from(spec).build();
+    }
+
+    /**
+     * Выполняет запрос один раз для ключа идемпотентности.
+     *
+     * @param key         ключ идемпотентности вместе с операцией, к которой он относится
+     * @param fingerprint отпечаток тела запроса
+     * @param action      выполнение запроса
+     * @param <T>         тип тела ответа
+     *
+     * @return ответ на запрос или сохранённый ответ на первый запрос с этим ключом
+     *
+     * @throws IllegalArgumentException если ключ уже использован с другим телом запроса
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String key, String fingerprint, Supplier<ResponseEntity<T>> action) {
+        StoredResponse storedResponse = new StoredResponse(fingerprint, new CompletableFuture<>());
+        StoredResponse existing = responses.asMap().putIfAbsent(key, storedResponse);
+
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IllegalArgumentException("Ключ идемпотентности уже использован с другим запросом");
+            }
+
+            return (ResponseEntity<T>) replay(existing.response());
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            storedResponse.response().complete(response);
+
+            return response;
+        } catch (RuntimeException e) {
+            responses.asMap().remove(key, storedResponse);
+            storedResponse.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> replay(CompletableFuture<ResponseEntity<?>> response) {
+        ResponseEntity<?> original;
+
+        try {
+            original = response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(original.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+
+        return new ResponseEntity<>(original.getBody(), headers, original.getStatusCode());
+    }
+
+    /**
+     * Сохранённый ответ вместе с отпечатком запроса, на который он получен.
+     *
+     * @param fingerprint отпечаток тела запроса
+     * @param response    ответ; не завершён, пока исходный запрос выполняется
+     */
+    private record StoredResponse(String fingerprint, CompletableFuture<ResponseEntity<?>> response) {
+    }
+}
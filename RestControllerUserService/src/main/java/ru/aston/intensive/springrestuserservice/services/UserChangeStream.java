@@ -0,0 +1,341 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.aston.intensive.springrestuserservice.dto.UserMutationEvent;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Поток изменений пользователей для подписчиков Server-Sent Events.
+ * События поступают из топика инвалидации кэша, который читает каждый экземпляр сервиса,
+ * поэтому подписчик любого экземпляра получает изменения, выполненные всеми экземплярами.
+ * Событиям присваиваются последовательные номера вида "эпоха-номер"; последние события хранятся в истории,
+ * поэтому подписчик, переподключившийся с заголовком Last-Event-ID, получает пропущенные события.
+ * Если пропущенные события уже вытеснены из истории или номер выдан другим экземпляром сервиса,
+ * подписчику отправляется событие RESET: пропущенные изменения догружаются через GET /users/changes,
+ * а новые события продолжают поступать в то же подключение.
+ * Каждый подписчик имеет ограниченный буфер; подписчик, не успевающий читать события, отключается.
+ * Отправка выполняется отдельным пулом потоков и не задерживает изменение пользователя.
+ */
+@Component
+public class UserChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeStream.class);
+
+    /**
+     * Имя события, требующего от подписчика повторной синхронизации.
+     */
+    public static final String RESET_EVENT = "RESET";
+
+    private static final String ID_SEPARATOR = "-";
+
+    /**
+     * Эпоха потока: отличает номера событий разных запусков и экземпляров сервиса.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final Object historyLock = new Object();
+    private final ArrayDeque<StreamEntry> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolTaskExecutor sendExecutor;
+    private long sequence;
+
+    /**
+     * Количество последних событий, доступных для возобновления потока.
+     */
+    @Value("${users.stream.historySize:10000}")
+    private int historySize;
+
+    /**
+     * Максимальное количество неотправленных событий одного подписчика.
+     */
+    @Value("${users.stream.bufferSize:256}")
+    private int bufferSize;
+
+    /**
+     * Время жизни подключения в миллисекундах, после которого клиент переподключается.
+     */
+    @Value("${users.stream.timeout:1800000}")
+    private long timeout;
+
+    /**
+     * Конструктор потока изменений.
+     *
+     * @param senderThreads количество потоков отправки событий подписчикам
+     */
+    @Autowired
+    public UserChangeStream(@Value("${users.stream.senderThreads:4}") int senderThreads) {
+        this(senderExecutor(senderThreads));
+    }
+
+    UserChangeStream(ThreadPoolTaskExecutor sendExecutor) {
+        this.sendExecutor = sendExecutor;
+    }
+
+    /**
+     * Подключает подписчика к потоку.
+     *
+     * @param lastEventId номер последнего полученного события или null для подключения без возобновления
+     *
+     * @return SSE-подключение подписчика
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        synchronized (historyLock) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+
+            subscribers.add(subscriber);
+        }
+
+        subscriber.scheduleDrain();
+
+        return emitter;
+    }
+
+    /**
+     * Публикует событие изменения пользователя всем подписчикам.
+     * Подписчики с заполненным буфером отключаются.
+     *
+     * @param event событие изменения пользователя
+     */
+    public void publish(UserMutationEvent event) {
+        List<Subscriber> slowSubscribers = new ArrayList<>();
+
+        synchronized (historyLock) {
+            StreamEntry entry = new StreamEntry(++sequence, event);
+            history.addLast(entry);
+
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(entry)) {
+                    slowSubscribers.add(subscriber);
+                }
+            }
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.scheduleDrain();
+        }
+
+        for (Subscriber subscriber : slowSubscribers) {
+            log.warn("Подписчик потока изменений не успевает читать события и отключён");
+            subscriber.disconnect();
+        }
+    }
+
+    /**
+     * Отправляет подписчикам комментарий, чтобы обнаружить закрытые подключения и не дать
+     * промежуточным прокси закрыть простаивающий поток.
+     */
+    @Scheduled(fixedDelayString = "${users.stream.heartbeatInterval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(StreamEntry.HEARTBEAT)) {
+                subscriber.scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество подключённых подписчиков.
+     *
+     * @return количество подписчиков
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Останавливает пул отправки событий.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdown();
+    }
+
+    private static ThreadPoolTaskExecutor senderExecutor(int senderThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(senderThreads);
+        executor.setMaxPoolSize(senderThreads);
+        executor.setThreadNamePrefix("user-stream-");
+        executor.initialize();
+
+        return executor;
+    }
+
+    /**
+     * Помещает в буфер подписчика события после указанного номера или событие RESET,
+     * если продолжить поток без пропусков невозможно. Вызывается под блокировкой истории.
+     *
+     * @param subscriber  подписчик
+     * @param lastEventId номер последнего полученного события
+     */
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long afterSequence = parseSequence(lastEventId);
+        long oldestSequence = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence;
+
+        if (afterSequence < 0 || afterSequence > sequence || afterSequence < oldestSequence - 1) {
+            subscriber.enqueue(StreamEntry.RESET);
+            return;
+        }
+
+        for (StreamEntry entry : history) {
+            if (entry.sequence > afterSequence) {
+                subscriber.enqueue(entry);
+            }
+        }
+    }
+
+    /**
+     * Извлекает номер события из идентификатора, выданного этим потоком.
+     *
+     * @param lastEventId идентификатор события
+     *
+     * @return номер события или -1, если идентификатор выдан другим потоком или повреждён
+     */
+    private long parseSequence(String lastEventId) {
+        String prefix = epoch + ID_SEPARATOR;
+
+        if (!lastEventId.startsWith(prefix)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(lastEventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Элемент потока: событие с номером, комментарий-heartbeat или событие RESET.
+     */
+    private record StreamEntry(long sequence, UserMutationEvent event) {
+
+        static final StreamEntry HEARTBEAT = new StreamEntry(-1, null);
+        static final StreamEntry RESET = new StreamEntry(-2, null);
+    }
+
+    /**
+     * Подписчик с ограниченным буфером неотправленных событий.
+     * Буфер разбирается одной задачей пула отправки, поэтому события доставляются по порядку.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<StreamEntry> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Добавляет элемент в буфер, если в нём есть место.
+         *
+         * @param entry элемент потока
+         *
+         * @return false, если буфер заполнен
+         */
+        private synchronized boolean offer(StreamEntry entry) {
+            if (buffer.size() >= bufferSize) {
+                return false;
+            }
+
+            buffer.addLast(entry);
+
+            return true;
+        }
+
+        /**
+         * Добавляет элемент в буфер без ограничения размера; используется при возобновлении потока.
+         *
+         * @param entry элемент потока
+         */
+        private synchronized void enqueue(StreamEntry entry) {
+            buffer.addLast(entry);
+        }
+
+        private synchronized StreamEntry poll() {
+            StreamEntry entry = buffer.pollFirst();
+
+            if (entry == null) {
+                draining.set(false);
+            }
+
+            return entry;
+        }
+
+        private synchronized boolean hasPending() {
+            return !buffer.isEmpty();
+        }
+
+        private void scheduleDrain() {
+            if (hasPending() && draining.compareAndSet(false, true)) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            StreamEntry entry;
+
+            while ((entry = poll()) != null) {
+                try {
+                    emitter.send(toSseEvent(entry));
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        private void disconnect() {
+            subscribers.remove(this);
+            emitter.complete();
+        }
+
+        private SseEmitter.SseEventBuilder toSseEvent(StreamEntry entry) {
+            if (entry == StreamEntry.HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+
+            if (entry == StreamEntry.RESET) {
+                return SseEmitter.event()
+                        .name(RESET_EVENT)
+                        .data("Пропущенные события недоступны, выполните синхронизацию через GET /users/changes");
+            }
+
+            return SseEmitter.event()
+                    .id(epoch + ID_SEPARATOR + entry.sequence())
+                    .name(entry.event().getType())
+                    .data(entry.event(), MediaType.APPLICATION_JSON);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.aston.intensive.common.dto.UserNotificationDto;
 import ru.aston.intensive.springrestuserservice.dto.UserDto;
+import ru.aston.intensive.springrestuserservice.dto.UserPlainDto;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
 
 /**
@@ -24,6 +25,15 @@ public interface UserMapper {
     @Mapping(target = "links", ignore = true)
     UserDto toUserDto(UserEntity userEntity);
 
+    /**
+     * Преобразует сущность UserEntity в облегчённое DTO UserPlainDto без HATEOAS-ссылок.
+     *
+     * @param userEntity Сущность пользователя для преобразования
+     *
+     * @return DTO пользователя с id
+     */
+    UserPlainDto toUserPlainDto(UserEntity userEntity);
+
     /**
      * Преобразует DTO UserDto в сущность UserEntity.
      *
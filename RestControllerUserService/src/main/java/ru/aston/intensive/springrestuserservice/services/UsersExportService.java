@@ -0,0 +1,21 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import ru.aston.intensive.springrestuserservice.util.UserExportFormat;
+
+/**
+ * Интерфейс для потоковой выгрузки пользователей.
+ */
+public interface UsersExportService {
+
+    /**
+     * Выгружает всех пользователей в выходной поток в указанном формате.
+     *
+     * @param format Формат выгрузки
+     * @param outputStream Поток, в который пишутся данные
+     *
+     * @throws IOException Если запись в поток не удалась
+     */
+    void exportAll(UserExportFormat format, OutputStream outputStream) throws IOException;
+}
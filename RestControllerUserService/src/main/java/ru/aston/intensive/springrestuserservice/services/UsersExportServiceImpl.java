@@ -0,0 +1,167 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.aston.intensive.springrestuserservice.util.UserExportFormat;
+
+/**
+ * Сервис потоковой выгрузки пользователей.
+ * Читает таблицу users однонаправленным JDBC-курсором порциями по fetchSize строк
+ * и пишет каждую строку сразу в выходной поток, не создавая сущностей,
+ * поэтому расход памяти не зависит от размера таблицы.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UsersExportServiceImpl implements UsersExportService {
+
+    private static final String EXPORT_QUERY =
+            "SELECT id, name, email, age, created_at, updated_at FROM users ORDER BY id";
+
+    private static final String CSV_HEADER = "id,name,email,age,created_at,updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Количество строк, которое драйвер получает из курсора за одно обращение к базе данных.
+     */
+    @Value("${users.export.fetchSize:1000}")
+    private int fetchSize;
+
+    /**
+     * Конструктор сервиса выгрузки.
+     *
+     * @param jdbcTemplate шаблон для выполнения JDBC-запросов
+     * @param objectMapper объект для записи JSON
+     */
+    @Autowired
+    public UsersExportServiceImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Выгружает всех пользователей в выходной поток.
+     * Курсор PostgreSQL работает только внутри транзакции, поэтому метод транзакционный.
+     * CircuitBreaker не используется: выгрузка длится дольше порога медленного вызова.
+     *
+     * @param format       формат выгрузки
+     * @param outputStream поток, в который пишутся данные
+     *
+     * @throws IOException если запись в поток не удалась
+     */
+    @Override
+    public void exportAll(UserExportFormat format, OutputStream outputStream) throws IOException {
+        try {
+            switch (format) {
+                case NDJSON -> exportNdjson(outputStream);
+                case CSV -> exportCsv(outputStream);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportNdjson(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            RowCallbackHandler handler = resultSet -> {
+                try {
+                    writeJsonRow(generator, resultSet);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            streamRows(handler);
+        }
+    }
+
+    private void exportCsv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        RowCallbackHandler handler = resultSet -> {
+            try {
+                writeCsvRow(writer, resultSet);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        streamRows(handler);
+        writer.flush();
+    }
+
+    private void streamRows(RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    private void writeJsonRow(JsonGenerator generator, ResultSet resultSet) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", resultSet.getLong("id"));
+        generator.writeStringField("name", resultSet.getString("name"));
+        generator.writeStringField("email", resultSet.getString("email"));
+        generator.writeNumberField("age", resultSet.getInt("age"));
+        generator.writeStringField("created_at", formatTimestamp(resultSet.getTimestamp("created_at")));
+        generator.writeStringField("updated_at", formatTimestamp(resultSet.getTimestamp("updated_at")));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeCsvRow(Writer writer, ResultSet resultSet) throws IOException, SQLException {
+        writer.write(Long.toString(resultSet.getLong("id")));
+        writer.write(',');
+        writer.write(escapeCsv(resultSet.getString("name")));
+        writer.write(',');
+        writer.write(escapeCsv(resultSet.getString("email")));
+        writer.write(',');
+        writer.write(Integer.toString(resultSet.getInt("age")));
+        writer.write(',');
+        writer.write(escapeCsv(formatTimestamp(resultSet.getTimestamp("created_at"))));
+        writer.write(',');
+        writer.write(escapeCsv(formatTimestamp(resultSet.getTimestamp("updated_at"))));
+        writer.write('\n');
+    }
+
+    private String formatTimestamp(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
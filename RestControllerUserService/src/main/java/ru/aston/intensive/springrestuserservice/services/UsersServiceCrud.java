@@ -1,7 +1,20 @@
 package ru.aston.intensive.springrestuserservice.services;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
+import ru.aston.intensive.springrestuserservice.dto.UserChangesPage;
+import ru.aston.intensive.springrestuserservice.dto.UserFieldsPage;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.springrestuserservice.util.UserChangeCursor;
+import ru.aston.intensive.springrestuserservice.util.UserCursor;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+import ru.aston.intensive.springrestuserservice.util.UserMergePatch;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCriteria;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCursor;
+import ru.aston.intensive.springrestuserservice.util.UserSortField;
 
 /**
  * Интерфейс для CRUD-операций с пользователями.
@@ -15,6 +28,28 @@ public interface UsersServiceCrud {
      */
     List<UserEntity> findAll();
 
+    /**
+     * Возвращает страницу пользователей, отсортированных по указанному полю.
+     *
+     * @param sortField Поле сортировки
+     * @param after Курсор последней записи предыдущей страницы или null для первой страницы
+     * @param limit Размер страницы
+     *
+     * @return Список сущностей пользователей
+     */
+    List<UserEntity> findPage(UserSortField sortField, UserCursor after, int limit);
+
+    /**
+     * Возвращает страницу пользователей, удовлетворяющих условиям поиска.
+     *
+     * @param criteria Условия поиска
+     * @param after Курсор последней записи предыдущей страницы или null для первой страницы
+     * @param limit Размер страницы
+     *
+     * @return Список сущностей пользователей
+     */
+    List<UserEntity> search(UserSearchCriteria criteria, UserSearchCursor after, int limit);
+
     /**
      * Находит пользователя по идентификатору.
      *
@@ -24,6 +59,54 @@ public interface UsersServiceCrud {
      */
     UserEntity findOne(Long id);
 
+    /**
+     * Находит пользователей по списку идентификаторов.
+     *
+     * @param ids Идентификаторы пользователей
+     *
+     * @return Найденные пользователи в порядке идентификаторов: id — сущность пользователя
+     */
+    Map<Long, UserEntity> findAllByIds(List<Long> ids);
+
+    /**
+     * Возвращает страницу пользователей, содержащую только указанные поля.
+     *
+     * @param fields    Запрошенные поля
+     * @param sortField Поле сортировки
+     * @param after     Курсор последней записи предыдущей страницы или null для первой страницы
+     * @param limit     Размер страницы
+     *
+     * @return Страница пользователей с курсором следующей страницы
+     */
+    UserFieldsPage findPageFields(Set<UserField> fields, UserSortField sortField, UserCursor after, int limit);
+
+    /**
+     * Находит указанные поля пользователя по идентификатору.
+     *
+     * @param fields Запрошенные поля
+     * @param id     Идентификатор пользователя
+     *
+     * @return Поля пользователя: имя поля — значение
+     */
+    Map<String, Object> findOneFields(Set<UserField> fields, Long id);
+
+    /**
+     * Возвращает изменения пользователей после курсора, включая отметки об удалении.
+     *
+     * @param since Курсор последнего полученного изменения или null для выборки с начала
+     * @param limit Максимальное количество изменений
+     *
+     * @return Страница изменений с курсором для следующего запроса
+     */
+    UserChangesPage findChanges(UserChangeCursor since, int limit);
+
+    /**
+     * Возвращает время последнего изменения пользователей, включая удаления.
+     *
+     * @return Время последнего изменения или null, если изменений не было
+     */
+    LocalDateTime findLastChangedAt();
+
     /**
      * Сохраняет нового пользователя.
      *
@@ -33,6 +116,15 @@ public interface UsersServiceCrud {
      */
     UserEntity save(UserEntity userEntity);
 
+    /**
+     * Сохраняет пакет новых пользователей.
+     *
+     * @param userEntities Сущности пользователей
+     *
+     * @return Результаты обработки в порядке переданных сущностей
+     */
+    List<UserBatchItemResult> saveAll(List<UserEntity> userEntities);
+
     /**
      * Обновляет данные пользователя.
      *
@@ -43,10 +135,34 @@ public interface UsersServiceCrud {
      */
     UserEntity update(Long id, UserEntity updatedUserEntity);
 
+    /**
+     * Обновляет данные пользователя, если его версия совпадает с ожидаемой.
+     *
+     * @param id Идентификатор пользователя
+     * @param updatedUserEntity Обновлённая сущность пользователя
+     * @param expectedVersion Ожидаемая версия пользователя
+     *
+     * @return Обновлённая сущность пользователя
+     */
+    UserEntity update(Long id, UserEntity updatedUserEntity, long expectedVersion);
+
+    /**
+     * Частично обновляет данные пользователя.
+     *
+     * @param id Идентификатор пользователя
+     * @param patch Изменяемые поля пользователя
+     * @param expectedVersion Ожидаемая версия пользователя или null
+     *
+     * @return Обновлённая сущность пользователя
+     */
+    UserEntity patch(Long id, UserMergePatch patch, Long expectedVersion);
+
     /**
      * Удаляет пользователя по идентификатору.
      *
      * @param id Идентификатор пользователя
+     *
+     * @return Удалённая сущность пользователя
      */
-    void delete(Long id);
+    UserEntity delete(Long id);
 }
\ No newline at end of file
@@ -1,23 +1,57 @@
 package ru.aston.intensive.springrestuserservice.services;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.aston.intensive.config.CacheConfig;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
+import ru.aston.intensive.springrestuserservice.dto.UserChangeDto;
+import ru.aston.intensive.springrestuserservice.dto.UserChangesPage;
+import ru.aston.intensive.springrestuserservice.dto.UserFieldsPage;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
 import ru.aston.intensive.springrestuserservice.repositories.UsersRepository;
 import ru.aston.intensive.springrestuserservice.util.DatabaseOperationException;
+import ru.aston.intensive.springrestuserservice.util.UserBatchConflictException;
+import ru.aston.intensive.springrestuserservice.util.UserChangeCursor;
+import ru.aston.intensive.springrestuserservice.util.UserCursor;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+import ru.aston.intensive.springrestuserservice.util.UserMergePatch;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCriteria;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCursor;
 import ru.aston.intensive.springrestuserservice.util.UserNotFoundException;
+import ru.aston.intensive.springrestuserservice.util.UserSortField;
+import ru.aston.intensive.springrestuserservice.util.UserVersionConflictException;
 
 /**
  * Сервис для управления пользователями.
  * Предоставляет методы для выполнения CRUD-операций над пользователями.
+ * Методы чтения выполняются в транзакциях только для чтения: Hibernate не сохраняет снимки сущностей
+ * и не выполняет flush, а при включённой реплике такие транзакции обслуживает реплика.
+ * Исключение — методы, заполняющие кэш users: они читают основную базу, иначе отстающая реплика
+ * поместила бы в кэш устаревшую запись на всё время её жизни в кэше.
  */
 @Service
 @Transactional
@@ -25,15 +59,42 @@ public class UsersServiceCrudImpl implements UsersServiceCrud {
 
     private static final Logger log = LoggerFactory.getLogger(UsersServiceCrudImpl.class);
     private final UsersRepository usersRepository;
+    private final EmailBloomFilter emailBloomFilter;
+    private final CacheManager cacheManager;
+
+    /**
+     * Максимально допустимый размер страницы.
+     */
+    @Value("${users.page.maxLimit:500}")
+    private int maxPageLimit;
+
+    /**
+     * Максимальное количество идентификаторов в одном запросе нескольких пользователей.
+     */
+    @Value("${users.multiGet.maxSize:500}")
+    private int maxMultiGetSize;
+
+    /**
+     * Задержка ленты изменений в миллисекундах.
+     * Время изменения назначается до фиксации транзакции, поэтому изменения новее этой задержки
+     * не выдаются: иначе транзакция, зафиксированная позже, могла бы оказаться позади курсора клиента.
+     */
+    @Value("${users.changes.commitLagMs:1000}")
+    private long changesCommitLagMs;
 
     /**
      * Конструктор сервиса пользователей.
      *
-     * @param usersRepository репозиторий для работы с пользователями
+     * @param usersRepository  репозиторий для работы с пользователями
+     * @param emailBloomFilter фильтр Блума занятых email
+     * @param cacheManager     менеджер кэшей
      */
     @Autowired
-    public UsersServiceCrudImpl(UsersRepository usersRepository) {
+    public UsersServiceCrudImpl(UsersRepository usersRepository, EmailBloomFilter emailBloomFilter,
+                                CacheManager cacheManager) {
         this.usersRepository = usersRepository;
+        this.emailBloomFilter = emailBloomFilter;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -44,6 +105,7 @@ public class UsersServiceCrudImpl implements UsersServiceCrud {
      * @throws UserNotFoundException если список пользователей пуст
      */
     @Override
+    @Transactional(readOnly = true)
     @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
     public List<UserEntity> findAll() {
         List<UserEntity> userEntities = usersRepository.findAll();
@@ -55,8 +117,71 @@ public class UsersServiceCrudImpl implements UsersServiceCrud {
         return userEntities;
     }
 
+    /**
+     * Возвращает страницу пользователей методом keyset-пагинации.
+     * Выборка идёт по составному индексу (поле сортировки, id), поэтому
+     * время ответа не зависит от глубины страницы.
+     *
+     * @param sortField поле сортировки
+     * @param after     курсор последней записи предыдущей страницы или null для первой страницы
+     * @param limit     размер страницы
+     *
+     * @return список пользователей страницы, возможно пустой
+     *
+     * @throws IllegalArgumentException если размер страницы вне допустимого диапазона
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public List<UserEntity> findPage(UserSortField sortField, UserCursor after, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + maxPageLimit);
+        }
+
+        if (after == null) {
+            return switch (sortField) {
+                case ID -> usersRepository.findFirstPageOrderById(limit);
+                case CREATED_AT -> usersRepository.findFirstPageOrderByCreatedAt(limit);
+                case NAME -> usersRepository.findFirstPageOrderByName(limit);
+            };
+        }
+
+        return switch (sortField) {
+            case ID -> usersRepository.findPageOrderByIdAfter(after.getId(), limit);
+            case CREATED_AT -> usersRepository.findPageOrderByCreatedAtAfter(
+                    after.getCreatedAt(), after.getId(), limit);
+            case NAME -> usersRepository.findPageOrderByNameAfter(after.getName(), after.getId(), limit);
+        };
+    }
+
+    /**
+     * Возвращает страницу пользователей, удовлетворяющих условиям поиска, методом keyset-пагинации.
+     * Страница читается одним диапазоном индекса, соответствующего ведущему условию,
+     * поэтому её стоимость не зависит от номера страницы.
+     *
+     * @param criteria условия поиска
+     * @param after    курсор последней записи предыдущей страницы или null для первой страницы
+     * @param limit    размер страницы
+     *
+     * @return список пользователей
+     *
+     * @throws IllegalArgumentException если размер страницы вне допустимого диапазона
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public List<UserEntity> search(UserSearchCriteria criteria, UserSearchCursor after, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + maxPageLimit);
+        }
+
+        return usersRepository.search(criteria, after, limit);
+    }
+
     /**
      * Находит пользователя по идентификатору.
+     * Результат кэшируется; отсутствие пользователя не кэшируется.
+     * Транзакция не помечается только для чтения, чтобы запрос выполнялся основной базой, а не репликой.
      *
      * @param id идентификатор пользователя
      *
@@ -65,6 +190,8 @@ public class UsersServiceCrudImpl implements UsersServiceCrud {
      * @throws UserNotFoundException если пользователь не найден
      */
     @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
     public UserEntity findOne(Long id) {
         Optional<UserEntity> foundUser = usersRepository.findById(id);
@@ -73,8 +200,182 @@ public class UsersServiceCrudImpl implements UsersServiceCrud {
     }
 
     /**
-     * Сохраняет нового пользователя.
-     * Проверяет уникальность email и устанавливает временные метки.
+     * Находит пользователей по списку идентификаторов.
+     * Пользователи сначала ищутся в кэше, остальные загружаются одним запросом IN к основной базе
+     * и помещаются в кэш.
+     * Повторяющиеся идентификаторы учитываются один раз, отсутствующие пользователи в результат не входят.
+     *
+     * @param ids идентификаторы пользователей
+     *
+     * @return найденные пользователи в порядке идентификаторов: id — пользователь
+     *
+     * @throws IllegalArgumentException если список содержит пустые значения или количество идентификаторов
+     *                                  вне допустимого диапазона
+     */
+    @Override
+    @Transactional
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public Map<Long, UserEntity> findAllByIds(List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+
+        if (uniqueIds.contains(null)) {
+            throw new IllegalArgumentException("Список Id не должен содержать пустых значений");
+        }
+
+        if (uniqueIds.isEmpty() || uniqueIds.size() > maxMultiGetSize) {
+            throw new IllegalArgumentException("Количество Id должно быть от 1 до " + maxMultiGetSize);
+        }
+
+        Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        Map<Long, UserEntity> foundUsers = new HashMap<>();
+        List<Long> missedIds = new ArrayList<>();
+
+        for (Long id : uniqueIds) {
+            UserEntity cachedUser = usersCache != null ? usersCache.get(id, UserEntity.class) : null;
+
+            if (cachedUser != null) {
+                foundUsers.put(id, cachedUser);
+            } else {
+                missedIds.add(id);
+            }
+        }
+
+        if (!missedIds.isEmpty()) {
+            for (UserEntity userEntity : usersRepository.findAllById(missedIds)) {
+                foundUsers.put(userEntity.getId(), userEntity);
+
+                if (usersCache != null) {
+                    usersCache.put(userEntity.getId(), userEntity);
+                }
+            }
+        }
+
+        Map<Long, UserEntity> orderedUsers = new LinkedHashMap<>();
+
+        for (Long id : uniqueIds) {
+            UserEntity userEntity = foundUsers.get(id);
+
+            if (userEntity != null) {
+                orderedUsers.put(id, userEntity);
+            }
+        }
+
+        return orderedUsers;
+    }
+
+    /**
+     * Возвращает страницу пользователей, содержащую только указанные поля.
+     * Колонки выбираются проекцией без создания сущностей; id и поле сортировки выбираются
+     * всегда для построения курсора и удаляются из ответа, если не были запрошены.
+     *
+     * @param fields    запрошенные поля
+     * @param sortField поле сортировки
+     * @param after     курсор последней записи предыдущей страницы или null для первой страницы
+     * @param limit     размер страницы
+     *
+     * @return страница пользователей с курсором следующей страницы
+     *
+     * @throws IllegalArgumentException если размер страницы вне допустимого диапазона
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public UserFieldsPage findPageFields(Set<UserField> fields, UserSortField sortField,
+                                         UserCursor after, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + maxPageLimit);
+        }
+
+        List<Map<String, Object>> rows = usersRepository.findPageProjection(fields, sortField, after, limit);
+        String nextCursor = null;
+
+        if (rows.size() == limit) {
+            Map<String, Object> lastRow = rows.get(rows.size() - 1);
+            nextCursor = UserCursor.of(sortField, (Long) lastRow.get(UserField.ID.getParamName()),
+                    lastRow.get(sortField.getParamName())).encode();
+        }
+
+        Set<String> requested = fields.stream().map(UserField::getParamName).collect(Collectors.toSet());
+
+        for (Map<String, Object> row : rows) {
+            row.keySet().retainAll(requested);
+        }
+
+        return new UserFieldsPage(rows, nextCursor);
+    }
+
+    /**
+     * Находит указанные поля пользователя по идентификатору.
+     * Выборка выполняется проекцией мимо кэша сущностей.
+     *
+     * @param fields запрошенные поля
+     * @param id     идентификатор пользователя
+     *
+     * @return поля пользователя: имя поля — значение
+     *
+     * @throws UserNotFoundException если пользователь не найден
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public Map<String, Object> findOneFields(Set<UserField> fields, Long id) {
+        return usersRepository.findProjectionById(fields, id).orElseThrow(UserNotFoundException::new);
+    }
+
+    /**
+     * Возвращает изменения пользователей после курсора, включая отметки об удалении.
+     * Выборка идёт по индексам (updated_at, id) и (deleted_at, user_id), поэтому её стоимость
+     * зависит от количества изменений после курсора, а не от размера таблицы.
+     * Если изменений нет, возвращается переданный курсор.
+     *
+     * @param since курсор последнего полученного изменения или null для выборки с начала
+     * @param limit максимальное количество изменений
+     *
+     * @return страница изменений с курсором для следующего запроса
+     *
+     * @throws IllegalArgumentException если размер страницы вне допустимого диапазона
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public UserChangesPage findChanges(UserChangeCursor since, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + maxPageLimit);
+        }
+
+        LocalDateTime upTo = LocalDateTime.now().minus(changesCommitLagMs, ChronoUnit.MILLIS);
+        List<UserChangeDto> changes = usersRepository.findChanges(since, upTo, limit);
+        UserChangeCursor nextCursor = since;
+
+        if (!changes.isEmpty()) {
+            UserChangeDto lastChange = changes.get(changes.size() - 1);
+            nextCursor = UserChangeCursor.of(lastChange.getChangedAt(), lastChange.getId());
+        }
+
+        return new UserChangesPage(changes, nextCursor != null ? nextCursor.encode() : null,
+                changes.size() == limit);
+    }
+
+    /**
+     * Возвращает время последнего изменения пользователей, включая удаления.
+     * Используется как валидатор условных запросов к списку пользователей.
+     * Как и в ленте изменений, изменения новее задержки фиксации не учитываются: транзакция, зафиксированная
+     * позже, может записать время изменения меньше уже выданного максимума, и валидатор бы не изменился.
+     * Изменение попадает в валидатор, когда истекает задержка, и следующий условный запрос получает 200.
+     *
+     * @return время последнего изменения или null, если изменений не было
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public LocalDateTime findLastChangedAt() {
+        return usersRepository.findLastChangedAt(LocalDateTime.now().minus(changesCommitLagMs, ChronoUnit.MILLIS));
+    }
+
+    /**
+     * Сохраняет нового пользователя одним запросом INSERT.
+     * Уникальность email проверяет ограничение базы данных, а не отдельный запрос,
+     * поэтому проверка не требует лишнего обращения к базе и не подвержена гонкам.
      *
      * @param userEntity пользователь для сохранения
      *
@@ -85,20 +386,108 @@ public class UsersServiceCrudImpl implements UsersServiceCrud {
     @Override
     @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
     public UserEntity save(UserEntity userEntity) {
+        userEntity.setCreated_at(LocalDateTime.now());
+        userEntity.setUpdated_at(LocalDateTime.now());
+
+        try {
+            UserEntity savedUserEntity = usersRepository.saveAndFlush(userEntity);
+            emailBloomFilter.put(savedUserEntity.getEmail());
 
-        if (usersRepository.existsByEmail(userEntity.getEmail())) {
-            throw new IllegalArgumentException("Email уже занят");
+            return savedUserEntity;
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e);
         }
+    }
 
-        userEntity.setCreated_at(LocalDateTime.now());
-        userEntity.setUpdated_at(LocalDateTime.now());
+    /**
+     * Сохраняет пакет новых пользователей.
+     * Занятость email проверяется одним запросом для всего пакета, повторы email внутри
+     * пакета также отклоняются. Email, которые фильтр Блума считает точно свободными,
+     * в базе данных не проверяются; если свободны все email, запрос не выполняется.
+     * Вставка идёт JDBC-пакетами размера hibernate.jdbc.batch_size.
+     * Фильтр Блума локален для экземпляра сервиса и может не знать email, занятые другими экземплярами.
+     * Если такой email нарушил ограничение уникальности, пакет не сохраняется, его email добавляются
+     * в фильтр, а вызывающий код повторяет сохранение с проверкой всех email в базе данных.
+     *
+     * @param userEntities пользователи для сохранения
+     *
+     * @return результаты обработки в порядке переданных пользователей
+     *
+     * @throws UserBatchConflictException если занятый email не был проверен в базе данных
+     * @throws IllegalArgumentException   если email занят параллельным запросом после проверки
+     */
+    @Override
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public List<UserBatchItemResult> saveAll(List<UserEntity> userEntities) {
+        if (userEntities.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> batchEmails = userEntities.stream()
+                .map(userEntity -> UserEntity.normalizeEmail(userEntity.getEmail()))
+                .collect(Collectors.toSet());
+        Set<String> candidateEmails = batchEmails.stream()
+                .filter(emailBloomFilter::mightContain)
+                .collect(Collectors.toSet());
+        Set<String> takenEmails = new HashSet<>();
+
+        if (!candidateEmails.isEmpty()) {
+            takenEmails.addAll(usersRepository.findExistingEmails(candidateEmails));
+            candidateEmails.stream()
+                    .filter(email -> !takenEmails.contains(email))
+                    .forEach(email -> emailBloomFilter.recordFalsePositive());
+        }
+
+        List<UserEntity> newUserEntities = new ArrayList<>();
+        List<UserBatchItemResult> results = new ArrayList<>(userEntities.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (UserEntity userEntity : userEntities) {
+            if (!takenEmails.add(UserEntity.normalizeEmail(userEntity.getEmail()))) {
+                results.add(UserBatchItemResult.duplicate(results.size(), userEntity.getEmail()));
+                continue;
+            }
+
+            userEntity.setCreated_at(now);
+            userEntity.setUpdated_at(now);
+            newUserEntities.add(userEntity);
+            results.add(null);
+        }
+
+        try {
+            usersRepository.saveAll(newUserEntities);
+            usersRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            RuntimeException translated = translateEmailViolation(e);
+
+            if (translated instanceof IllegalArgumentException && candidateEmails.size() < batchEmails.size()) {
+                newUserEntities.forEach(userEntity -> {
+                    emailBloomFilter.put(userEntity.getEmail());
+                    userEntity.setId(null);
+                });
+
+                throw new UserBatchConflictException();
+            }
 
-        return usersRepository.save(userEntity);
+            throw translated;
+        }
+
+        newUserEntities.forEach(userEntity -> emailBloomFilter.put(userEntity.getEmail()));
+
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                UserEntity savedUserEntity = userEntities.get(i);
+                results.set(i, UserBatchItemResult.created(i, savedUserEntity.getId(), savedUserEntity.getEmail()));
+            }
+        }
+
+        return results;
     }
 
     /**
-     * Обновляет данные существующего пользователя.
-     * Проверяет уникальность email и сохраняет временные метки.
+     * Обновляет данные существующего пользователя одним запросом UPDATE ... RETURNING.
+     * Уникальность email проверяет ограничение базы данных, дата создания сохраняется.
+     * Запись пользователя удаляется из кэша и из кэша второго уровня Hibernate.
      *
      * @param id                идентификатор пользователя
      * @param updatedUserEntity обновленные данные пользователя
@@ -109,39 +498,148 @@ public class UsersServiceCrudImpl implements UsersServiceCrud {
      * @throws IllegalArgumentException если email уже занят
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
     public UserEntity update(Long id, UserEntity updatedUserEntity) {
-        UserEntity existingUserEntity = usersRepository.findById(id)
-                .orElseThrow(UserNotFoundException::new);
+        try {
+            UserEntity savedUserEntity = usersRepository.updateReturning(id,
+                            updatedUserEntity.getName(),
+                            updatedUserEntity.getEmail(),
+                            UserEntity.normalizeEmail(updatedUserEntity.getEmail()),
+                            updatedUserEntity.getAge(),
+                            LocalDateTime.now())
+                    .orElseThrow(UserNotFoundException::new);
+            usersRepository.evictFromEntityCache(id);
+            emailBloomFilter.put(savedUserEntity.getEmail());
 
-        if (!existingUserEntity.getEmail().equals(updatedUserEntity.getEmail()) &&
-                usersRepository.existsByEmail(updatedUserEntity.getEmail())) {
-            throw new IllegalArgumentException("Email уже занят");
+            return savedUserEntity;
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e);
         }
+    }
 
-        existingUserEntity.setName(updatedUserEntity.getName());
-        existingUserEntity.setEmail(updatedUserEntity.getEmail());
-        existingUserEntity.setAge(updatedUserEntity.getAge());
-        existingUserEntity.setUpdated_at(LocalDateTime.now());
+    /**
+     * Обновляет данные существующего пользователя одним условным запросом
+     * UPDATE ... WHERE id = ? AND version = ? RETURNING без предварительного чтения записи.
+     * Если запрос не изменил ни одной строки, отдельной проверкой существования
+     * отличает отсутствующего пользователя от изменённого другим запросом.
+     * Запись пользователя удаляется из кэша и из кэша второго уровня Hibernate.
+     *
+     * @param id                идентификатор пользователя
+     * @param updatedUserEntity обновленные данные пользователя
+     * @param expectedVersion   ожидаемая версия пользователя
+     *
+     * @return обновленный пользователь
+     *
+     * @throws UserNotFoundException         если пользователь не найден
+     * @throws UserVersionConflictException  если версия пользователя не совпадает с ожидаемой
+     * @throws IllegalArgumentException      если email уже занят
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public UserEntity update(Long id, UserEntity updatedUserEntity, long expectedVersion) {
+        try {
+            UserEntity savedUserEntity = usersRepository.updateReturningIfVersion(id, expectedVersion,
+                            updatedUserEntity.getName(),
+                            updatedUserEntity.getEmail(),
+                            UserEntity.normalizeEmail(updatedUserEntity.getEmail()),
+                            updatedUserEntity.getAge(),
+                            LocalDateTime.now())
+                    .orElseThrow(() -> usersRepository.existsById(id)
+                            ? new UserVersionConflictException("Пользователь изменён другим запросом")
+                            : new UserNotFoundException());
+            usersRepository.evictFromEntityCache(id);
+            emailBloomFilter.put(savedUserEntity.getEmail());
 
-        return usersRepository.save(existingUserEntity);
+            return savedUserEntity;
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e);
+        }
     }
 
     /**
-     * Удаляет пользователя по идентификатору.
+     * Частично обновляет пользователя одним запросом UPDATE ... RETURNING,
+     * в котором перечислены только изменённые колонки.
+     * Если email не передан, колонки email не перезаписываются и ограничение уникальности не проверяется.
+     * Запись пользователя удаляется из кэша и из кэша второго уровня Hibernate.
+     *
+     * @param id              идентификатор пользователя
+     * @param patch           изменяемые поля пользователя
+     * @param expectedVersion ожидаемая версия пользователя или null для обновления без проверки версии
+     *
+     * @return обновленный пользователь
+     *
+     * @throws UserNotFoundException        если пользователь не найден
+     * @throws UserVersionConflictException если версия пользователя не совпадает с ожидаемой
+     * @throws IllegalArgumentException     если изменение пустое или email уже занят
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
+    public UserEntity patch(Long id, UserMergePatch patch, Long expectedVersion) {
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("Не передано ни одного изменяемого поля");
+        }
+
+        try {
+            UserEntity savedUserEntity = usersRepository.patchReturning(id, patch.getChanges(), LocalDateTime.now(),
+                            expectedVersion)
+                    .orElseThrow(() -> expectedVersion != null && usersRepository.existsById(id)
+                            ? new UserVersionConflictException("Пользователь изменён другим запросом")
+                            : new UserNotFoundException());
+            usersRepository.evictFromEntityCache(id);
+
+            if (patch.getChanges().containsKey(UserField.EMAIL)) {
+                emailBloomFilter.put(savedUserEntity.getEmail());
+            }
+
+            return savedUserEntity;
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e);
+        }
+    }
+
+    /**
+     * Удаляет пользователя по идентификатору одним запросом DELETE ... RETURNING,
+     * который также записывает отметку об удалении для ленты изменений.
+     * Запись пользователя удаляется из кэша и из кэша второго уровня Hibernate.
      *
      * @param id идентификатор пользователя
      *
+     * @return удалённый пользователь
+     *
      * @throws UserNotFoundException если пользователь не найден
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     @CircuitBreaker(name = "DatabaseCircuitBreaker", fallbackMethod = "fallbackDatabaseOperation")
-    public void delete(Long id) {
-        if (!usersRepository.existsById(id)) {
-            throw new UserNotFoundException();
+    public UserEntity delete(Long id) {
+        UserEntity deletedUserEntity = usersRepository.deleteReturning(id, LocalDateTime.now())
+                .orElseThrow(UserNotFoundException::new);
+        usersRepository.evictFromEntityCache(id);
+        emailBloomFilter.recordRemoval();
+
+        return deletedUserEntity;
+    }
+
+    /**
+     * Преобразует нарушение уникальности email в ошибку "Email уже занят".
+     * Прочие нарушения целостности данных возвращаются без изменений.
+     *
+     * @param e исключение нарушения целостности данных
+     *
+     * @return исключение для выброса
+     */
+    private RuntimeException translateEmailViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolation &&
+                    UserEntity.EMAIL_UNIQUE_CONSTRAINT.equalsIgnoreCase(constraintViolation.getConstraintName())) {
+                return new IllegalArgumentException("Email уже занят");
+            }
         }
 
-        usersRepository.deleteById(id);
+        return e;
     }
 
     /**
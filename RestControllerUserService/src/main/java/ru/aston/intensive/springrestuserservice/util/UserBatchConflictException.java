@@ -0,0 +1,18 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+/**
+ * Исключение, выбрасываемое при пакетном сохранении пользователей, если email, который фильтр Блума
+ * считал свободным и который поэтому не проверялся в базе данных, оказался занят, например
+ * пользователем, созданным другим экземпляром сервиса. Транзакция пакета откатывается,
+ * а email пакета добавляются в фильтр, поэтому повторное сохранение того же пакета проверяет
+ * все email в базе данных и возвращает результат по каждому пользователю.
+ */
+public class UserBatchConflictException extends IllegalArgumentException {
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public UserBatchConflictException() {
+        super("Email уже занят");
+    }
+}
@@ -0,0 +1,76 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор ленты изменений пользователей.
+ * Хранит время и идентификатор последнего выданного изменения.
+ * Клиенту передаётся в виде непрозрачной строки Base64URL.
+ */
+public final class UserChangeCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime changedAt;
+    private final Long id;
+
+    private UserChangeCursor(LocalDateTime changedAt, Long id) {
+        this.changedAt = changedAt;
+        this.id = id;
+    }
+
+    /**
+     * Создаёт курсор, указывающий на изменение.
+     *
+     * @param changedAt время изменения
+     * @param id        идентификатор пользователя
+     *
+     * @return курсор
+     */
+    public static UserChangeCursor of(LocalDateTime changedAt, Long id) {
+        return new UserChangeCursor(changedAt, id);
+    }
+
+    /**
+     * Восстанавливает курсор из строки, полученной от клиента.
+     *
+     * @param token строка курсора
+     *
+     * @return курсор
+     *
+     * @throws IllegalArgumentException если курсор повреждён
+     */
+    public static UserChangeCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+
+            return new UserChangeCursor(LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1)));
+        } catch (IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+    }
+
+    /**
+     * Кодирует курсор в непрозрачную строку для передачи клиенту.
+     *
+     * @return строка курсора
+     */
+    public String encode() {
+        String raw = changedAt + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
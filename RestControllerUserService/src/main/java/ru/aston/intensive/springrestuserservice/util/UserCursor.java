@@ -0,0 +1,125 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор для постраничной (keyset) выборки пользователей.
+ * Хранит поле сортировки, значение этого поля и идентификатор последней выданной записи.
+ * Клиенту передаётся в виде непрозрачной строки Base64URL.
+ */
+public final class UserCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final UserSortField sortField;
+    private final Long id;
+    private final String value;
+
+    private UserCursor(UserSortField sortField, Long id, String value) {
+        this.sortField = sortField;
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * Создаёт курсор, указывающий на переданного пользователя.
+     *
+     * @param sortField  поле сортировки
+     * @param userEntity последний пользователь на странице
+     *
+     * @return курсор следующей страницы
+     */
+    public static UserCursor of(UserSortField sortField, UserEntity userEntity) {
+        Object sortValue = switch (sortField) {
+            case ID -> null;
+            case CREATED_AT -> userEntity.getCreated_at();
+            case NAME -> userEntity.getName();
+        };
+
+        return of(sortField, userEntity.getId(), sortValue);
+    }
+
+    /**
+     * Создаёт курсор по id и значению поля сортировки последней записи страницы.
+     *
+     * @param sortField поле сортировки
+     * @param id        идентификатор последнего пользователя на странице
+     * @param sortValue значение поля сортировки; для сортировки по id не используется
+     *
+     * @return курсор следующей страницы
+     */
+    public static UserCursor of(UserSortField sortField, Long id, Object sortValue) {
+        String value = sortField == UserSortField.ID ? "" : sortValue.toString();
+
+        return new UserCursor(sortField, id, value);
+    }
+
+    /**
+     * Восстанавливает курсор из строки, полученной от клиента.
+     * Для сортировки по id допускается передача идентификатора в открытом виде.
+     *
+     * @param token     строка курсора
+     * @param sortField поле сортировки запроса
+     *
+     * @return курсор
+     *
+     * @throws IllegalArgumentException если курсор повреждён или относится к другой сортировке
+     */
+    public static UserCursor decode(String token, UserSortField sortField) {
+        if (sortField == UserSortField.ID && token.chars().allMatch(Character::isDigit)) {
+            return new UserCursor(UserSortField.ID, Long.parseLong(token), "");
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 3);
+
+            UserCursor cursor = new UserCursor(
+                    UserSortField.fromParam(parts[0]), Long.parseLong(parts[1]), parts[2]);
+
+            if (cursor.sortField != sortField) {
+                throw new IllegalArgumentException("Курсор не соответствует полю сортировки");
+            }
+
+            if (sortField == UserSortField.CREATED_AT) {
+                cursor.getCreatedAt();
+            }
+
+            return cursor;
+        } catch (ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+    }
+
+    /**
+     * Кодирует курсор в непрозрачную строку для передачи клиенту.
+     *
+     * @return строка курсора
+     */
+    public String encode() {
+        String raw = sortField.getParamName() + SEPARATOR + id + SEPARATOR + value;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public UserSortField getSortField() {
+        return sortField;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return value;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return LocalDateTime.parse(value);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Валидаторы условных запросов к пользователям: значения заголовков ETag и Last-Modified.
+ * ETag пользователя — версия записи в кавычках, например "3".
+ * ETag списка пользователей — время последнего изменения с точностью до микросекунды,
+ * так как Last-Modified передаётся с точностью до секунды.
+ * Время изменения хранится без часового пояса и переводится в момент времени по поясу сервиса.
+ */
+public final class UserETag {
+
+    private static final String ANY = "*";
+
+    private UserETag() {}
+
+    /**
+     * Строит значение заголовка ETag для версии пользователя.
+     *
+     * @param version версия пользователя
+     *
+     * @return значение ETag
+     */
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Строит значение заголовка ETag для списка пользователей.
+     *
+     * @param lastChangedAt время последнего изменения пользователей или null, если изменений не было
+     *
+     * @return значение ETag
+     */
+    public static String ofLastChange(LocalDateTime lastChangedAt) {
+        long micros = lastChangedAt != null ? ChronoUnit.MICROS.between(Instant.EPOCH, toInstant(lastChangedAt)) : 0;
+
+        return "\"c" + micros + "\"";
+    }
+
+    /**
+     * Переводит время изменения в значение заголовка Last-Modified.
+     *
+     * @param changedAt время изменения или null
+     *
+     * @return время в миллисекундах с начала эпохи или -1, если время не задано
+     */
+    public static long lastModified(LocalDateTime changedAt) {
+        return changedAt != null ? toInstant(changedAt).toEpochMilli() : -1;
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Извлекает ожидаемую версию пользователя из заголовка If-Match.
+     *
+     * @param ifMatch значение заголовка If-Match или null
+     *
+     * @return ожидаемая версия или null, если заголовок не передан или равен "*"
+     *
+     * @throws IllegalArgumentException если заголовок не содержит версию, выданную в ETag
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+
+        if (ANY.equals(value)) {
+            return null;
+        }
+
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new IllegalArgumentException("Некорректный заголовок If-Match");
+        }
+
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный заголовок If-Match");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Форматы выгрузки пользователей.
+ */
+public enum UserExportFormat {
+
+    /** Один JSON-объект пользователя на строку. */
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+
+    /** CSV с заголовком. */
+    CSV("csv", MediaType.parseMediaType("text/csv; charset=UTF-8"));
+
+    private final String paramName;
+    private final MediaType mediaType;
+
+    UserExportFormat(String paramName, MediaType mediaType) {
+        this.paramName = paramName;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Возвращает имя формата, используемое в параметре запроса и расширении файла.
+     *
+     * @return имя формата
+     */
+    public String getParamName() {
+        return paramName;
+    }
+
+    /**
+     * Возвращает тип содержимого ответа для формата.
+     *
+     * @return тип содержимого
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Определяет формат выгрузки по значению параметра запроса.
+     *
+     * @param paramName значение параметра format
+     *
+     * @return формат выгрузки
+     *
+     * @throws IllegalArgumentException если формат не поддерживается
+     */
+    public static UserExportFormat fromParam(String paramName) {
+        for (UserExportFormat format : values()) {
+            if (format.paramName.equalsIgnoreCase(paramName)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("Неподдерживаемый формат выгрузки: " + paramName);
+    }
+}
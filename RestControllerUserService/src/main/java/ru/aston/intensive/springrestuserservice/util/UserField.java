@@ -0,0 +1,99 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Поля пользователя, которые можно запросить параметром fields.
+ * Имя параметра совпадает с именем атрибута сущности и колонки таблицы users.
+ */
+public enum UserField {
+
+    /** Идентификатор пользователя. */
+    ID("id"),
+
+    /** Имя пользователя. */
+    NAME("name"),
+
+    /** Email пользователя. */
+    EMAIL("email"),
+
+    /** Возраст пользователя. */
+    AGE("age"),
+
+    /** Время создания пользователя. */
+    CREATED_AT("created_at"),
+
+    /** Время последнего обновления пользователя. */
+    UPDATED_AT("updated_at");
+
+    private final String paramName;
+
+    UserField(String paramName) {
+        this.paramName = paramName;
+    }
+
+    /**
+     * Возвращает имя поля в том виде, в котором оно передаётся в запросе.
+     *
+     * @return имя поля
+     */
+    public String getParamName() {
+        return paramName;
+    }
+
+    /**
+     * Возвращает поле, по которому выполняется сортировка.
+     *
+     * @param sortField поле сортировки
+     *
+     * @return поле пользователя
+     */
+    public static UserField of(UserSortField sortField) {
+        return fromParam(sortField.getParamName());
+    }
+
+    /**
+     * Разбирает список полей, переданный через запятую.
+     *
+     * @param fields значение параметра fields, например id,email
+     *
+     * @return набор запрошенных полей в порядке объявления
+     *
+     * @throws IllegalArgumentException если список пуст или содержит неизвестное поле
+     */
+    public static Set<UserField> parse(String fields) {
+        Set<UserField> result = EnumSet.noneOf(UserField.class);
+
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                result.add(fromParam(field.trim()));
+            }
+        }
+
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("Список полей не должен быть пустым");
+        }
+
+        return result;
+    }
+
+    /**
+     * Возвращает поле по его имени в запросе.
+     *
+     * @param paramName имя поля
+     *
+     * @return поле пользователя
+     *
+     * @throws IllegalArgumentException если поле неизвестно
+     */
+    static UserField fromParam(String paramName) {
+        for (UserField field : values()) {
+            if (field.paramName.equalsIgnoreCase(paramName)) {
+                return field;
+            }
+        }
+
+        throw new IllegalArgumentException("Неподдерживаемое поле: " + paramName);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Частичное обновление пользователя в формате JSON Merge Patch (RFC 7396).
+ * Содержит только поля, переданные в запросе; отсутствующие поля не изменяются.
+ * Изменять можно имя, email и возраст; удаление поля значением null не поддерживается,
+ * так как все изменяемые поля обязательны.
+ */
+public final class UserMergePatch {
+
+    /**
+     * Тип содержимого JSON Merge Patch.
+     */
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private static final Set<UserField> PATCHABLE_FIELDS = EnumSet.of(UserField.NAME, UserField.EMAIL, UserField.AGE);
+
+    private final Map<UserField, Object> changes;
+
+    private UserMergePatch(Map<UserField, Object> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Разбирает тело запроса JSON Merge Patch.
+     *
+     * @param body тело запроса: имя поля — новое значение
+     *
+     * @return частичное обновление
+     *
+     * @throws IllegalArgumentException если поле неизвестно, не может быть изменено,
+     *                                  равно null или имеет неверный тип
+     */
+    public static UserMergePatch parse(Map<String, Object> body) {
+        Map<UserField, Object> changes = new EnumMap<>(UserField.class);
+
+        for (Map.Entry<String, Object> entry : body.entrySet()) {
+            UserField field = UserField.fromParam(entry.getKey());
+            Object value = entry.getValue();
+
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Поле нельзя изменить: " + entry.getKey());
+            }
+
+            if (value == null) {
+                throw new IllegalArgumentException("Поле не может быть удалено: " + entry.getKey());
+            }
+
+            boolean validType = field == UserField.AGE ? value instanceof Integer : value instanceof String;
+
+            if (!validType) {
+                throw new IllegalArgumentException("Неверный тип значения поля: " + entry.getKey());
+            }
+
+            changes.put(field, value);
+        }
+
+        return new UserMergePatch(Collections.unmodifiableMap(changes));
+    }
+
+    /**
+     * Возвращает новые значения изменяемых полей в порядке объявления полей.
+     *
+     * @return поле — новое значение
+     */
+    public Map<UserField, Object> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Проверяет, что запрос не изменяет ни одного поля.
+     *
+     * @return true, если изменений нет
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+}
@@ -0,0 +1,121 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import java.util.Locale;
+
+/**
+ * Условия поиска пользователей: префикс имени, домен email и диапазон возраста.
+ * Должно быть задано хотя бы одно условие.
+ * Порядок выдачи определяется ведущим условием, чтобы страница читалась одним диапазоном индекса:
+ * при поиске по имени — (name_search, id), при поиске по домену — id внутри домена,
+ * при поиске только по возрасту — (age, id).
+ */
+public final class UserSearchCriteria {
+
+    private static final int MAX_NAME_PREFIX_LENGTH = 50;
+    private static final int MIN_AGE = 0;
+    private static final int MAX_AGE = 150;
+
+    /**
+     * Порядок выдачи результатов поиска.
+     */
+    public enum Order {
+
+        /** По имени в нижнем регистре и id. */
+        NAME,
+
+        /** По id внутри домена email. */
+        EMAIL_DOMAIN,
+
+        /** По возрасту и id. */
+        AGE
+    }
+
+    private final String namePrefix;
+    private final String emailDomain;
+    private final Integer minAge;
+    private final Integer maxAge;
+
+    private UserSearchCriteria(String namePrefix, String emailDomain, Integer minAge, Integer maxAge) {
+        this.namePrefix = namePrefix;
+        this.emailDomain = emailDomain;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Создаёт условия поиска.
+     *
+     * @param namePrefix  префикс имени без учёта регистра или null
+     * @param emailDomain домен email, например example.com, или null
+     * @param minAge      минимальный возраст включительно или null
+     * @param maxAge      максимальный возраст включительно или null
+     *
+     * @return условия поиска
+     *
+     * @throws IllegalArgumentException если не задано ни одного условия или условия некорректны
+     */
+    public static UserSearchCriteria of(String namePrefix, String emailDomain, Integer minAge, Integer maxAge) {
+        if (namePrefix != null && (namePrefix.isEmpty() || namePrefix.length() > MAX_NAME_PREFIX_LENGTH)) {
+            throw new IllegalArgumentException(
+                    "Префикс имени должен быть от 1 до " + MAX_NAME_PREFIX_LENGTH + " символов");
+        }
+
+        String normalizedDomain = null;
+
+        if (emailDomain != null) {
+            normalizedDomain = emailDomain.trim().toLowerCase(Locale.ROOT);
+
+            if (normalizedDomain.startsWith("@")) {
+                normalizedDomain = normalizedDomain.substring(1);
+            }
+
+            if (normalizedDomain.isEmpty() || normalizedDomain.contains("@")) {
+                throw new IllegalArgumentException("Некорректный домен email");
+            }
+        }
+
+        if (minAge != null && (minAge < MIN_AGE || minAge > MAX_AGE) ||
+                maxAge != null && (maxAge < MIN_AGE || maxAge > MAX_AGE)) {
+            throw new IllegalArgumentException("Возраст должен быть от " + MIN_AGE + " до " + MAX_AGE);
+        }
+
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new IllegalArgumentException("Минимальный возраст больше максимального");
+        }
+
+        if (namePrefix == null && normalizedDomain == null && minAge == null && maxAge == null) {
+            throw new IllegalArgumentException("Не задано ни одного условия поиска");
+        }
+
+        return new UserSearchCriteria(namePrefix, normalizedDomain, minAge, maxAge);
+    }
+
+    /**
+     * Возвращает порядок выдачи, определяемый ведущим условием: имя, затем домен, затем возраст.
+     *
+     * @return порядок выдачи
+     */
+    public Order getOrder() {
+        if (namePrefix != null) {
+            return Order.NAME;
+        }
+
+        return emailDomain != null ? Order.EMAIL_DOMAIN : Order.AGE;
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+}
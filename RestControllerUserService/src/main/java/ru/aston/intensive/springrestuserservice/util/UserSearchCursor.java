@@ -0,0 +1,103 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Курсор для постраничной (keyset) выдачи результатов поиска пользователей.
+ * Хранит порядок выдачи, значение ключа сортировки и идентификатор последней выданной записи.
+ * Клиенту передаётся в виде непрозрачной строки Base64URL.
+ */
+public final class UserSearchCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final UserSearchCriteria.Order order;
+    private final Long id;
+    private final String value;
+
+    private UserSearchCursor(UserSearchCriteria.Order order, Long id, String value) {
+        this.order = order;
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * Создаёт курсор, указывающий на переданного пользователя.
+     *
+     * @param order      порядок выдачи
+     * @param userEntity последний пользователь на странице
+     *
+     * @return курсор следующей страницы
+     */
+    public static UserSearchCursor of(UserSearchCriteria.Order order, UserEntity userEntity) {
+        String value = switch (order) {
+            case NAME -> userEntity.getNameSearch();
+            case EMAIL_DOMAIN -> "";
+            case AGE -> Integer.toString(userEntity.getAge());
+        };
+
+        return new UserSearchCursor(order, userEntity.getId(), value);
+    }
+
+    /**
+     * Восстанавливает курсор из строки, полученной от клиента.
+     *
+     * @param token строка курсора
+     * @param order порядок выдачи запроса
+     *
+     * @return курсор
+     *
+     * @throws IllegalArgumentException если курсор повреждён или относится к другому порядку выдачи
+     */
+    public static UserSearchCursor decode(String token, UserSearchCriteria.Order order) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 3);
+
+            UserSearchCursor cursor = new UserSearchCursor(
+                    UserSearchCriteria.Order.valueOf(parts[0]), Long.parseLong(parts[1]), parts[2]);
+
+            if (cursor.order != order) {
+                throw new IllegalArgumentException("Курсор не соответствует условиям поиска");
+            }
+
+            if (order == UserSearchCriteria.Order.AGE) {
+                cursor.getAge();
+            }
+
+            return cursor;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+    }
+
+    /**
+     * Кодирует курсор в непрозрачную строку для передачи клиенту.
+     *
+     * @return строка курсора
+     */
+    public String encode() {
+        String raw = order.name() + SEPARATOR + id + SEPARATOR + value;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public UserSearchCriteria.Order getOrder() {
+        return order;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNameSearch() {
+        return value;
+    }
+
+    public int getAge() {
+        return Integer.parseInt(value);
+    }
+}
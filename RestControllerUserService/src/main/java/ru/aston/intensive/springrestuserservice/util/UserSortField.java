@@ -0,0 +1,51 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+/**
+ * Поля, по которым допускается постраничная сортировка пользователей.
+ * Для каждого поля в таблице users существует составной индекс (поле, id).
+ */
+public enum UserSortField {
+
+    /** Сортировка по идентификатору пользователя. */
+    ID("id"),
+
+    /** Сортировка по времени создания пользователя. */
+    CREATED_AT("created_at"),
+
+    /** Сортировка по имени пользователя. */
+    NAME("name");
+
+    private final String paramName;
+
+    UserSortField(String paramName) {
+        this.paramName = paramName;
+    }
+
+    /**
+     * Возвращает имя поля в том виде, в котором оно передаётся в запросе.
+     *
+     * @return имя параметра сортировки
+     */
+    public String getParamName() {
+        return paramName;
+    }
+
+    /**
+     * Определяет поле сортировки по значению параметра запроса.
+     *
+     * @param paramName значение параметра sort
+     *
+     * @return поле сортировки
+     *
+     * @throws IllegalArgumentException если поле сортировки не поддерживается
+     */
+    public static UserSortField fromParam(String paramName) {
+        for (UserSortField sortField : values()) {
+            if (sortField.paramName.equalsIgnoreCase(paramName)) {
+                return sortField;
+            }
+        }
+
+        throw new IllegalArgumentException("Неподдерживаемое поле сортировки: " + paramName);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+/**
+ * Исключение, выбрасываемое при обновлении пользователя, если его версия
+ * не совпадает с версией, ожидаемой клиентом.
+ */
+public class UserVersionConflictException extends RuntimeException {
+
+    /**
+     * Конструктор по умолчанию.
+     */
+    public UserVersionConflictException() {
+        super();
+    }
+
+    /**
+     * Конструктор с сообщением об ошибке.
+     *
+     * @param message сообщение об ошибке
+     */
+    public UserVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+-- Исходная таблица пользователей.
+-- На существующих базах не выполняется: Flyway принимает их за версию 1 (spring.flyway.baseline-on-migrate).
+CREATE TABLE IF NOT EXISTS users (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       varchar(255),
+    email      varchar(255),
+    age        integer NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
@@ -0,0 +1,10 @@
+-- Идентификаторы пользователей берутся из последовательности блоками по 50 значений (оптимизатор pooled),
+-- чтобы Hibernate мог объединять вставки в JDBC-пакеты.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+-- Следующий блок начинается после уже выданных идентификаторов.
+SELECT setval('users_seq', COALESCE((SELECT max(id) FROM users), 0) + 1);
+
+-- Значения id больше не генерирует база данных: столбец мог быть создан как identity или serial.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
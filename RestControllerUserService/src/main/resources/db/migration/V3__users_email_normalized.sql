@@ -0,0 +1,9 @@
+-- Уникальность email проверяется по нормализованному значению (без пробелов по краям, в нижнем регистре),
+-- как его вычисляет UserEntity.normalizeEmail.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_normalized varchar(255);
+
+UPDATE users SET email_normalized = lower(btrim(email)) WHERE email_normalized IS NULL;
+
+-- Если в таблице есть email, совпадающие после нормализации, миграция завершится ошибкой:
+-- дубликаты нужно разрешить до её применения.
+ALTER TABLE users ADD CONSTRAINT uk_users_email_normalized UNIQUE (email_normalized);
@@ -0,0 +1,35 @@
+-- Версия записи для условного обновления.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+
+-- Вычисляемые столбцы для поиска по префиксу имени и по домену email.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS name_search varchar(255) COLLATE "C"
+    GENERATED ALWAYS AS (lower(name)) STORED;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_domain varchar(255)
+    GENERATED ALWAYS AS (split_part(email_normalized, '@', 2)) STORED;
+
+-- Постраничная выборка с сортировкой, лента изменений и поиск.
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_name_id ON users (name, id);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at_id ON users (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_name_search_id ON users (name_search, id);
+CREATE INDEX IF NOT EXISTS idx_users_email_domain_id ON users (email_domain, id);
+CREATE INDEX IF NOT EXISTS idx_users_age_id ON users (age, id);
+
+-- Отметки об удалении пользователей для ленты изменений.
+CREATE TABLE IF NOT EXISTS user_tombstones (
+    user_id    bigint PRIMARY KEY,
+    deleted_at timestamp(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_tombstones_deleted_at_user_id ON user_tombstones (deleted_at, user_id);
+
+-- Outbox событий жизненного цикла пользователей.
+CREATE SEQUENCE IF NOT EXISTS user_event_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS user_event_outbox (
+    id         bigint PRIMARY KEY,
+    user_id    bigint,
+    email      varchar(255),
+    event_type varchar(255),
+    created_at timestamp(6)
+);
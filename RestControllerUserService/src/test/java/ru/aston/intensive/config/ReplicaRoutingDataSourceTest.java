@@ -0,0 +1,111 @@
+package ru.aston.intensive.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для класса ReplicaRoutingDataSource, выбирающего реплику или основную базу для чтения.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primaryDataSource;
+
+    @Mock
+    private DataSource replicaDataSource;
+
+    @Mock
+    private JdbcTemplate replicaJdbcTemplate;
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicaJdbcTemplate, 1000);
+    }
+
+    /**
+     * Проверяет, что до первой проверки отставания соединения выдаёт основная база.
+     */
+    @Test
+    @DisplayName("До проверки отставания чтение идёт в основную базу")
+    void getConnection_beforeLagCheck_shouldUsePrimary() throws SQLException {
+        Connection primaryConnection = mock(Connection.class);
+        when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, replicaRoutingDataSource.getConnection());
+        assertFalse(replicaRoutingDataSource.isReplicaAvailable());
+    }
+
+    /**
+     * Проверяет, что при допустимом отставании соединения выдаёт реплика.
+     */
+    @Test
+    @DisplayName("Чтение идёт в реплику при допустимом отставании")
+    void getConnection_whenLagWithinLimit_shouldUseReplica() throws SQLException {
+        Connection replicaConnection = mock(Connection.class);
+        when(replicaJdbcTemplate.queryForObject(ReplicaRoutingDataSource.REPLICA_LAG_QUERY, Double.class))
+                .thenReturn(0.25);
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+
+        replicaRoutingDataSource.checkReplicationLag();
+
+        assertTrue(replicaRoutingDataSource.isReplicaAvailable());
+        assertEquals(250, replicaRoutingDataSource.getReplicationLagMs());
+        assertSame(replicaConnection, replicaRoutingDataSource.getConnection());
+    }
+
+    /**
+     * Проверяет переключение на основную базу, когда отставание реплики превышает допустимое.
+     */
+    @Test
+    @DisplayName("Чтение переключается в основную базу при большом отставании реплики")
+    void getConnection_whenLagExceedsLimit_shouldFallBackToPrimary() throws SQLException {
+        Connection primaryConnection = mock(Connection.class);
+        when(replicaJdbcTemplate.queryForObject(ReplicaRoutingDataSource.REPLICA_LAG_QUERY, Double.class))
+                .thenReturn(0.1, 5.0);
+        when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+
+        replicaRoutingDataSource.checkReplicationLag();
+        replicaRoutingDataSource.checkReplicationLag();
+
+        assertFalse(replicaRoutingDataSource.isReplicaAvailable());
+        assertSame(primaryConnection, replicaRoutingDataSource.getConnection());
+    }
+
+    /**
+     * Проверяет переключение на основную базу, когда реплика недоступна.
+     */
+    @Test
+    @DisplayName("Чтение переключается в основную базу при недоступной реплике")
+    void checkReplicationLag_whenReplicaDown_shouldFallBackToPrimary() {
+        when(replicaJdbcTemplate.queryForObject(ReplicaRoutingDataSource.REPLICA_LAG_QUERY, Double.class))
+                .thenReturn(0.0)
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        replicaRoutingDataSource.checkReplicationLag();
+        replicaRoutingDataSource.checkReplicationLag();
+
+        assertFalse(replicaRoutingDataSource.isReplicaAvailable());
+        assertEquals(-1, replicaRoutingDataSource.getReplicationLagMs());
+    }
+}
@@ -0,0 +1,120 @@
+package ru.aston.intensive.kafkaconsumer.event;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.mockito.ArgumentCaptor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.aston.intensive.config.CacheConfig;
+import ru.aston.intensive.kafkaproducer.event.CacheInvalidationSender;
+import ru.aston.intensive.springrestuserservice.dto.UserMutationEvent;
+import ru.aston.intensive.springrestuserservice.repositories.UsersRepository;
+import ru.aston.intensive.springrestuserservice.services.EmailBloomFilter;
+import ru.aston.intensive.springrestuserservice.services.UserChangeStream;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для класса CacheInvalidationListener, обрабатывающего инвалидации кэша из Kafka.
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationListenerTest {
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache usersCache;
+
+    @Mock
+    private UsersRepository usersRepository;
+
+    @Mock
+    private UserChangeStream userChangeStream;
+
+    @Mock
+    private EmailBloomFilter emailBloomFilter;
+
+    @InjectMocks
+    private CacheInvalidationListener cacheInvalidationListener;
+
+    /**
+     * Проверяет удаление пользователя из кэша второго уровня и затем из локального кэша по ключу сообщения.
+     */
+    @Test
+    @DisplayName("Удаление пользователя из кэшей по сообщению инвалидации")
+    void listenCacheInvalidations_shouldEvictUser() {
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+
+        cacheInvalidationListener.listenCacheInvalidations(
+                new ConsumerRecord<>("user-cache-invalidation", 0, 0L, "42", "UPDATED"));
+
+        InOrder order = inOrder(usersRepository, usersCache);
+        order.verify(usersRepository, times(1)).evictFromEntityCache(42L);
+        order.verify(usersCache, times(1)).evict(42L);
+    }
+
+    /**
+     * Проверяет, что изменение из сообщения инвалидации публикуется в поток SSE вместе с email из заголовка.
+     */
+    @Test
+    @DisplayName("Публикация изменения из сообщения инвалидации в поток SSE")
+    void listenCacheInvalidations_shouldPublishToStream() {
+        ConsumerRecord<String, String> invalidationRecord =
+                new ConsumerRecord<>("user-cache-invalidation", 0, 0L, "42", "DELETED");
+        invalidationRecord.headers().add(CacheInvalidationSender.EMAIL_HEADER,
+                "john@example.com".getBytes(StandardCharsets.UTF_8));
+
+        cacheInvalidationListener.listenCacheInvalidations(invalidationRecord);
+
+        ArgumentCaptor<UserMutationEvent> eventCaptor = ArgumentCaptor.forClass(UserMutationEvent.class);
+        verify(userChangeStream, times(1)).publish(eventCaptor.capture());
+        assertEquals(42L, eventCaptor.getValue().getUserId());
+        assertEquals("DELETED", eventCaptor.getValue().getType());
+        assertEquals("john@example.com", eventCaptor.getValue().getEmail());
+    }
+
+    /**
+     * Проверяет, что email пользователя, созданного другим экземпляром сервиса, добавляется в фильтр Блума.
+     */
+    @Test
+    @DisplayName("Добавление email из сообщения инвалидации в фильтр Блума")
+    void listenCacheInvalidations_shouldPutEmailIntoBloomFilter() {
+        ConsumerRecord<String, String> invalidationRecord =
+                new ConsumerRecord<>("user-cache-invalidation", 0, 0L, "42", "CREATED");
+        invalidationRecord.headers().add(CacheInvalidationSender.EMAIL_HEADER,
+                "john@example.com".getBytes(StandardCharsets.UTF_8));
+
+        cacheInvalidationListener.listenCacheInvalidations(invalidationRecord);
+
+        verify(emailBloomFilter, times(1)).put("john@example.com");
+    }
+
+    /**
+     * Проверяет, что сообщение с некорректным ключом пропускается.
+     */
+    @Test
+    @DisplayName("Пропуск сообщения инвалидации с некорректным ключом")
+    void listenCacheInvalidations_withInvalidKey_shouldSkip() {
+        cacheInvalidationListener.listenCacheInvalidations(
+                new ConsumerRecord<>("user-cache-invalidation", 0, 0L, "abc", "UPDATED"));
+
+        verify(usersCache, never()).evict(any());
+        verify(usersRepository, never()).evictFromEntityCache(any());
+        verify(userChangeStream, never()).publish(any());
+    }
+}
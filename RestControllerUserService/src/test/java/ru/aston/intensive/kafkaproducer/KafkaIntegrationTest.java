@@ -21,12 +21,19 @@ import org.springframework.kafka.test.utils.ContainerTestUtils;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.aston.intensive.common.dto.UserNotificationDto;
-import ru.aston.intensive.kafkaproducer.aspect.KafkaEventPublishingAspect;
-import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventEntity;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventRepository;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxRelay;
+import ru.aston.intensive.springrestuserservice.services.EmailBloomFilter;
 import ru.aston.intensive.springrestuserservice.services.UserMapper;
+import ru.aston.intensive.springrestuserservice.services.UsersExportService;
 import ru.aston.intensive.springrestuserservice.services.UsersServiceCrud;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -34,10 +41,13 @@ import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
- * Интеграционные тесты для проверки отправки сообщений в Kafka через аспект и продюсер.
+ * Интеграционные тесты для проверки отправки сообщений из outbox-таблицы в Kafka.
  */
 @DirtiesContext
 @SpringBootTest(properties = {"spring.autoconfigure.exclude=" +
@@ -48,13 +58,14 @@ import static org.mockito.Mockito.when;
         properties = {
                 "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
                 "kafka.bootstrapAddress=${spring.embedded.kafka.brokers}",
-                "kafka.topicName=test-event"
+                "kafka.topicName=test-event",
+                "users.outbox.pollInterval=3600000"
         })
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class KafkaIntegrationTest {
 
     @Autowired
-    private KafkaEventPublishingAspect eventAspect;
+    private OutboxRelay outboxRelay;
 
     @Autowired
     private EmbeddedKafkaBroker embeddedKafkaBroker;
@@ -65,6 +76,18 @@ class KafkaIntegrationTest {
     @MockitoBean
     private UserMapper mapper;
 
+    @MockitoBean
+    private UsersExportService usersExportService;
+
+    @MockitoBean
+    private EmailBloomFilter emailBloomFilter;
+
+    @MockitoBean
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
     private KafkaMessageListenerContainer<String, UserNotificationDto> kafkaListener;
     private BlockingQueue<ConsumerRecord<String, UserNotificationDto>> records;
 
@@ -110,63 +133,94 @@ class KafkaIntegrationTest {
     }
 
     /**
-     * Проверяет отправку события создания пользователя в Kafka.
+     * Проверяет отправку события создания пользователя из outbox-таблицы в Kafka
+     * и удаление отправленной записи.
      *
      * @throws Exception если получение сообщения из Kafka не удалось
      */
     @Test
     @DisplayName("Проверка отправки события создания пользователя в Kafka")
-    void testPublishUserCreatedEvent() throws Exception {
-        UserEntity userEntity = new UserEntity();
-        userEntity.setId(1L);
-        userEntity.setName("Test User");
-        userEntity.setEmail("test@example.com");
-
-        UserNotificationDto expectedDto = new UserNotificationDto();
-        expectedDto.setEmail("test@example.com");
-        expectedDto.setEventType("CREATED");
+    void testRelayUserCreatedEvent() throws Exception {
+        OutboxEventEntity outboxEvent = new OutboxEventEntity(1L, "test@example.com", "CREATED");
+        outboxEvent.setId(10L);
 
-        when(usersServiceCrud.save(userEntity)).thenReturn(userEntity);
-        when(mapper.toUserNotificationDto(userEntity)).thenReturn(expectedDto);
+        when(outboxEventRepository.tryLockRelay()).thenReturn(true);
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(List.of(outboxEvent), List.of());
 
-        eventAspect.publishUserCreatedEvent(userEntity);
+        outboxRelay.relay();
 
         ConsumerRecord<String, UserNotificationDto> received = records.poll(3, TimeUnit.SECONDS);
 
         assertNotNull(received);
         assertNotNull(received.value());
-        assertEquals(expectedDto.getEmail(), received.value().getEmail());
+        assertEquals("1", received.key());
+        assertEquals("test@example.com", received.value().getEmail());
         assertEquals("CREATED", received.value().getEventType());
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(10L));
     }
 
     /**
-     * Проверяет отправку события удаления пользователя в Kafka.
+     * Проверяет отправку события удаления пользователя из outbox-таблицы в Kafka
+     * и удаление отправленной записи.
      *
      * @throws Exception если получение сообщения из Kafka не удалось
      */
     @Test
     @DisplayName("Проверка отправки события удаления пользователя в Kafka")
-    void testPublishUserDeletedEvent() throws Exception {
-        Long userId = 1L;
-        UserEntity userEntity = new UserEntity();
-        userEntity.setId(userId);
-        userEntity.setName("Test User");
-        userEntity.setEmail("test@example.com");
+    void testRelayUserDeletedEvent() throws Exception {
+        OutboxEventEntity outboxEvent = new OutboxEventEntity(1L, "test@example.com", "DELETED");
+        outboxEvent.setId(11L);
 
-        UserNotificationDto expectedDto = new UserNotificationDto();
-        expectedDto.setEmail("test@example.com");
-        expectedDto.setEventType("DELETED");
+        when(outboxEventRepository.tryLockRelay()).thenReturn(true);
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(List.of(outboxEvent), List.of());
 
-        when(usersServiceCrud.findOne(userId)).thenReturn(userEntity);
-        when(mapper.toUserNotificationDto(userEntity)).thenReturn(expectedDto);
-
-        eventAspect.publishUserDeletedEvent(userId);
+        outboxRelay.relay();
 
         ConsumerRecord<String, UserNotificationDto> received = records.poll(3, TimeUnit.SECONDS);
 
         assertNotNull(received, "Сообщение должно быть получено из Kafka");
         assertNotNull(received.value(), "Полученное сообщение не должно быть null");
-        assertEquals(expectedDto.getEmail(), received.value().getEmail(), "Email пользователя должен совпадать");
+        assertEquals("1", received.key(), "Ключ сообщения должен совпадать с id пользователя");
+        assertEquals("test@example.com", received.value().getEmail(), "Email пользователя должен совпадать");
         assertEquals("DELETED", received.value().getEventType(), "Тип события должен быть DELETED");
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(11L));
+    }
+
+    /**
+     * Проверяет, что события одного пользователя попадают в одну партицию в порядке отправки.
+     *
+     * @throws Exception если получение сообщения из Kafka не удалось
+     */
+    @Test
+    @DisplayName("События одного пользователя попадают в одну партицию по порядку")
+    void testRelayKeepsPerUserOrder() throws Exception {
+        List<OutboxEventEntity> outboxEvents = new ArrayList<>();
+
+        for (long userId = 1; userId <= 6; userId++) {
+            outboxEvents.add(new OutboxEventEntity(userId, "user" + userId + "@example.com", "CREATED"));
+            outboxEvents.add(new OutboxEventEntity(userId, "user" + userId + "@example.com", "DELETED"));
+        }
+
+        when(outboxEventRepository.tryLockRelay()).thenReturn(true);
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(outboxEvents, List.of());
+
+        outboxRelay.relay();
+
+        Map<String, List<ConsumerRecord<String, UserNotificationDto>>> recordsByKey = new HashMap<>();
+
+        for (int i = 0; i < outboxEvents.size(); i++) {
+            ConsumerRecord<String, UserNotificationDto> received = records.poll(3, TimeUnit.SECONDS);
+            assertNotNull(received, "Все сообщения должны быть получены из Kafka");
+            recordsByKey.computeIfAbsent(received.key(), key -> new ArrayList<>()).add(received);
+        }
+
+        assertEquals(6, recordsByKey.size());
+
+        for (List<ConsumerRecord<String, UserNotificationDto>> userRecords : recordsByKey.values()) {
+            assertEquals(2, userRecords.size());
+            assertEquals(userRecords.get(0).partition(), userRecords.get(1).partition());
+            assertEquals("CREATED", userRecords.get(0).value().getEventType());
+            assertEquals("DELETED", userRecords.get(1).value().getEventType());
+        }
     }
-}
\ No newline at end of file
+}
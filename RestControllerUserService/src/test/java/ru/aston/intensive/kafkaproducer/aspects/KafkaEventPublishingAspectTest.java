@@ -4,83 +4,93 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.TestPropertySource;
-import ru.aston.intensive.common.dto.UserNotificationDto;
 import ru.aston.intensive.kafkaproducer.aspect.KafkaEventPublishingAspect;
-import ru.aston.intensive.kafkaproducer.event.EventSender;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventEntity;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventWriter;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
-import ru.aston.intensive.springrestuserservice.services.UserMapper;
-import ru.aston.intensive.springrestuserservice.services.UsersServiceCrud;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 /**
- * Юнит-тесты для аспекта KafkaEventPublishingAspect, публикующего события в Kafka.
+ * Юнит-тесты для аспекта KafkaEventPublishingAspect, записывающего события в outbox-таблицу.
  */
 @ExtendWith(MockitoExtension.class)
 @TestPropertySource(locations = "/application-test.yaml")
 class KafkaEventPublishingAspectTest {
 
     @Mock
-    private EventSender eventSender;
-
-    @Mock
-    private UsersServiceCrud usersServiceCrud;
-
-    @Mock
-    private UserMapper mapper;
+    private OutboxEventWriter outboxEventWriter;
 
     @InjectMocks
     private KafkaEventPublishingAspect kafkaEventPublishingAspect;
 
     private UserEntity userEntity;
-    private UserNotificationDto userNotificationDto;
 
     @BeforeEach
     void setUp() {
         userEntity = new UserEntity();
         userEntity.setId(1L);
         userEntity.setEmail("test@example.com");
-
-        userNotificationDto = new UserNotificationDto();
-        userNotificationDto.setEmail("test@example.com");
     }
 
     /**
-     * Проверяет публикацию события создания пользователя.
+     * Проверяет запись события создания пользователя.
      */
     @Test
     @DisplayName("Публикация события создания пользователя")
-    void publishUserCreatedEvent_shouldSendMessageWithCreatedEventType() {
-        when(mapper.toUserNotificationDto(userEntity)).thenReturn(userNotificationDto);
+    void publishUserCreatedEvent_shouldWriteCreatedEvent() {
+        ArgumentCaptor<OutboxEventEntity> outboxEventCaptor = ArgumentCaptor.forClass(OutboxEventEntity.class);
 
         kafkaEventPublishingAspect.publishUserCreatedEvent(userEntity);
 
-        verify(mapper, times(1)).toUserNotificationDto(userEntity);
-        verify(eventSender, times(1)).sendMessage(userNotificationDto);
-        assert userNotificationDto.getEventType().equals("CREATED");
+        verify(outboxEventWriter, times(1)).write(outboxEventCaptor.capture());
+        assertEquals(1L, outboxEventCaptor.getValue().getUserId());
+        assertEquals("test@example.com", outboxEventCaptor.getValue().getEmail());
+        assertEquals("CREATED", outboxEventCaptor.getValue().getEventType());
+    }
+
+    /**
+     * Проверяет пакетную запись событий только для созданных пользователей.
+     */
+    @Test
+    @DisplayName("Публикация событий пакетного создания пользователей")
+    @SuppressWarnings("unchecked")
+    void publishUsersCreatedEvent_shouldWriteOnlyCreatedUsers() {
+        ArgumentCaptor<List<OutboxEventEntity>> outboxEventsCaptor = ArgumentCaptor.forClass(List.class);
+        List<UserBatchItemResult> results = List.of(
+                UserBatchItemResult.created(0, 1L, "test@example.com"),
+                UserBatchItemResult.duplicate(1, "taken@example.com"));
+
+        kafkaEventPublishingAspect.publishUsersCreatedEvent(results);
+
+        verify(outboxEventWriter, times(1)).writeAll(outboxEventsCaptor.capture());
+        assertEquals(1, outboxEventsCaptor.getValue().size());
+        assertEquals("test@example.com", outboxEventsCaptor.getValue().get(0).getEmail());
+        assertEquals("CREATED", outboxEventsCaptor.getValue().get(0).getEventType());
     }
 
     /**
-     * Проверяет публикацию события удаления пользователя.
+     * Проверяет запись события удаления пользователя.
      */
     @Test
     @DisplayName("Публикация события удаления пользователя")
-    void publishUserDeletedEvent_shouldSendMessageWithDeletedEventType() {
-        Long userId = 1L;
-        when(usersServiceCrud.findOne(userId)).thenReturn(userEntity);
-        when(mapper.toUserNotificationDto(userEntity)).thenReturn(userNotificationDto);
+    void publishUserDeletedEvent_shouldWriteDeletedEvent() {
+        ArgumentCaptor<OutboxEventEntity> outboxEventCaptor = ArgumentCaptor.forClass(OutboxEventEntity.class);
 
-        kafkaEventPublishingAspect.publishUserDeletedEvent(userId);
+        kafkaEventPublishingAspect.publishUserDeletedEvent(userEntity);
 
-        verify(usersServiceCrud, times(1)).findOne(userId);
-        verify(mapper, times(1)).toUserNotificationDto(userEntity);
-        verify(eventSender, times(1)).sendMessage(userNotificationDto);
-        assert userNotificationDto.getEventType().equals("DELETED");
+        verify(outboxEventWriter, times(1)).write(outboxEventCaptor.capture());
+        assertEquals(1L, outboxEventCaptor.getValue().getUserId());
+        assertEquals("DELETED", outboxEventCaptor.getValue().getEventType());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package ru.aston.intensive.kafkaproducer.event;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.aston.intensive.springrestuserservice.dto.UserMutationEvent;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для класса CacheInvalidationSender, отправляющего инвалидации кэша в Kafka.
+ */
+@ExtendWith(MockitoExtension.class)
+@TestPropertySource(locations = "/application-test.yaml")
+class CacheInvalidationSenderTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @InjectMocks
+    private CacheInvalidationSender cacheInvalidationSender;
+
+    @BeforeEach
+    void setUp() throws NoSuchFieldException, IllegalAccessException {
+        Field topicNameField = CacheInvalidationSender.class.getDeclaredField("topicName");
+        topicNameField.setAccessible(true);
+        topicNameField.set(cacheInvalidationSender, "user-cache-invalidation");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Проверяет немедленную отправку инвалидации вне транзакции с ключом, равным id пользователя,
+     * и email в заголовке.
+     */
+    @Test
+    @DisplayName("Отправка инвалидации вне транзакции")
+    @SuppressWarnings("unchecked")
+    void sendInvalidation_withoutTransaction_shouldSendImmediately() {
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(new CompletableFuture<SendResult<String, String>>());
+
+        cacheInvalidationSender.sendInvalidation(new UserMutationEvent(1L, "UPDATED", "john@example.com"));
+
+        ArgumentCaptor<ProducerRecord<String, String>> recordCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(1)).send(recordCaptor.capture());
+        ProducerRecord<String, String> invalidationRecord = recordCaptor.getValue();
+        assertEquals("user-cache-invalidation", invalidationRecord.topic());
+        assertEquals("1", invalidationRecord.key());
+        assertEquals("UPDATED", invalidationRecord.value());
+        assertEquals("john@example.com", new String(
+                invalidationRecord.headers().lastHeader(CacheInvalidationSender.EMAIL_HEADER).value(),
+                StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Проверяет, что в транзакции инвалидации отправляются только после её фиксации.
+     */
+    @Test
+    @DisplayName("Отправка инвалидаций после фиксации транзакции")
+    @SuppressWarnings("unchecked")
+    void sendInvalidations_inTransaction_shouldSendAfterCommit() {
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(new CompletableFuture<SendResult<String, String>>());
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheInvalidationSender.sendInvalidations(List.of(
+                new UserMutationEvent(1L, "CREATED", "john@example.com"),
+                new UserMutationEvent(2L, "CREATED", "jane@example.com")));
+
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        ArgumentCaptor<ProducerRecord<String, String>> recordCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(recordCaptor.capture());
+        assertEquals(List.of("1", "2"), recordCaptor.getAllValues().stream().map(ProducerRecord::key).toList());
+    }
+}
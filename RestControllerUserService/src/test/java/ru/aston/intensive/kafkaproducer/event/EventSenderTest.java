@@ -1,11 +1,12 @@
 package ru.aston.intensive.kafkaproducer.event;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -15,15 +16,19 @@ import org.springframework.messaging.MessageHeaders;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.util.MimeTypeUtils;
 import ru.aston.intensive.common.dto.UserNotificationDto;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventEntity;
+import ru.aston.intensive.springrestuserservice.util.KafkaOperationException;
 
 import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
 
 /**
  * Юнит-тесты для класса EventSender, ответственного за отправку сообщений в Kafka.
@@ -35,97 +40,64 @@ class EventSenderTest {
     @Mock
     private KafkaTemplate<String, UserNotificationDto> kafkaTemplate;
 
-    @InjectMocks
-    private EventSender eventSender;
+    private MeterRegistry meterRegistry;
 
-    private UserNotificationDto userNotificationDto;
+    private EventSender eventSender;
 
     @BeforeEach
     void setUp() throws NoSuchFieldException, IllegalAccessException {
-        userNotificationDto = new UserNotificationDto();
-        userNotificationDto.setEmail("test@example.com");
-        userNotificationDto.setEventType("CREATED");
+        meterRegistry = new SimpleMeterRegistry();
+        eventSender = new EventSender(kafkaTemplate, meterRegistry);
 
         Field topicNameField = EventSender.class.getDeclaredField("topicName");
         topicNameField.setAccessible(true);
         topicNameField.set(eventSender, "user-event");
 
-        Field partitionField = EventSender.class.getDeclaredField("partition");
-        partitionField.setAccessible(true);
-        partitionField.setInt(eventSender, 1);
-
+        Field sendTimeoutField = EventSender.class.getDeclaredField("sendTimeoutMs");
+        sendTimeoutField.setAccessible(true);
+        sendTimeoutField.setLong(eventSender, 1000L);
     }
 
     /**
-     * Проверяет отправку сообщения в корректный топик и партицию.
+     * Проверяет пакетную отправку сообщений с одним сбросом буфера продюсера.
+     * Сообщения отправляются в порядке outbox-таблицы с ключом по id пользователя.
      */
     @Test
-    @DisplayName("Отправка сообщения в корректный топик и партицию")
-    void sendMessage_shouldSendMessageToCorrectTopicAndPartition() {
+    @DisplayName("Пакетная отправка сообщений")
+    void sendMessages_shouldSendEachMessageAndFlushOnce() {
         ArgumentCaptor<Message<UserNotificationDto>> messageCaptor = ArgumentCaptor.forClass(Message.class);
-
-        eventSender.sendMessage(userNotificationDto);
-
-        verify(kafkaTemplate, times(1)).send(messageCaptor.capture());
-
-        Message<UserNotificationDto> capturedMessage = messageCaptor.getValue();
-        MessageHeaders headers = capturedMessage.getHeaders();
-
-        assertEquals("user-event", headers.get(KafkaHeaders.TOPIC));
-        assertEquals(1, headers.get(KafkaHeaders.PARTITION));
-        assertEquals(MimeTypeUtils.APPLICATION_JSON, headers.get(MessageHeaders.CONTENT_TYPE));
-        assertEquals(userNotificationDto, capturedMessage.getPayload());
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        eventSender.sendMessages(List.of(
+                new OutboxEventEntity(1L, "test@example.com", "CREATED"),
+                new OutboxEventEntity(2L, "second@example.com", "CREATED"),
+                new OutboxEventEntity(1L, "test@example.com", "DELETED")));
+
+        verify(kafkaTemplate, times(3)).send(messageCaptor.capture());
+        verify(kafkaTemplate, times(1)).flush();
+
+        List<Message<UserNotificationDto>> messages = messageCaptor.getAllValues();
+        assertEquals(List.of("1", "2", "1"),
+                messages.stream().map(message -> message.getHeaders().get(KafkaHeaders.KEY)).toList());
+        assertEquals("user-event", messages.get(0).getHeaders().get(KafkaHeaders.TOPIC));
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, messages.get(0).getHeaders().get(MessageHeaders.CONTENT_TYPE));
+        assertEquals("second@example.com", messages.get(1).getPayload().getEmail());
+        assertEquals("DELETED", messages.get(2).getPayload().getEventType());
+        assertEquals(3, meterRegistry.get("kafka.user.events.send").tag("result", "success").timer().count());
     }
 
     /**
-     * Проверяет выброс исключения при отправке null DTO.
+     * Проверяет, что неподтверждённая брокером отправка пакета завершается ошибкой.
      */
     @Test
-    @DisplayName("Отправка null DTO вызывает IllegalArgumentException")
-    void sendMessage_withNullDto_shouldThrowIllegalArgumentException() {
-        assertThrows(IllegalArgumentException.class, () -> eventSender.sendMessage(null));
+    @DisplayName("Ошибка пакетной отправки при отказе брокера")
+    void sendMessages_whenBrokerFails_shouldThrowKafkaOperationException() {
+        when(kafkaTemplate.send(any(Message.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
 
-        verify(kafkaTemplate, never()).send(any(Message.class));
-    }
+        assertThrows(KafkaOperationException.class, () -> eventSender.sendMessages(
+                List.of(new OutboxEventEntity(1L, "test@example.com", "CREATED"))));
 
-    /**
-     * Проверяет отправку сообщения с другим топиком и партицией.
-     */
-    @Test
-    @DisplayName("Отправка сообщения с кастомным топиком и партицией")
-    void sendMessage_withDifferentTopicAndPartition_shouldSendCorrectMessage() throws NoSuchFieldException, IllegalAccessException {
-        Field topicNameField = EventSender.class.getDeclaredField("topicName");
-        topicNameField.setAccessible(true);
-        topicNameField.set(eventSender, "custom-topic");
-
-        Field partitionField = EventSender.class.getDeclaredField("partition");
-        partitionField.setAccessible(true);
-        partitionField.setInt(eventSender, 2);
-
-        ArgumentCaptor<Message<UserNotificationDto>> messageCaptor = ArgumentCaptor.forClass(Message.class);
-
-        eventSender.sendMessage(userNotificationDto);
-
-        verify(kafkaTemplate, times(1)).send(messageCaptor.capture());
-        Message<UserNotificationDto> capturedMessage = messageCaptor.getValue();
-        MessageHeaders headers = capturedMessage.getHeaders();
-        assertEquals("custom-topic", headers.get(KafkaHeaders.TOPIC));
-        assertEquals(2, headers.get(KafkaHeaders.PARTITION));
-        assertEquals(MimeTypeUtils.APPLICATION_JSON, headers.get(MessageHeaders.CONTENT_TYPE));
-        assertEquals(userNotificationDto, capturedMessage.getPayload());
-    }
-
-    /**
-     * Проверяет выброс исключения при null KafkaTemplate.
-     */
-    @Test
-    @DisplayName("Отправка сообщения с null KafkaTemplate вызывает NullPointerException")
-    void sendMessage_withNullKafkaTemplate_shouldThrowNullPointerException() throws NoSuchFieldException, IllegalAccessException {
-        Field kafkaTemplateField = EventSender.class.getDeclaredField("kafkaTemplate");
-        kafkaTemplateField.setAccessible(true);
-        kafkaTemplateField.set(eventSender, null);
-
-        assertThrows(NullPointerException.class, () -> eventSender.sendMessage(userNotificationDto));
-        verify(kafkaTemplate, never()).send(any(Message.class));
+        assertEquals(1, meterRegistry.get("kafka.user.events.send").tag("result", "failure").timer().count());
     }
-}
\ No newline at end of file
+}
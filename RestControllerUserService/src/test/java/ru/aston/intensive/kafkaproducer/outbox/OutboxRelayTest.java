@@ -0,0 +1,146 @@
+package ru.aston.intensive.kafkaproducer.outbox;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.aston.intensive.kafkaproducer.event.EventSender;
+import ru.aston.intensive.springrestuserservice.util.KafkaOperationException;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для класса OutboxRelay, отправляющего события из outbox-таблицы в Kafka.
+ */
+@ExtendWith(MockitoExtension.class)
+@TestPropertySource(locations = "/application-test.yaml")
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private EventSender eventSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() throws NoSuchFieldException, IllegalAccessException {
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        outboxRelay = new OutboxRelay(outboxEventRepository, eventSender, transactionManager, circuitBreakerRegistry);
+
+        Field batchSizeField = OutboxRelay.class.getDeclaredField("batchSize");
+        batchSizeField.setAccessible(true);
+        batchSizeField.setInt(outboxRelay, 2);
+    }
+
+    /**
+     * Проверяет, что полные порции отправляются подряд, а отправленные записи удаляются.
+     */
+    @Test
+    @DisplayName("Отправка событий порциями до опустошения таблицы")
+    @SuppressWarnings("unchecked")
+    void relay_shouldSendBatchesUntilTableIsDrained() {
+        OutboxEventEntity first = outboxEvent(1L, "first@example.com");
+        OutboxEventEntity second = outboxEvent(2L, "second@example.com");
+        OutboxEventEntity third = outboxEvent(3L, "third@example.com");
+        ArgumentCaptor<List<OutboxEventEntity>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+
+        when(outboxEventRepository.tryLockRelay()).thenReturn(true);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(first, second), List.of(third));
+
+        outboxRelay.relay();
+
+        verify(eventSender, times(2)).sendMessages(messagesCaptor.capture());
+        assertEquals(List.of(first, second), messagesCaptor.getAllValues().get(0));
+        assertEquals(List.of(third), messagesCaptor.getAllValues().get(1));
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    /**
+     * Проверяет, что при ошибке Kafka записи остаются в таблице для повторной отправки.
+     */
+    @Test
+    @DisplayName("Сохранение событий в outbox при ошибке Kafka")
+    void relay_whenKafkaFails_shouldKeepEvents() {
+        when(outboxEventRepository.tryLockRelay()).thenReturn(true);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(outboxEvent(1L, "first@example.com")));
+        doThrow(new KafkaOperationException("Kafka недоступна")).when(eventSender).sendMessages(anyList());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    /**
+     * Проверяет, что при открытом KafkaCircuitBreaker события остаются в outbox без обращения к таблице,
+     * а после закрытия CircuitBreaker отправляются.
+     */
+    @Test
+    @DisplayName("Отправка событий откладывается при открытом KafkaCircuitBreaker")
+    void relay_whenCircuitBreakerOpen_shouldSkipUntilClosed() {
+        CircuitBreaker kafkaCircuitBreaker = circuitBreakerRegistry.circuitBreaker("KafkaCircuitBreaker");
+        kafkaCircuitBreaker.transitionToOpenState();
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).lockNextBatch(anyInt());
+        verify(eventSender, never()).sendMessages(anyList());
+
+        kafkaCircuitBreaker.transitionToClosedState();
+        OutboxEventEntity first = outboxEvent(1L, "first@example.com");
+        when(outboxEventRepository.tryLockRelay()).thenReturn(true);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(first));
+
+        outboxRelay.relay();
+
+        verify(eventSender, times(1)).sendMessages(List.of(first));
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    /**
+     * Проверяет, что экземпляр, не получивший блокировку отправки, не читает таблицу и не отправляет события.
+     */
+    @Test
+    @DisplayName("Пропуск отправки, когда события отправляет другой экземпляр")
+    void relay_whenLockHeldByAnotherInstance_shouldSkip() {
+        when(outboxEventRepository.tryLockRelay()).thenReturn(false);
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).lockNextBatch(anyInt());
+        verify(eventSender, never()).sendMessages(anyList());
+    }
+
+    private OutboxEventEntity outboxEvent(Long id, String email) {
+        OutboxEventEntity outboxEvent = new OutboxEventEntity(id, email, "CREATED");
+        outboxEvent.setId(id);
+
+        return outboxEvent;
+    }
+}
@@ -9,6 +9,7 @@ import ru.aston.intensive.springrestuserservice.advice.GlobalExceptionHandler;
 import ru.aston.intensive.springrestuserservice.util.UserErrorResponse;
 import ru.aston.intensive.springrestuserservice.util.UserNotCreatedException;
 import ru.aston.intensive.springrestuserservice.util.UserNotFoundException;
+import ru.aston.intensive.springrestuserservice.util.UserVersionConflictException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -37,6 +38,24 @@ public class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody().getTimestamp(), "Временная метка не должна быть null");
     }
 
+    /**
+     * Тест проверяет обработку исключения UserVersionConflictException в GlobalExceptionHandler.
+     */
+    @Test
+    @DisplayName("Обработка UserVersionConflictException")
+    void testHandleUserVersionConflictException() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        UserVersionConflictException exception = new UserVersionConflictException();
+
+        ResponseEntity<UserErrorResponse> response = handler.handleException(exception);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode(), "Статус должен быть CONFLICT");
+        assertNotNull(response.getBody());
+
+        assertEquals("Пользователь изменён другим запросом",
+                response.getBody().getMessage(), "Сообщение должно быть дефолтным");
+    }
+
     /**
      * Тест проверяет обработку UserNotFoundException с null сообщением.
      */
@@ -6,34 +6,81 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventWriter;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
+import ru.aston.intensive.springrestuserservice.dto.UserChangeDto;
+import ru.aston.intensive.springrestuserservice.dto.UserChangesPage;
 import ru.aston.intensive.springrestuserservice.dto.UserDto;
+import ru.aston.intensive.springrestuserservice.dto.UserFieldsPage;
+import ru.aston.intensive.springrestuserservice.dto.UserMutationEvent;
+import ru.aston.intensive.springrestuserservice.dto.UserPlainDto;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
+import ru.aston.intensive.springrestuserservice.services.EmailBloomFilter;
+import ru.aston.intensive.springrestuserservice.services.IdempotencyStore;
+import ru.aston.intensive.springrestuserservice.services.UserChangeStream;
 import ru.aston.intensive.springrestuserservice.services.UserMapper;
+import ru.aston.intensive.springrestuserservice.services.UsersExportService;
 import ru.aston.intensive.springrestuserservice.services.UsersServiceCrudImpl;
+import ru.aston.intensive.springrestuserservice.util.UserBatchConflictException;
+import ru.aston.intensive.springrestuserservice.util.UserChangeCursor;
+import ru.aston.intensive.springrestuserservice.util.UserCursor;
+import ru.aston.intensive.springrestuserservice.util.UserETag;
+import ru.aston.intensive.springrestuserservice.util.UserExportFormat;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+import ru.aston.intensive.springrestuserservice.util.UserMergePatch;
 import ru.aston.intensive.springrestuserservice.util.UserNotFoundException;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCriteria;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCursor;
+import ru.aston.intensive.springrestuserservice.util.UserSortField;
+import ru.aston.intensive.springrestuserservice.util.UserVersionConflictException;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -43,7 +90,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @AutoConfigureMockMvc
 @TestPropertySource(properties = {
-        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration,org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration"
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration,org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+        "kafka.cacheInvalidation.enabled=false",
+        "users.outbox.relay.enabled=false"
 })
 public class UsersControllerTest {
 
@@ -53,9 +102,21 @@ public class UsersControllerTest {
     @MockitoBean
     private UsersServiceCrudImpl usersServiceImpl;
 
+    @MockitoBean
+    private UsersExportService usersExportService;
+
+    @MockitoBean
+    private EmailBloomFilter emailBloomFilter;
+
+    @MockitoBean
+    private OutboxEventWriter outboxEventWriter;
+
     @MockitoBean
     private UserMapper userMapper;
 
+    @Autowired
+    private UserChangeStream userChangeStream;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -70,7 +131,7 @@ public class UsersControllerTest {
         userDto.setAge(30);
         List<UserEntity> userEntities = List.of(userEntity);
 
-        when(usersServiceImpl.findAll()).thenReturn(userEntities);
+        when(usersServiceImpl.findPage(UserSortField.ID, null, 50)).thenReturn(userEntities);
         when(userMapper.toUserDto(userEntity)).thenReturn(userDto);
 
         mockMvc.perform(get("/users")
@@ -87,12 +148,235 @@ public class UsersControllerTest {
                 .andExpect(jsonPath("$._embedded.userDtoList[0]._links.update.href",
                         is("users/update/1")))
                 .andExpect(jsonPath("$._links.self.href", is("http://localhost/users")))
-                .andExpect(jsonPath("$._links.create.href", is("users/create")));
+                .andExpect(jsonPath("$._links.create.href", is("users/create")))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
 
-        verify(usersServiceImpl, times(1)).findAll();
+        verify(usersServiceImpl, times(1)).findPage(UserSortField.ID, null, 50);
         verify(userMapper, times(1)).toUserDto(userEntity);
     }
 
+    @Test
+    @DisplayName("Ссылки пользователей страницы строятся от адреса текущего запроса")
+    void testGetUsersLinksUseRequestBaseUri() throws Exception {
+        UserEntity first = new UserEntity("John Doe", "john@example.com", 30);
+        first.setId(1L);
+        UserEntity second = new UserEntity("Jane Doe", "jane@example.com", 25);
+        second.setId(2L);
+
+        when(usersServiceImpl.findPage(UserSortField.ID, null, 50)).thenReturn(List.of(first, second));
+        when(userMapper.toUserDto(any(UserEntity.class))).thenAnswer(invocation -> new UserDto());
+
+        mockMvc.perform(get("/users")
+                        .with(request -> {
+                            request.setServerName("api.example.com");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.userDtoList", hasSize(2)))
+                .andExpect(jsonPath("$._embedded.userDtoList[0]._links.self.href",
+                        is("http://api.example.com/users/1")))
+                .andExpect(jsonPath("$._embedded.userDtoList[1]._links.self.href",
+                        is("http://api.example.com/users/2")))
+                .andExpect(jsonPath("$._embedded.userDtoList[1]._links.users.href",
+                        is("http://api.example.com/users")))
+                .andExpect(jsonPath("$._links.self.href", is("http://api.example.com/users")));
+    }
+
+    @Test
+    @DisplayName("Получение заполненной страницы пользователей со ссылкой на следующую страницу")
+    void testGetUsersPageWithNextLink() throws Exception {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(7L);
+        UserDto userDto = new UserDto();
+        userDto.setName("John Doe");
+        userDto.setEmail("john@example.com");
+        userDto.setAge(30);
+        String nextCursor = UserCursor.of(UserSortField.NAME, userEntity).encode();
+
+        when(usersServiceImpl.findPage(UserSortField.NAME, null, 1)).thenReturn(List.of(userEntity));
+        when(userMapper.toUserDto(userEntity)).thenReturn(userDto);
+
+        mockMvc.perform(get("/users")
+                        .param("limit", "1")
+                        .param("sort", "name")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.userDtoList", hasSize(1)))
+                .andExpect(jsonPath("$._links.next.href",
+                        is("http://localhost/users?after=" + nextCursor + "&limit=1&sort=name")));
+
+        verify(usersServiceImpl, times(1)).findPage(UserSortField.NAME, null, 1);
+    }
+
+    @Test
+    @DisplayName("Получение страницы пользователей после курсора")
+    void testGetUsersPageAfterCursor() throws Exception {
+        when(usersServiceImpl.findPage(eq(UserSortField.ID), any(UserCursor.class), eq(50))).thenReturn(List.of());
+
+        mockMvc.perform(get("/users")
+                        .param("after", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded").doesNotExist());
+
+        verify(usersServiceImpl, times(1)).findPage(eq(UserSortField.ID),
+                argThat(cursor -> cursor.getId() == 10L), eq(50));
+    }
+
+    @Test
+    @DisplayName("Получение страницы пользователей без ссылок")
+    void testGetUsersWithoutLinks() throws Exception {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(1L);
+        UserPlainDto userPlainDto = new UserPlainDto();
+        userPlainDto.setId(1L);
+        userPlainDto.setName("John Doe");
+        userPlainDto.setEmail("john@example.com");
+        userPlainDto.setAge(30);
+        String nextCursor = UserCursor.of(UserSortField.ID, userEntity).encode();
+
+        when(usersServiceImpl.findPage(UserSortField.ID, null, 1)).thenReturn(List.of(userEntity));
+        when(userMapper.toUserPlainDto(userEntity)).thenReturn(userPlainDto);
+
+        mockMvc.perform(get("/users")
+                        .param("links", "false")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UsersController.NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].name", is("John Doe")))
+                .andExpect(jsonPath("$[0]._links").doesNotExist())
+                .andExpect(jsonPath("$._links").doesNotExist());
+
+        verify(userMapper, never()).toUserDto(any());
+    }
+
+    @Test
+    @DisplayName("Получение нескольких пользователей по списку Id")
+    void testGetUsersByIds() throws Exception {
+        UserEntity john = new UserEntity("John Doe", "john@example.com", 30);
+        john.setId(2L);
+        UserEntity jane = new UserEntity("Jane Doe", "jane@example.com", 25);
+        jane.setId(1L);
+        UserPlainDto johnDto = new UserPlainDto();
+        johnDto.setId(2L);
+        johnDto.setName("John Doe");
+        UserPlainDto janeDto = new UserPlainDto();
+        janeDto.setId(1L);
+        janeDto.setName("Jane Doe");
+
+        Map<Long, UserEntity> foundUsers = new LinkedHashMap<>();
+        foundUsers.put(2L, john);
+        foundUsers.put(1L, jane);
+
+        when(usersServiceImpl.findAllByIds(List.of(2L, 42L, 1L))).thenReturn(foundUsers);
+        when(userMapper.toUserPlainDto(john)).thenReturn(johnDto);
+        when(userMapper.toUserPlainDto(jane)).thenReturn(janeDto);
+
+        mockMvc.perform(get("/users")
+                        .param("ids", "2,42,1")
+                        .param("links", "false")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(2)))
+                .andExpect(jsonPath("$.users[0].id", is(2)))
+                .andExpect(jsonPath("$.users[1].id", is(1)))
+                .andExpect(jsonPath("$.missingIds", hasSize(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(42)));
+
+        verify(usersServiceImpl, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Получение изменений пользователей после курсора")
+    void testGetUserChanges() throws Exception {
+        LocalDateTime changedAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+        String since = UserChangeCursor.of(changedAt.minusHours(1), 1L).encode();
+        List<UserChangeDto> changes = List.of(
+                UserChangeDto.upserted(2L, changedAt, "John Doe", "john@example.com", 30),
+                UserChangeDto.deleted(3L, changedAt.plusMinutes(1)));
+
+        when(usersServiceImpl.findChanges(argThat(cursor -> cursor.getId() == 1L), eq(100)))
+                .thenReturn(new UserChangesPage(changes, "next-cursor", false));
+
+        mockMvc.perform(get("/users/changes")
+                        .param("since", since)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].id", is(2)))
+                .andExpect(jsonPath("$.changes[0].deleted", is(false)))
+                .andExpect(jsonPath("$.changes[0].email", is("john@example.com")))
+                .andExpect(jsonPath("$.changes[1].id", is(3)))
+                .andExpect(jsonPath("$.changes[1].deleted", is(true)))
+                .andExpect(jsonPath("$.changes[1].email").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor", is("next-cursor")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    @DisplayName("Обработка ошибки при повреждённом курсоре ленты изменений")
+    void testGetUserChangesWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/users/changes")
+                        .param("since", "broken")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(usersServiceImpl, never()).findChanges(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Получение страницы пользователей с выбранными полями")
+    void testGetUsersWithFields() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("email", "john@example.com");
+
+        when(usersServiceImpl.findPageFields(EnumSet.of(UserField.ID, UserField.EMAIL), UserSortField.ID, null, 1))
+                .thenReturn(new UserFieldsPage(List.of(row), "next-cursor"));
+
+        mockMvc.perform(get("/users")
+                        .param("fields", "email,id")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UsersController.NEXT_CURSOR_HEADER, "next-cursor"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].email", is("john@example.com")))
+                .andExpect(jsonPath("$[0].name").doesNotExist())
+                .andExpect(jsonPath("$[0]._links").doesNotExist());
+
+        verify(usersServiceImpl, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Обработка ошибки при неизвестном поле в списке полей")
+    void testGetUsersWithUnknownField() throws Exception {
+        mockMvc.perform(get("/users")
+                        .param("fields", "id,password")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("password")));
+
+        verify(usersServiceImpl, never()).findPageFields(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Обработка ошибки при неподдерживаемом поле сортировки")
+    void testGetUsersWithUnsupportedSort() throws Exception {
+        mockMvc.perform(get("/users")
+                        .param("sort", "email")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("email")));
+
+        verify(usersServiceImpl, never()).findPage(any(), any(), anyInt());
+    }
+
     @Test
     @DisplayName("Получение пользователя по идентификатору")
     void testGetUserById() throws Exception {
@@ -109,6 +393,7 @@ public class UsersControllerTest {
         mockMvc.perform(get("/users/1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
                 .andExpect(jsonPath("$.name", is("John Doe")))
                 .andExpect(jsonPath("$.email", is("john@example.com")))
                 .andExpect(jsonPath("$.age", is(30)))
@@ -121,6 +406,129 @@ public class UsersControllerTest {
         verify(userMapper, times(1)).toUserDto(userEntity);
     }
 
+    @Test
+    @DisplayName("Получение неизменившегося пользователя с If-None-Match возвращает 304 без тела")
+    void testGetUserNotModified() throws Exception {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(1L);
+        userEntity.setUpdated_at(LocalDateTime.of(2025, 1, 15, 10, 30, 45));
+        ReflectionTestUtils.setField(userEntity, "version", 5L);
+
+        when(usersServiceImpl.findOne(1L)).thenReturn(userEntity);
+
+        mockMvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().string(""));
+
+        verify(userMapper, never()).toUserDto(any());
+    }
+
+    @Test
+    @DisplayName("Получение неизменившегося списка пользователей с If-Modified-Since возвращает 304")
+    void testGetUsersNotModifiedSince() throws Exception {
+        LocalDateTime lastChangedAt = LocalDateTime.of(2025, 1, 15, 10, 30, 45);
+        when(usersServiceImpl.findLastChangedAt()).thenReturn(lastChangedAt);
+
+        mockMvc.perform(get("/users")
+                        .param("links", "false")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, UserETag.lastModified(lastChangedAt)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, UserETag.ofLastChange(lastChangedAt)));
+
+        verify(usersServiceImpl, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Получение изменившегося списка пользователей с If-None-Match возвращает страницу")
+    void testGetUsersModified() throws Exception {
+        LocalDateTime lastChangedAt = LocalDateTime.of(2025, 1, 15, 10, 30, 45);
+        when(usersServiceImpl.findLastChangedAt()).thenReturn(lastChangedAt);
+        when(usersServiceImpl.findPage(UserSortField.ID, null, 50)).thenReturn(List.of());
+
+        mockMvc.perform(get("/users")
+                        .param("links", "false")
+                        .header(HttpHeaders.IF_NONE_MATCH, UserETag.ofLastChange(lastChangedAt.minusSeconds(1))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, UserETag.ofLastChange(lastChangedAt)))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Поиск пользователей возвращает страницу и курсор следующей страницы")
+    void testSearchUsers() throws Exception {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(7L);
+        UserPlainDto userPlainDto = new UserPlainDto();
+        userPlainDto.setId(7L);
+        userPlainDto.setEmail("john@example.com");
+
+        when(usersServiceImpl.search(any(UserSearchCriteria.class), isNull(), eq(1))).thenReturn(List.of(userEntity));
+        when(userMapper.toUserPlainDto(userEntity)).thenReturn(userPlainDto);
+
+        mockMvc.perform(get("/users/search")
+                        .param("emailDomain", "Example.com")
+                        .param("minAge", "18")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(7)))
+                .andExpect(header().string(UsersController.NEXT_CURSOR_HEADER,
+                        UserSearchCursor.of(UserSearchCriteria.Order.EMAIL_DOMAIN, userEntity).encode()));
+
+        verify(usersServiceImpl, times(1)).search(argThat(criteria ->
+                "example.com".equals(criteria.getEmailDomain()) && criteria.getMinAge() == 18), isNull(), eq(1));
+    }
+
+    @Test
+    @DisplayName("Поиск пользователей без условий возвращает 400")
+    void testSearchUsersWithoutCriteria() throws Exception {
+        mockMvc.perform(get("/users/search"))
+                .andExpect(status().isBadRequest());
+
+        verify(usersServiceImpl, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Получение пользователя по идентификатору без ссылок")
+    void testGetUserByIdWithoutLinks() throws Exception {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(1L);
+        UserPlainDto userPlainDto = new UserPlainDto();
+        userPlainDto.setId(1L);
+        userPlainDto.setEmail("john@example.com");
+
+        when(usersServiceImpl.findOne(1L)).thenReturn(userEntity);
+        when(userMapper.toUserPlainDto(userEntity)).thenReturn(userPlainDto);
+
+        mockMvc.perform(get("/users/1")
+                        .param("links", "false")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.email", is("john@example.com")))
+                .andExpect(jsonPath("$._links").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Получение выбранных полей пользователя по идентификатору")
+    void testGetUserByIdWithFields() throws Exception {
+        when(usersServiceImpl.findOneFields(EnumSet.of(UserField.EMAIL), 1L))
+                .thenReturn(Map.of("email", "john@example.com"));
+
+        mockMvc.perform(get("/users/1")
+                        .param("fields", "email")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is("john@example.com")))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andExpect(jsonPath("$._links").doesNotExist());
+
+        verify(usersServiceImpl, never()).findOne(any());
+    }
+
     @Test
     @DisplayName("Обработка ошибки при получении несуществующего пользователя")
     void testGetUserByIdWhenNotFound() throws Exception {
@@ -164,6 +572,40 @@ public class UsersControllerTest {
         verify(userMapper, times(1)).toUserDto(userEntity);
     }
 
+    @Test
+    @DisplayName("Повторное создание пользователя с тем же ключом идемпотентности")
+    void testCreateUserWithIdempotencyKey() throws Exception {
+        UserDto userDto = new UserDto();
+        userDto.setName("John Doe");
+        userDto.setEmail("john@example.com");
+        userDto.setAge(30);
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(1L);
+
+        when(userMapper.toUserEntity(any(UserDto.class))).thenReturn(userEntity);
+        when(usersServiceImpl.save(userEntity)).thenReturn(userEntity);
+        when(userMapper.toUserDto(userEntity)).thenReturn(userDto);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/users/create")
+                            .header(IdempotencyStore.IDEMPOTENCY_KEY_HEADER, "create-john")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(userDto)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.email", is("john@example.com")));
+        }
+
+        userDto.setEmail("other@example.com");
+
+        mockMvc.perform(post("/users/create")
+                        .header(IdempotencyStore.IDEMPOTENCY_KEY_HEADER, "create-john")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isBadRequest());
+
+        verify(usersServiceImpl, times(1)).save(userEntity);
+    }
+
     @Test
     @DisplayName("Обработка ошибок валидации при создании пользователя")
     void testCreateUserWithInvalidData() throws Exception {
@@ -185,6 +627,74 @@ public class UsersControllerTest {
         verify(userMapper, never()).toUserDto(any());
     }
 
+    @Test
+    @DisplayName("Пакетное создание пользователей с невалидным элементом")
+    void testCreateUsersBatch() throws Exception {
+        UserDto validDto = new UserDto();
+        validDto.setName("John Doe");
+        validDto.setEmail("john@example.com");
+        validDto.setAge(30);
+        UserDto invalidDto = new UserDto();
+        invalidDto.setName("John123");
+        invalidDto.setEmail("jane@example.com");
+        invalidDto.setAge(20);
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+
+        when(userMapper.toUserEntity(any(UserDto.class))).thenReturn(userEntity);
+        when(usersServiceImpl.saveAll(List.of(userEntity)))
+                .thenReturn(List.of(UserBatchItemResult.created(0, 5L, "john@example.com")));
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(invalidDto, validDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].status", is("INVALID")))
+                .andExpect(jsonPath("$[0].message", containsString("Имя не должно содержать цифры")))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].id", is(5)));
+
+        verify(userMapper, times(1)).toUserEntity(any(UserDto.class));
+        verify(usersServiceImpl, times(1)).saveAll(List.of(userEntity));
+    }
+
+    @Test
+    @DisplayName("Повтор пакетного создания после email, пропущенного фильтром Блума")
+    void testCreateUsersBatchRetriesAfterConflict() throws Exception {
+        UserDto userDto = new UserDto();
+        userDto.setName("John Doe");
+        userDto.setEmail("john@example.com");
+        userDto.setAge(30);
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+
+        when(userMapper.toUserEntity(any(UserDto.class))).thenReturn(userEntity);
+        when(usersServiceImpl.saveAll(List.of(userEntity)))
+                .thenThrow(new UserBatchConflictException())
+                .thenReturn(List.of(UserBatchItemResult.duplicate(0, "john@example.com")));
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(userDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status", is("DUPLICATE")));
+
+        verify(usersServiceImpl, times(2)).saveAll(List.of(userEntity));
+    }
+
+    @Test
+    @DisplayName("Обработка ошибки при пустом пакете пользователей")
+    void testCreateUsersEmptyBatch() throws Exception {
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(usersServiceImpl, never()).saveAll(any());
+    }
+
     @Test
     @DisplayName("Обновление данных пользователя")
     void testUpdateUser() throws Exception {
@@ -215,10 +725,130 @@ public class UsersControllerTest {
         verify(userMapper, times(1)).toUserDto(updatedUserEntity);
     }
 
+    @Test
+    @DisplayName("Обновление пользователя с If-Match выполняется условно и возвращает новую версию")
+    void testUpdateUserWithIfMatch() throws Exception {
+        UserDto userDto = new UserDto();
+        userDto.setName("Jane Doe");
+        userDto.setEmail("jane@example.com");
+        userDto.setAge(25);
+        UserEntity updatedUserEntity = new UserEntity("Jane Doe", "jane@example.com", 25);
+        updatedUserEntity.setId(1L);
+        ReflectionTestUtils.setField(updatedUserEntity, "version", 4L);
+
+        when(userMapper.toUserEntity(any(UserDto.class))).thenReturn(updatedUserEntity);
+        when(usersServiceImpl.update(eq(1L), any(UserEntity.class), eq(3L))).thenReturn(updatedUserEntity);
+        when(userMapper.toUserDto(updatedUserEntity)).thenReturn(userDto);
+
+        mockMvc.perform(put("/users/update/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.name", is("Jane Doe")));
+
+        verify(usersServiceImpl, times(1)).update(eq(1L), any(UserEntity.class), eq(3L));
+        verify(usersServiceImpl, never()).update(eq(1L), any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Обновление пользователя с устаревшим If-Match возвращает 409")
+    void testUpdateUserWithStaleIfMatch() throws Exception {
+        UserDto userDto = new UserDto();
+        userDto.setName("Jane Doe");
+        userDto.setEmail("jane@example.com");
+        userDto.setAge(25);
+        UserEntity userEntity = new UserEntity("Jane Doe", "jane@example.com", 25);
+
+        when(userMapper.toUserEntity(any(UserDto.class))).thenReturn(userEntity);
+        doThrow(new UserVersionConflictException("Пользователь изменён другим запросом"))
+                .when(usersServiceImpl).update(eq(1L), any(UserEntity.class), eq(2L));
+
+        mockMvc.perform(put("/users/update/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Пользователь изменён другим запросом")));
+
+        verify(userMapper, never()).toUserDto(any());
+    }
+
+    @Test
+    @DisplayName("Обновление пользователя с некорректным If-Match возвращает 400")
+    void testUpdateUserWithInvalidIfMatch() throws Exception {
+        UserDto userDto = new UserDto();
+        userDto.setName("Jane Doe");
+        userDto.setEmail("jane@example.com");
+        userDto.setAge(25);
+
+        mockMvc.perform(put("/users/update/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isBadRequest());
+
+        verify(usersServiceImpl, never()).update(any(), any());
+        verify(usersServiceImpl, never()).update(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Частичное обновление пользователя передаёт в сервис только изменённые поля")
+    void testPatchUser() throws Exception {
+        UserEntity patchedUserEntity = new UserEntity("Jane Doe", "jane@example.com", 26);
+        patchedUserEntity.setId(1L);
+        ReflectionTestUtils.setField(patchedUserEntity, "version", 2L);
+        UserDto userDto = new UserDto();
+        userDto.setName("Jane Doe");
+        userDto.setEmail("jane@example.com");
+        userDto.setAge(26);
+
+        when(usersServiceImpl.patch(eq(1L), any(UserMergePatch.class), eq(1L))).thenReturn(patchedUserEntity);
+        when(userMapper.toUserDto(patchedUserEntity)).thenReturn(userDto);
+
+        mockMvc.perform(patch("/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(UserMergePatch.MEDIA_TYPE)
+                        .content("{\"age\": 26}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.age", is(26)))
+                .andExpect(jsonPath("$._links.self.href", is("http://localhost/users/1")));
+
+        verify(usersServiceImpl, times(1)).patch(eq(1L),
+                argThat(mergePatch -> mergePatch.getChanges().equals(Map.of(UserField.AGE, 26))), eq(1L));
+    }
+
+    @Test
+    @DisplayName("Частичное обновление с некорректным значением поля возвращает 400")
+    void testPatchUserWithInvalidValue() throws Exception {
+        mockMvc.perform(patch("/users/1")
+                        .contentType(UserMergePatch.MEDIA_TYPE)
+                        .content("{\"age\": 200}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("age")));
+
+        verify(usersServiceImpl, never()).patch(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Частичное обновление неизменяемого поля возвращает 400")
+    void testPatchUserWithReadOnlyField() throws Exception {
+        mockMvc.perform(patch("/users/1")
+                        .contentType(UserMergePatch.MEDIA_TYPE)
+                        .content("{\"created_at\": \"2025-01-01T00:00:00\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(usersServiceImpl, never()).patch(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Удаление пользователя по идентификатору")
     void testDeleteUser() throws Exception {
-        doNothing().when(usersServiceImpl).delete(1L);
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(1L);
+        when(usersServiceImpl.delete(1L)).thenReturn(userEntity);
 
         mockMvc.perform(delete("/users/delete/1")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -292,7 +922,7 @@ public class UsersControllerTest {
     @Test
     @DisplayName("Получение пустого списка пользователей")
     void testGetAllUsersWhenEmptyList() throws Exception {
-        when(usersServiceImpl.findAll()).thenReturn(List.of());
+        when(usersServiceImpl.findPage(UserSortField.ID, null, 50)).thenReturn(List.of());
 
         mockMvc.perform(get("/users")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -301,7 +931,7 @@ public class UsersControllerTest {
                 .andExpect(jsonPath("$._links.self.href", is("http://localhost/users")))
                 .andExpect(jsonPath("$._links.create.href", is("users/create")));
 
-        verify(usersServiceImpl, times(1)).findAll();
+        verify(usersServiceImpl, times(1)).findPage(UserSortField.ID, null, 50);
         verify(userMapper, never()).toUserDto(any());
     }
 
@@ -333,4 +963,106 @@ public class UsersControllerTest {
         verify(usersServiceImpl, times(1)).save(userEntity);
         verify(userMapper, times(1)).toUserDto(userEntity);
     }
+
+    @Test
+    @DisplayName("Потоковая выгрузка пользователей в формате CSV")
+    void testExportUsersCsv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("id,name\n1,John Doe\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(usersExportService).exportAll(eq(UserExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/users/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/csv")))
+                .andExpect(content().string("id,name\n1,John Doe\n"));
+
+        verify(usersExportService, times(1)).exportAll(eq(UserExportFormat.CSV), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Потоковая выгрузка пользователей со сжатием gzip")
+    void testExportUsersGzip() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(usersExportService).exportAll(eq(UserExportFormat.NDJSON), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/users/export").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"id\":1}\n", new String(gzipInputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Обработка ошибки при неподдерживаемом формате выгрузки")
+    void testExportUsersWithUnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(usersExportService, never()).exportAll(any(), any());
+    }
+
+    @Test
+    @DisplayName("Получение событий изменения пользователей через SSE и возобновление потока")
+    void testStreamUserChanges() throws Exception {
+        MvcResult subscription = mockMvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        userChangeStream.publish(new UserMutationEvent(1L, "CREATED", "john@example.com"));
+        String content = awaitStreamContent(subscription, "event:CREATED");
+
+        assertTrue(content.contains("\"userId\":1"));
+        Matcher eventId = Pattern.compile("id:(\\S+)").matcher(content);
+        assertTrue(eventId.find());
+
+        userChangeStream.publish(new UserMutationEvent(1L, "DELETED", "john@example.com"));
+
+        MvcResult resumed = mockMvc.perform(get("/users/stream").header("Last-Event-ID", eventId.group(1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String resumedContent = awaitStreamContent(resumed, "event:DELETED");
+
+        assertFalse(resumedContent.contains("event:CREATED"));
+    }
+
+    @Test
+    @DisplayName("Получение события RESET при возобновлении с неизвестного события")
+    void testStreamUserChangesWithUnknownLastEventId() throws Exception {
+        MvcResult subscription = mockMvc.perform(get("/users/stream").header("Last-Event-ID", "unknown-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        awaitStreamContent(subscription, "event:" + UserChangeStream.RESET_EVENT);
+    }
+
+    private String awaitStreamContent(MvcResult mvcResult, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = mvcResult.getResponse().getContentAsString();
+
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = mvcResult.getResponse().getContentAsString();
+        }
+
+        assertTrue(content.contains(expected), "Ожидалось событие " + expected + " в потоке: " + content);
+
+        return content;
+    }
 }
@@ -6,19 +6,34 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.aston.intensive.springrestuserservice.dto.UserChangeDto;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
-
+import ru.aston.intensive.springrestuserservice.util.UserChangeCursor;
+import ru.aston.intensive.springrestuserservice.util.UserCursor;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCriteria;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCursor;
+import ru.aston.intensive.springrestuserservice.util.UserSortField;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -51,6 +66,9 @@ public class UsersRepositoryTest {
     @Autowired
     private UsersRepository usersRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     /**
      * Очищает базу данных перед каждым тестом.
      */
@@ -159,19 +177,6 @@ public class UsersRepositoryTest {
                 user.getAge() == 25), "Пользователь Jane Smith должен быть в списке");
     }
 
-    /**
-     * Проверяет метод existsByEmail для существующего и несуществующего email.
-     */
-    @Test
-    @DisplayName("Проверка существования пользователя по email")
-    void testExistsByEmail() {
-        UserEntity user = new UserEntity("John Doe", "john@example.com", 30);
-        usersRepository.save(user);
-
-        assertTrue(usersRepository.existsByEmail("john@example.com"), "Пользователь с email 'john@example.com' должен существовать");
-        assertFalse(usersRepository.existsByEmail("nonexistent@example.com"), "Пользователь с email 'nonexistent@example.com' не должен существовать");
-    }
-
     /**
      * Проверяет удаление пользователя по идентификатору.
      */
@@ -197,4 +202,222 @@ public class UsersRepositoryTest {
         assertFalse(foundUser.isPresent(), "Пользователь с несуществующим ID не должен быть найден");
     }
 
-}
\ No newline at end of file
+    /**
+     * Проверяет выборку отдельных полей страницы с сортировкой по имени и переходом по курсору.
+     */
+    @Test
+    @DisplayName("Проверка выборки отдельных полей страницы пользователей")
+    void testFindPageProjection() {
+        usersRepository.save(new UserEntity("Bob", "bob@example.com", 30));
+        usersRepository.save(new UserEntity("Alice", "alice@example.com", 25));
+        usersRepository.save(new UserEntity("Carol", "carol@example.com", 40));
+
+        List<Map<String, Object>> firstPage = usersRepository.findPageProjection(
+                EnumSet.of(UserField.EMAIL), UserSortField.NAME, null, 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(Set.of("email", "id", "name"), firstPage.get(0).keySet(),
+                "Строка должна содержать запрошенное поле, id и поле сортировки");
+        assertEquals("alice@example.com", firstPage.get(0).get("email"));
+        assertEquals("bob@example.com", firstPage.get(1).get("email"));
+
+        Map<String, Object> last = firstPage.get(1);
+        UserCursor cursor = UserCursor.of(UserSortField.NAME, (Long) last.get("id"), last.get("name"));
+        List<Map<String, Object>> secondPage = usersRepository.findPageProjection(
+                EnumSet.of(UserField.EMAIL), UserSortField.NAME, cursor, 2);
+
+        assertEquals(1, secondPage.size());
+        assertEquals("carol@example.com", secondPage.get(0).get("email"));
+    }
+
+    /**
+     * Проверяет переход по курсору при выборке отдельных полей с сортировкой по времени создания,
+     * когда граница страницы приходится на пользователей с одинаковым временем создания.
+     */
+    @Test
+    @DisplayName("Проверка второй страницы выборки отдельных полей по времени создания")
+    void testFindPageProjectionByCreatedAtAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.MICROS);
+
+        UserEntity first = new UserEntity("Alice", "alice@example.com", 25);
+        first.setCreated_at(createdAt);
+        UserEntity second = new UserEntity("Bob", "bob@example.com", 30);
+        second.setCreated_at(createdAt);
+        UserEntity third = new UserEntity("Carol", "carol@example.com", 40);
+        third.setCreated_at(createdAt);
+        UserEntity fourth = new UserEntity("Dave", "dave@example.com", 35);
+        fourth.setCreated_at(createdAt.plusMinutes(1));
+        UserEntity earlier = new UserEntity("Eve", "eve@example.com", 20);
+        earlier.setCreated_at(createdAt.minusMinutes(1));
+        usersRepository.saveAll(List.of(first, second, third, fourth, earlier));
+
+        List<Map<String, Object>> firstPage = usersRepository.findPageProjection(
+                EnumSet.of(UserField.EMAIL), UserSortField.CREATED_AT, null, 3);
+
+        assertEquals(List.of("eve@example.com", "alice@example.com", "bob@example.com"),
+                firstPage.stream().map(row -> row.get("email")).toList());
+
+        Map<String, Object> last = firstPage.get(2);
+        UserCursor cursor = UserCursor.of(UserSortField.CREATED_AT, (Long) last.get("id"), last.get("created_at"));
+        List<Map<String, Object>> secondPage = usersRepository.findPageProjection(
+                EnumSet.of(UserField.EMAIL), UserSortField.CREATED_AT, cursor, 3);
+
+        assertEquals(List.of("carol@example.com", "dave@example.com"),
+                secondPage.stream().map(row -> row.get("email")).toList(),
+                "Вторая страница должна начинаться с пользователя с тем же временем создания и большим id");
+    }
+
+    /**
+     * Проверяет выборку отдельных полей пользователя по идентификатору.
+     */
+    @Test
+    @DisplayName("Проверка выборки отдельных полей пользователя по ID")
+    void testFindProjectionById() {
+        UserEntity savedUser = usersRepository.save(new UserEntity("John Doe", "john@example.com", 30));
+
+        Optional<Map<String, Object>> row = usersRepository.findProjectionById(
+                EnumSet.of(UserField.ID, UserField.EMAIL), savedUser.getId());
+
+        assertTrue(row.isPresent());
+        assertEquals(Map.of("id", savedUser.getId(), "email", "john@example.com"), row.get());
+        assertFalse(usersRepository.findProjectionById(EnumSet.of(UserField.ID), 999L).isPresent());
+    }
+
+    /**
+     * Проверяет, что лента изменений содержит изменённых пользователей и отметки об удалении
+     * в порядке времени изменения и продолжается с курсора.
+     */
+    @Test
+    @DisplayName("Проверка выборки ленты изменений с отметками об удалении")
+    void testFindChanges() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        UserEntity john = new UserEntity("John Doe", "john@example.com", 30);
+        john.setUpdated_at(now.minusMinutes(3));
+        UserEntity jane = new UserEntity("Jane Doe", "jane@example.com", 25);
+        jane.setUpdated_at(now.minusMinutes(2));
+        usersRepository.saveAndFlush(john);
+        usersRepository.saveAndFlush(jane);
+
+        assertTrue(usersRepository.deleteReturning(john.getId(), now.minusMinutes(1)).isPresent());
+
+        List<UserChangeDto> changes = usersRepository.findChanges(null, now, 10);
+
+        assertEquals(2, changes.size());
+        assertEquals(jane.getId(), changes.get(0).getId());
+        assertEquals("jane@example.com", changes.get(0).getEmail());
+        assertFalse(changes.get(0).isDeleted());
+        assertEquals(john.getId(), changes.get(1).getId());
+        assertTrue(changes.get(1).isDeleted());
+        assertEquals(now.minusMinutes(1), changes.get(1).getChangedAt());
+
+        UserChangeCursor cursor = UserChangeCursor.of(changes.get(0).getChangedAt(), changes.get(0).getId());
+
+        assertEquals(List.of(john.getId()),
+                usersRepository.findChanges(cursor, now, 10).stream().map(UserChangeDto::getId).toList());
+        assertTrue(usersRepository.findChanges(null, now.minusMinutes(5), 10).isEmpty());
+    }
+
+    /**
+     * Проверяет, что условное обновление изменяет пользователя только при совпадении версии
+     * и увеличивает версию записи.
+     */
+    @Test
+    @DisplayName("Проверка условного обновления пользователя по версии")
+    void testUpdateReturningIfVersion() {
+        UserEntity john = usersRepository.saveAndFlush(new UserEntity("John Doe", "john@example.com", 30));
+        long version = john.getVersion();
+        entityManager.clear();
+
+        Optional<UserEntity> updated = usersRepository.updateReturningIfVersion(john.getId(), version,
+                "John Smith", "john@example.com", "john@example.com", 31, LocalDateTime.now());
+
+        assertTrue(updated.isPresent());
+        assertEquals("John Smith", updated.get().getName());
+        assertEquals(version + 1, updated.get().getVersion());
+        entityManager.clear();
+
+        assertTrue(usersRepository.updateReturningIfVersion(john.getId(), version,
+                "John Brown", "john@example.com", "john@example.com", 32, LocalDateTime.now()).isEmpty());
+        assertEquals("John Smith", usersRepository.findById(john.getId()).orElseThrow().getName());
+    }
+
+    /**
+     * Проверяет, что частичное обновление изменяет только переданные поля и увеличивает версию записи.
+     */
+    @Test
+    @DisplayName("Проверка частичного обновления пользователя")
+    void testPatchReturning() {
+        UserEntity john = usersRepository.saveAndFlush(new UserEntity("John Doe", "John@Example.com", 30));
+        long version = john.getVersion();
+        entityManager.clear();
+
+        Optional<UserEntity> patched = usersRepository.patchReturning(john.getId(),
+                Map.of(UserField.AGE, 31), LocalDateTime.now(), null);
+
+        assertTrue(patched.isPresent());
+        assertEquals(31, patched.get().getAge());
+        assertEquals("John Doe", patched.get().getName());
+        assertEquals("john@example.com", patched.get().getEmailNormalized());
+        assertEquals(version + 1, patched.get().getVersion());
+        entityManager.clear();
+
+        patched = usersRepository.patchReturning(john.getId(),
+                Map.of(UserField.EMAIL, "Johnny@Example.com"), LocalDateTime.now(), version + 1);
+
+        assertTrue(patched.isPresent());
+        assertEquals("johnny@example.com", patched.get().getEmailNormalized());
+        assertEquals(31, patched.get().getAge());
+    }
+
+    /**
+     * Проверяет, что время последнего изменения учитывает и обновления, и удаления пользователей.
+     */
+    @Test
+    @DisplayName("Проверка времени последнего изменения пользователей")
+    void testFindLastChangedAt() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        assertNull(usersRepository.findLastChangedAt(now));
+
+        UserEntity john = new UserEntity("John Doe", "john@example.com", 30);
+        john.setUpdated_at(now.minusMinutes(2));
+        usersRepository.saveAndFlush(john);
+
+        assertEquals(now.minusMinutes(2), usersRepository.findLastChangedAt(now));
+        assertNull(usersRepository.findLastChangedAt(now.minusMinutes(3)));
+
+        assertTrue(usersRepository.deleteReturning(john.getId(), now.minusMinutes(1)).isPresent());
+
+        assertEquals(now.minusMinutes(1), usersRepository.findLastChangedAt(now));
+        assertNull(usersRepository.findLastChangedAt(now.minusSeconds(90)));
+    }
+
+    /**
+     * Проверяет поиск по префиксу имени без учёта регистра, домену email и диапазону возраста
+     * и продолжение выдачи с курсора.
+     */
+    @Test
+    @DisplayName("Проверка поиска пользователей по имени, домену email и возрасту")
+    void testSearch() {
+        usersRepository.saveAndFlush(new UserEntity("John Doe", "john@example.com", 30));
+        usersRepository.saveAndFlush(new UserEntity("johnny Cash", "johnny@mail.com", 45));
+        usersRepository.saveAndFlush(new UserEntity("Jane Doe", "Jane@Example.com", 25));
+        entityManager.clear();
+
+        List<UserEntity> byName = usersRepository.search(UserSearchCriteria.of("JOHN", null, null, null), null, 1);
+
+        assertEquals(List.of("John Doe"), byName.stream().map(UserEntity::getName).toList());
+
+        UserSearchCursor cursor = UserSearchCursor.of(UserSearchCriteria.Order.NAME, byName.get(0));
+
+        assertEquals(List.of("johnny Cash"), usersRepository.search(
+                UserSearchCriteria.of("JOHN", null, null, null), cursor, 10).stream().map(UserEntity::getName).toList());
+        assertEquals(List.of("Jane Doe", "John Doe"), usersRepository.search(
+                UserSearchCriteria.of(null, "EXAMPLE.com", null, null), null, 10)
+                .stream().map(UserEntity::getName).sorted().toList());
+        assertEquals(List.of("Jane Doe", "John Doe"), usersRepository.search(
+                UserSearchCriteria.of(null, null, 20, 40), null, 10).stream().map(UserEntity::getName).toList());
+        assertEquals(List.of("John Doe"), usersRepository.search(
+                UserSearchCriteria.of("j", "example.com", 26, null), null, 10).stream().map(UserEntity::getName).toList());
+    }
+}
@@ -0,0 +1,97 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для проверки фильтра Блума email {@link EmailBloomFilter}.
+ */
+@ExtendWith(MockitoExtension.class)
+@TestPropertySource(locations = "/application-test.yaml")
+public class EmailBloomFilterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailBloomFilter emailBloomFilter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        emailBloomFilter = new EmailBloomFilter(jdbcTemplate, transactionManager);
+        setField("expectedInsertions", 1000L);
+        setField("falsePositiveProbability", 0.01);
+        setField("fetchSize", 100);
+    }
+
+    /**
+     * Проверяет, что до построения фильтр отправляет все проверки в базу данных.
+     */
+    @Test
+    @DisplayName("Фильтр до построения не исключает ни один email")
+    void testMightContainBeforeBuild() {
+        assertTrue(emailBloomFilter.mightContain("free@example.com"));
+        assertFalse((Boolean) emailBloomFilter.getStats().get("ready"));
+    }
+
+    /**
+     * Проверяет построение фильтра потоковым чтением таблицы и его пополнение.
+     */
+    @Test
+    @DisplayName("Построение и пополнение фильтра")
+    void testRebuildAndPut() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("john@example.com", "jane@example.com");
+        when(jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class)).thenReturn(2L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        emailBloomFilter.rebuild();
+
+        assertTrue(emailBloomFilter.mightContain("john@example.com"));
+        assertTrue(emailBloomFilter.mightContain(" Jane@Example.com"));
+        assertFalse(emailBloomFilter.mightContain("new@example.com"));
+
+        emailBloomFilter.put("New@example.com");
+
+        assertTrue(emailBloomFilter.mightContain("new@example.com"));
+
+        Map<String, Object> stats = emailBloomFilter.getStats();
+        assertTrue((Boolean) stats.get("ready"));
+        assertEquals(3L, stats.get("insertions"));
+        assertEquals(1L, stats.get("definiteNegatives"));
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = EmailBloomFilter.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(emailBloomFilter, value);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тестовый класс для проверки хранилища ответов {@link IdempotencyStore}.
+ */
+public class IdempotencyStoreTest {
+
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore("maximumSize=100,expireAfterWrite=1h");
+
+    /**
+     * Проверяет, что повторный запрос с тем же ключом получает сохранённый ответ без повторного выполнения.
+     */
+    @Test
+    @DisplayName("Повторный запрос с тем же ключом получает сохранённый ответ")
+    void testReplay() {
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<String> first = idempotencyStore.execute("create:key", "body",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("user-" + executions.incrementAndGet()));
+        ResponseEntity<String> replayed = idempotencyStore.execute("create:key", "body",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("user-" + executions.incrementAndGet()));
+
+        assertEquals(1, executions.get());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals("user-1", replayed.getBody());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    /**
+     * Проверяет, что ключ, использованный с другим телом запроса, отклоняется.
+     */
+    @Test
+    @DisplayName("Отклонение ключа, использованного с другим запросом")
+    void testFingerprintMismatch() {
+        idempotencyStore.execute("create:key", "body", () -> ResponseEntity.ok("user"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyStore.execute("create:key", "other body", () -> ResponseEntity.ok("user")));
+    }
+
+    /**
+     * Проверяет, что после ошибки ключ освобождается и запрос выполняется повторно.
+     */
+    @Test
+    @DisplayName("Повтор запроса после ошибки")
+    void testRetryAfterFailure() {
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("create:key", "body", () -> {
+            throw new IllegalStateException("Сбой");
+        }));
+
+        ResponseEntity<String> response = idempotencyStore.execute("create:key", "body",
+                () -> ResponseEntity.ok("user"));
+
+        assertEquals("user", response.getBody());
+        assertNull(response.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+}
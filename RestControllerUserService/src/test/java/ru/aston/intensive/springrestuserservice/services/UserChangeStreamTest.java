@@ -0,0 +1,72 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import ru.aston.intensive.springrestuserservice.dto.UserMutationEvent;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тестовый класс для проверки потока изменений {@link UserChangeStream}.
+ * Пул отправки не выполняет задачи, поэтому события остаются в буфере подписчика,
+ * как у клиента, который не успевает их читать.
+ */
+public class UserChangeStreamTest {
+
+    private UserChangeStream userChangeStream;
+
+    @BeforeEach
+    void setUp() throws NoSuchFieldException, IllegalAccessException {
+        userChangeStream = new UserChangeStream(new ThreadPoolTaskExecutor() {
+            @Override
+            public void execute(Runnable task) {
+            }
+        });
+        setField("historySize", 100);
+        setField("bufferSize", 2);
+        setField("timeout", 60000L);
+    }
+
+    /**
+     * Проверяет, что подписчик отключается, когда его буфер неотправленных событий заполнен.
+     */
+    @Test
+    @DisplayName("Отключение подписчика, не успевающего читать события")
+    void testSlowSubscriberDisconnected() {
+        userChangeStream.subscribe(null);
+
+        userChangeStream.publish(new UserMutationEvent(1L, "CREATED", "john@example.com"));
+        userChangeStream.publish(new UserMutationEvent(1L, "UPDATED", "john@example.com"));
+
+        assertEquals(1, userChangeStream.getSubscriberCount());
+
+        userChangeStream.publish(new UserMutationEvent(1L, "DELETED", "john@example.com"));
+
+        assertEquals(0, userChangeStream.getSubscriberCount());
+    }
+
+    /**
+     * Проверяет, что heartbeat при заполненном буфере пропускается и не отключает подписчика.
+     */
+    @Test
+    @DisplayName("Пропуск heartbeat при заполненном буфере")
+    void testHeartbeatDoesNotDisconnect() {
+        userChangeStream.subscribe(null);
+
+        userChangeStream.publish(new UserMutationEvent(1L, "CREATED", "john@example.com"));
+        userChangeStream.publish(new UserMutationEvent(2L, "CREATED", "jane@example.com"));
+        userChangeStream.heartbeat();
+
+        assertEquals(1, userChangeStream.getSubscriberCount());
+    }
+
+    private void setField(String name, Object value) throws NoSuchFieldException, IllegalAccessException {
+        Field field = UserChangeStream.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(userChangeStream, value);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.aston.intensive.springrestuserservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.TestPropertySource;
+import ru.aston.intensive.springrestuserservice.util.UserExportFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для проверки сервиса выгрузки {@link UsersExportServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+@TestPropertySource(locations = "/application-test.yaml")
+public class UsersExportServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UsersExportServiceImpl usersExportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        usersExportService = new UsersExportServiceImpl(jdbcTemplate, new ObjectMapper());
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(1L);
+        when(resultSet.getString("name")).thenReturn("Doe, John");
+        when(resultSet.getString("email")).thenReturn("john@example.com");
+        when(resultSet.getInt("age")).thenReturn(30);
+        when(resultSet.getTimestamp("created_at"))
+                .thenReturn(Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 12, 0, 30)));
+        when(resultSet.getTimestamp("updated_at")).thenReturn(null);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Проверяет, что каждая строка выгружается отдельным JSON-объектом.
+     */
+    @Test
+    @DisplayName("Выгрузка пользователей в формате NDJSON")
+    void testExportNdjson() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        usersExportService.exportAll(UserExportFormat.NDJSON, outputStream);
+
+        assertEquals("{\"id\":1,\"name\":\"Doe, John\",\"email\":\"john@example.com\",\"age\":30," +
+                        "\"created_at\":\"2025-01-01T12:00:30\",\"updated_at\":null}\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Проверяет, что выгрузка CSV содержит заголовок и экранирует значения с запятыми.
+     */
+    @Test
+    @DisplayName("Выгрузка пользователей в формате CSV")
+    void testExportCsv() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        usersExportService.exportAll(UserExportFormat.CSV, outputStream);
+
+        assertEquals("id,name,email,age,created_at,updated_at\n" +
+                        "1,\"Doe, John\",john@example.com,30,2025-01-01T12:00:30,\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+}
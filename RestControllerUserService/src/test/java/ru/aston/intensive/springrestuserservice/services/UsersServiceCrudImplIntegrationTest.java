@@ -5,6 +5,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -12,6 +14,9 @@ import org.springframework.test.context.TestPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.aston.intensive.config.CacheConfig;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventEntity;
+import ru.aston.intensive.kafkaproducer.outbox.OutboxEventRepository;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
 import ru.aston.intensive.springrestuserservice.util.UserNotFoundException;
 
@@ -20,6 +25,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -32,7 +38,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @Testcontainers
 @DirtiesContext
 @TestPropertySource(properties = {
-        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration"
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+        "kafka.cacheInvalidation.enabled=false",
+        "users.outbox.relay.enabled=false"
 }) //Почему-то не исключает из контекста загрузку конфига кафки, из-за чего падает если значения берутся из окружения
 // и ждет продюсера кафки, если она не запущена в контейнере
 public class UsersServiceCrudImplIntegrationTest {
@@ -46,6 +54,12 @@ public class UsersServiceCrudImplIntegrationTest {
     @Autowired
     private UsersServiceCrudImpl usersServiceImpl;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     /**
      * Настраивает свойства базы данных для тестов.
      * Использует параметры подключения, предоставленные Testcontainers.
@@ -135,6 +149,60 @@ public class UsersServiceCrudImplIntegrationTest {
         assertEquals(31, foundUserEntity.getAge());
     }
 
+    /**
+     * Тестирует кэширование пользователя при чтении и инвалидацию кэша при обновлении и удалении.
+     */
+    @Test
+    @DisplayName("Кэширование пользователя и инвалидация кэша")
+    void testFindOneCacheInvalidation() {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        usersServiceImpl.save(userEntity);
+        Long id = userEntity.getId();
+
+        usersServiceImpl.findOne(id);
+        assertNotNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(id));
+
+        usersServiceImpl.update(id, new UserEntity("John Smith", "john@example.com", 31));
+        assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(id));
+        assertEquals("John Smith", usersServiceImpl.findOne(id).getName());
+
+        usersServiceImpl.delete(id);
+        assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(id));
+        assertThrows(UserNotFoundException.class, () -> usersServiceImpl.findOne(id));
+    }
+
+    /**
+     * Тестирует, что email, отличающийся только регистром и пробелами, считается занятым.
+     */
+    @Test
+    @DisplayName("Сохранение пользователя с занятым email в другом регистре")
+    void testSaveUserWithEmailInDifferentCase() {
+        usersServiceImpl.save(new UserEntity("John Doe", "john@example.com", 30));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> usersServiceImpl.save(new UserEntity("Jane Doe", " John@Example.com", 25)));
+
+        assertEquals("Email уже занят", exception.getMessage());
+    }
+
+    /**
+     * Тестирует запись событий в outbox-таблицу в транзакции изменения пользователя.
+     */
+    @Test
+    @DisplayName("Запись событий пользователя в outbox")
+    void testOutboxEventsWrittenWithUserChanges() {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        usersServiceImpl.save(userEntity);
+        usersServiceImpl.delete(userEntity.getId());
+
+        List<String> eventTypes = outboxEventRepository.findAll(Sort.by("id")).stream()
+                .filter(outboxEvent -> userEntity.getId().equals(outboxEvent.getUserId()))
+                .map(OutboxEventEntity::getEventType)
+                .toList();
+
+        assertEquals(List.of("CREATED", "DELETED"), eventTypes);
+    }
+
     /**
      * Тестирует удаление пользователя.
      */
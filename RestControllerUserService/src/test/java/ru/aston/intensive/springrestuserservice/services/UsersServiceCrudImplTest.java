@@ -1,24 +1,53 @@
 package ru.aston.intensive.springrestuserservice.services;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.aston.intensive.config.CacheConfig;
 import org.springframework.test.context.TestPropertySource;
+import ru.aston.intensive.springrestuserservice.dto.UserBatchItemResult;
+import ru.aston.intensive.springrestuserservice.dto.UserChangeDto;
+import ru.aston.intensive.springrestuserservice.dto.UserChangesPage;
 import ru.aston.intensive.springrestuserservice.models.UserEntity;
 import ru.aston.intensive.springrestuserservice.repositories.UsersRepository;
+import ru.aston.intensive.springrestuserservice.util.UserBatchConflictException;
+import ru.aston.intensive.springrestuserservice.util.UserChangeCursor;
+import ru.aston.intensive.springrestuserservice.util.UserCursor;
+import ru.aston.intensive.springrestuserservice.util.UserField;
+import ru.aston.intensive.springrestuserservice.util.UserMergePatch;
 import ru.aston.intensive.springrestuserservice.util.UserNotFoundException;
+import ru.aston.intensive.springrestuserservice.util.UserSearchCriteria;
+import ru.aston.intensive.springrestuserservice.util.UserSortField;
+import ru.aston.intensive.springrestuserservice.util.UserVersionConflictException;
 
+import java.lang.reflect.Field;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -34,9 +63,30 @@ public class UsersServiceCrudImplTest {
     @Mock
     private UsersRepository usersRepository;
 
+    @Mock
+    private EmailBloomFilter emailBloomFilter;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache usersCache;
+
     @InjectMocks
     private UsersServiceCrudImpl usersServiceImpl;
 
+    private void setMaxPageLimit(int maxPageLimit) throws NoSuchFieldException, IllegalAccessException {
+        Field maxPageLimitField = UsersServiceCrudImpl.class.getDeclaredField("maxPageLimit");
+        maxPageLimitField.setAccessible(true);
+        maxPageLimitField.setInt(usersServiceImpl, maxPageLimit);
+    }
+
+    private void setMaxMultiGetSize(int maxMultiGetSize) throws NoSuchFieldException, IllegalAccessException {
+        Field maxMultiGetSizeField = UsersServiceCrudImpl.class.getDeclaredField("maxMultiGetSize");
+        maxMultiGetSizeField.setAccessible(true);
+        maxMultiGetSizeField.setInt(usersServiceImpl, maxMultiGetSize);
+    }
+
     /**
      * Тестирует метод получения списка всех пользователей.
      * Проверяет, что возвращается корректный список и вызывается соответствующий метод репозитория.
@@ -67,6 +117,70 @@ public class UsersServiceCrudImplTest {
         verify(usersRepository, times(1)).findAll();
     }
 
+    /**
+     * Тестирует получение первой страницы пользователей, отсортированных по id.
+     */
+    @Test
+    @DisplayName("Получение первой страницы пользователей")
+    void testFindFirstPage() throws NoSuchFieldException, IllegalAccessException {
+        setMaxPageLimit(100);
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        when(usersRepository.findFirstPageOrderById(10)).thenReturn(List.of(userEntity));
+
+        List<UserEntity> page = usersServiceImpl.findPage(UserSortField.ID, null, 10);
+
+        assertEquals(1, page.size());
+        verify(usersRepository, times(1)).findFirstPageOrderById(10);
+    }
+
+    /**
+     * Тестирует получение следующей страницы пользователей по курсору сортировки по имени.
+     */
+    @Test
+    @DisplayName("Получение страницы пользователей после курсора")
+    void testFindPageAfterCursor() throws NoSuchFieldException, IllegalAccessException {
+        setMaxPageLimit(100);
+        UserEntity last = new UserEntity("John Doe", "john@example.com", 30);
+        last.setId(5L);
+        UserCursor cursor = UserCursor.of(UserSortField.NAME, last);
+        when(usersRepository.findPageOrderByNameAfter("John Doe", 5L, 10)).thenReturn(List.of());
+
+        List<UserEntity> page = usersServiceImpl.findPage(UserSortField.NAME, cursor, 10);
+
+        assertTrue(page.isEmpty());
+        verify(usersRepository, times(1)).findPageOrderByNameAfter("John Doe", 5L, 10);
+    }
+
+    /**
+     * Тестирует выброс исключения при размере страницы больше допустимого.
+     */
+    @Test
+    @DisplayName("Обработка слишком большого размера страницы")
+    void testFindPageWhenLimitTooLarge() throws NoSuchFieldException, IllegalAccessException {
+        setMaxPageLimit(100);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> usersServiceImpl.findPage(UserSortField.ID, null, 101));
+        verify(usersRepository, never()).findFirstPageOrderById(anyInt());
+    }
+
+    /**
+     * Тестирует поиск пользователей: условия и курсор передаются в репозиторий,
+     * а размер страницы больше допустимого отклоняется.
+     */
+    @Test
+    @DisplayName("Поиск пользователей по условиям")
+    void testSearch() throws NoSuchFieldException, IllegalAccessException {
+        setMaxPageLimit(100);
+        UserSearchCriteria criteria = UserSearchCriteria.of("jo", null, null, null);
+        List<UserEntity> users = List.of(new UserEntity("John Doe", "john@example.com", 30));
+        when(usersRepository.search(criteria, null, 10)).thenReturn(users);
+
+        assertEquals(users, usersServiceImpl.search(criteria, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> usersServiceImpl.search(criteria, null, 101));
+        verify(usersRepository, times(1)).search(any(), any(), anyInt());
+    }
+
     /**
      * Тестирует метод поиска пользователя по идентификатору, когда пользователь не найден.
      * Проверяет, что выбрасывается исключение {@link UserNotFoundException}.
@@ -100,22 +214,96 @@ public class UsersServiceCrudImplTest {
         verify(usersRepository, times(1)).findById(1L);
     }
 
+    /**
+     * Тестирует поиск нескольких пользователей по списку идентификаторов.
+     * Проверяет, что найденные в кэше пользователи не запрашиваются из базы данных,
+     * остальные загружаются одним запросом и помещаются в кэш, а порядок соответствует запросу.
+     */
+    @Test
+    @DisplayName("Поиск нескольких пользователей по списку идентификаторов")
+    void testFindAllByIds() throws NoSuchFieldException, IllegalAccessException {
+        setMaxMultiGetSize(10);
+        UserEntity cachedUser = new UserEntity("John Doe", "john@example.com", 30);
+        cachedUser.setId(1L);
+        UserEntity loadedUser = new UserEntity("Jane Doe", "jane@example.com", 25);
+        loadedUser.setId(2L);
+
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        when(usersCache.get(1L, UserEntity.class)).thenReturn(cachedUser);
+        when(usersRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(loadedUser));
+
+        Map<Long, UserEntity> foundUsers = usersServiceImpl.findAllByIds(List.of(3L, 1L, 2L, 1L));
+
+        assertEquals(List.of(1L, 2L), List.copyOf(foundUsers.keySet()));
+        assertEquals("Jane Doe", foundUsers.get(2L).getName());
+        verify(usersRepository, times(1)).findAllById(List.of(3L, 2L));
+        verify(usersCache, times(1)).put(2L, loadedUser);
+    }
+
+    /**
+     * Тестирует отклонение запроса с превышением допустимого количества идентификаторов.
+     */
+    @Test
+    @DisplayName("Обработка превышения количества идентификаторов")
+    void testFindAllByIdsWhenTooManyIds() throws NoSuchFieldException, IllegalAccessException {
+        setMaxMultiGetSize(2);
+
+        assertThrows(IllegalArgumentException.class, () -> usersServiceImpl.findAllByIds(List.of(1L, 2L, 3L)));
+        verify(usersRepository, never()).findAllById(any());
+    }
+
+    /**
+     * Тестирует выборку ленты изменений.
+     * Проверяет, что курсор следующего запроса указывает на последнее изменение страницы.
+     */
+    @Test
+    @DisplayName("Получение изменений пользователей после курсора")
+    void testFindChanges() throws NoSuchFieldException, IllegalAccessException {
+        setMaxPageLimit(100);
+        LocalDateTime deletedAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+        UserChangeCursor since = UserChangeCursor.of(deletedAt.minusHours(1), 1L);
+
+        when(usersRepository.findChanges(eq(since), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(UserChangeDto.deleted(7L, deletedAt)));
+
+        UserChangesPage page = usersServiceImpl.findChanges(since, 2);
+
+        assertEquals(1, page.getChanges().size());
+        assertEquals(UserChangeCursor.of(deletedAt, 7L).encode(), page.getNextCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    /**
+     * Тестирует, что при отсутствии изменений возвращается переданный курсор.
+     */
+    @Test
+    @DisplayName("Получение пустой ленты изменений")
+    void testFindChangesWhenNoChanges() throws NoSuchFieldException, IllegalAccessException {
+        setMaxPageLimit(100);
+        UserChangeCursor since = UserChangeCursor.of(LocalDateTime.of(2025, 1, 15, 10, 30), 1L);
+
+        when(usersRepository.findChanges(eq(since), any(LocalDateTime.class), eq(10))).thenReturn(List.of());
+
+        UserChangesPage page = usersServiceImpl.findChanges(since, 10);
+
+        assertTrue(page.getChanges().isEmpty());
+        assertEquals(since.encode(), page.getNextCursor());
+    }
+
     /**
      * Тестирует метод сохранения нового пользователя.
-     * Проверяет, что пользователь сохраняется с установленными временными метками.
+     * Проверяет, что пользователь сохраняется одним запросом с установленными временными метками.
      */
     @Test
     @DisplayName("Успешное сохранение нового пользователя")
     void testSaveSuccess() {
         UserEntity userEntity = new UserEntity("Jane Doe", "jane@example.com", 25);
 
-        when(usersRepository.existsByEmail("jane@example.com")).thenReturn(false);
-        when(usersRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(usersRepository.saveAndFlush(any(UserEntity.class))).thenReturn(userEntity);
 
         usersServiceImpl.save(userEntity);
 
-        verify(usersRepository, times(1)).existsByEmail("jane@example.com");
-        verify(usersRepository, times(1)).save(userEntity);
+        verify(usersRepository, times(1)).saveAndFlush(userEntity);
 
         assertNotNull(userEntity.getCreated_at());
         assertNotNull(userEntity.getUpdated_at());
@@ -129,45 +317,156 @@ public class UsersServiceCrudImplTest {
     void testSaveWhenEmailAlreadyExists() {
         UserEntity userEntity = new UserEntity("Jane Doe", "jane@example.com", 25);
 
-        when(usersRepository.existsByEmail("jane@example.com")).thenReturn(true);
+        when(usersRepository.saveAndFlush(any(UserEntity.class))).thenThrow(emailViolation());
+
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> usersServiceImpl.save(userEntity));
+
+        assertEquals("Email уже занят", exception.getMessage());
+        verify(usersRepository, times(1)).saveAndFlush(userEntity);
+    }
+
+    /**
+     * Тестирует, что нарушение другого ограничения не выдаётся за занятый email.
+     */
+    @Test
+    @DisplayName("Обработка нарушения ограничения, не связанного с email")
+    void testSaveWhenOtherConstraintViolated() {
+        UserEntity userEntity = new UserEntity("Jane Doe", "jane@example.com", 25);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("other",
+                new ConstraintViolationException("other", new SQLException(), "users_pkey"));
+
+        when(usersRepository.saveAndFlush(any(UserEntity.class))).thenThrow(violation);
+
+        assertThrows(DataIntegrityViolationException.class, () -> usersServiceImpl.save(userEntity));
+    }
+
+    /**
+     * Тестирует пакетное сохранение пользователей с занятым и повторяющимся email.
+     * Проверяет, что занятость email проверяется одним запросом, а сохраняются только новые пользователи.
+     */
+    @Test
+    @DisplayName("Пакетное сохранение пользователей")
+    void testSaveAll() {
+        UserEntity newUser = new UserEntity("Jane Doe", "jane@example.com", 25);
+        UserEntity takenUser = new UserEntity("John Doe", "john@example.com", 30);
+        UserEntity repeatedUser = new UserEntity("Jane Smith", "jane@example.com", 27);
+
+        when(emailBloomFilter.mightContain(anyString())).thenReturn(true);
+        when(usersRepository.findExistingEmails(anyCollection())).thenReturn(List.of("john@example.com"));
+        when(usersRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            newUser.setId(10L);
+            return invocation.getArgument(0);
+        });
+
+        List<UserBatchItemResult> results = usersServiceImpl.saveAll(List.of(newUser, takenUser, repeatedUser));
+
+        assertEquals(3, results.size());
+        assertEquals(UserBatchItemResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getId());
+        assertEquals(UserBatchItemResult.Status.DUPLICATE, results.get(1).getStatus());
+        assertEquals(UserBatchItemResult.Status.DUPLICATE, results.get(2).getStatus());
+        assertEquals(2, results.get(2).getIndex());
+        assertNotNull(newUser.getCreated_at());
+
+        verify(usersRepository, times(1)).findExistingEmails(anyCollection());
+        verify(usersRepository, times(1)).saveAll(List.of(newUser));
+        verify(usersRepository, times(1)).flush();
+        verify(emailBloomFilter, times(1)).put("jane@example.com");
+    }
+
+    /**
+     * Тестирует, что email, которые фильтр Блума считает свободными, не проверяются в базе данных.
+     */
+    @Test
+    @DisplayName("Пакетное сохранение без проверки заведомо свободных email")
+    void testSaveAllSkipsLookupForDefiniteNegatives() {
+        UserEntity newUser = new UserEntity("Jane Doe", "jane@example.com", 25);
+
+        when(emailBloomFilter.mightContain("jane@example.com")).thenReturn(false);
+        when(usersRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            newUser.setId(10L);
+            return invocation.getArgument(0);
+        });
+
+        List<UserBatchItemResult> results = usersServiceImpl.saveAll(List.of(newUser));
 
-        assertThrows(IllegalArgumentException.class, () -> usersServiceImpl.save(userEntity));
+        assertEquals(UserBatchItemResult.Status.CREATED, results.get(0).getStatus());
+        verify(usersRepository, never()).findExistingEmails(anyCollection());
+    }
+
+    /**
+     * Тестирует пакетное сохранение, когда email, который фильтр Блума считал свободным, занят
+     * другим экземпляром сервиса. Проверяет, что пакет отклоняется для повторной попытки,
+     * а его email добавляются в фильтр.
+     */
+    @Test
+    @DisplayName("Пакетное сохранение при занятом email, пропущенном фильтром Блума")
+    void testSaveAllWhenBloomFilterMissesTakenEmail() {
+        UserEntity newUser = new UserEntity("Jane Doe", "jane@example.com", 25);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(),
+                        UserEntity.EMAIL_UNIQUE_CONSTRAINT));
+
+        when(emailBloomFilter.mightContain("jane@example.com")).thenReturn(false);
+        when(usersRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            newUser.setId(10L);
+            return invocation.getArgument(0);
+        });
+        doThrow(violation).when(usersRepository).flush();
+
+        assertThrows(UserBatchConflictException.class, () -> usersServiceImpl.saveAll(List.of(newUser)));
+        assertNull(newUser.getId());
+        verify(emailBloomFilter, times(1)).put("jane@example.com");
+    }
 
-        verify(usersRepository, times(1)).existsByEmail("jane@example.com");
-        verify(usersRepository, never()).save(any(UserEntity.class));
+    /**
+     * Тестирует пакетное сохранение, когда email занят параллельным запросом после проверки в базе данных.
+     * Проверяет, что повторная попытка не предлагается.
+     */
+    @Test
+    @DisplayName("Пакетное сохранение при email, занятом после проверки")
+    void testSaveAllWhenEmailTakenAfterLookup() {
+        UserEntity newUser = new UserEntity("Jane Doe", "jane@example.com", 25);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(),
+                        UserEntity.EMAIL_UNIQUE_CONSTRAINT));
+
+        when(emailBloomFilter.mightContain("jane@example.com")).thenReturn(true);
+        when(usersRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        doThrow(violation).when(usersRepository).flush();
+
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> usersServiceImpl.saveAll(List.of(newUser)));
+        assertFalse(exception instanceof UserBatchConflictException);
     }
 
     /**
      * Тестирует метод обновления пользователя с изменением данных.
-     * Проверяет, что пользователь обновляется корректно, сохраняя исходную дату создания.
+     * Проверяет, что пользователь обновляется одним запросом с нормализованным email,
+     * сохраняя исходную дату создания.
      */
     @Test
     @DisplayName("Успешное обновление данных пользователя")
     void testUpdateSuccess() {
-        UserEntity existingUserEntity = new UserEntity("John Doe", "john@example.com", 30);
-        existingUserEntity.setId(1L);
-        existingUserEntity.setCreated_at(LocalDateTime.now().minusDays(1));
-
-        UserEntity updatedUserEntity = new UserEntity("John Smith", "john.smith@example.com", 31);
-        UserEntity savedUserEntity = new UserEntity("John Smith", "john.smith@example.com", 31);
+        UserEntity updatedUserEntity = new UserEntity("John Smith", "John.Smith@Example.com", 31);
+        UserEntity savedUserEntity = new UserEntity("John Smith", "John.Smith@Example.com", 31);
         savedUserEntity.setId(1L);
-        savedUserEntity.setCreated_at(existingUserEntity.getCreated_at());
+        savedUserEntity.setCreated_at(LocalDateTime.now().minusDays(1));
         savedUserEntity.setUpdated_at(LocalDateTime.now());
 
-        when(usersRepository.findById(1L)).thenReturn(Optional.of(existingUserEntity));
-        when(usersRepository.existsByEmail("john.smith@example.com")).thenReturn(false);
-        when(usersRepository.save(any(UserEntity.class))).thenReturn(savedUserEntity);
+        when(usersRepository.updateReturning(eq(1L), eq("John Smith"), eq("John.Smith@Example.com"),
+                eq("john.smith@example.com"), eq(31), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(savedUserEntity));
 
         UserEntity result = usersServiceImpl.update(1L, updatedUserEntity);
 
-        verify(usersRepository, times(1)).findById(1L);
-        verify(usersRepository, times(1)).existsByEmail("john.smith@example.com");
-        verify(usersRepository, times(1)).save(existingUserEntity);
+        verify(usersRepository, never()).findById(any());
 
         assertEquals("John Smith", result.getName());
-        assertEquals("john.smith@example.com", result.getEmail());
+        assertEquals("John.Smith@Example.com", result.getEmail());
         assertEquals(31, result.getAge());
-        assertEquals(existingUserEntity.getCreated_at(), result.getCreated_at());
+        assertEquals(savedUserEntity.getCreated_at(), result.getCreated_at());
         assertNotNull(result.getUpdated_at());
         assertEquals(1L, result.getId());
     }
@@ -179,12 +478,107 @@ public class UsersServiceCrudImplTest {
     @DisplayName("Обработка ошибки при обновлении несуществующего пользователя")
     void testUpdateWhenUserNotFound() {
         UserEntity updatedUserEntity = new UserEntity("John Smith", "john.smith@example.com", 31);
-        when(usersRepository.findById(1L)).thenReturn(Optional.empty());
+        when(usersRepository.updateReturning(eq(1L), any(), any(), any(), anyInt(), any()))
+                .thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> usersServiceImpl.update(1L, updatedUserEntity));
+    }
 
-        verify(usersRepository, times(1)).findById(1L);
-        verify(usersRepository, never()).save(any(UserEntity.class));
+    /**
+     * Тестирует условное обновление пользователя по версии.
+     * Проверяет, что пользователь обновляется одним условным запросом без проверки существования.
+     */
+    @Test
+    @DisplayName("Успешное условное обновление пользователя по версии")
+    void testUpdateWithVersionSuccess() {
+        UserEntity updatedUserEntity = new UserEntity("John Smith", "john.smith@example.com", 31);
+        UserEntity savedUserEntity = new UserEntity("John Smith", "john.smith@example.com", 31);
+        savedUserEntity.setId(1L);
+
+        when(usersRepository.updateReturningIfVersion(eq(1L), eq(3L), eq("John Smith"), eq("john.smith@example.com"),
+                eq("john.smith@example.com"), eq(31), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(savedUserEntity));
+
+        UserEntity result = usersServiceImpl.update(1L, updatedUserEntity, 3L);
+
+        assertEquals(1L, result.getId());
+        verify(usersRepository, never()).existsById(any());
+        verify(usersRepository, times(1)).evictFromEntityCache(1L);
+    }
+
+    /**
+     * Тестирует выброс исключения при условном обновлении пользователя, изменённого другим запросом.
+     */
+    @Test
+    @DisplayName("Обработка конфликта версий при условном обновлении пользователя")
+    void testUpdateWithVersionConflict() {
+        UserEntity updatedUserEntity = new UserEntity("John Smith", "john.smith@example.com", 31);
+        when(usersRepository.updateReturningIfVersion(eq(1L), eq(3L), any(), any(), any(), anyInt(), any()))
+                .thenReturn(Optional.empty());
+        when(usersRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(UserVersionConflictException.class, () -> usersServiceImpl.update(1L, updatedUserEntity, 3L));
+        verify(usersRepository, never()).evictFromEntityCache(any());
+    }
+
+    /**
+     * Тестирует выброс исключения при условном обновлении несуществующего пользователя.
+     */
+    @Test
+    @DisplayName("Обработка ошибки при условном обновлении несуществующего пользователя")
+    void testUpdateWithVersionWhenUserNotFound() {
+        UserEntity updatedUserEntity = new UserEntity("John Smith", "john.smith@example.com", 31);
+        when(usersRepository.updateReturningIfVersion(eq(1L), eq(3L), any(), any(), any(), anyInt(), any()))
+                .thenReturn(Optional.empty());
+        when(usersRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> usersServiceImpl.update(1L, updatedUserEntity, 3L));
+    }
+
+    /**
+     * Тестирует частичное обновление пользователя без изменения email.
+     * Проверяет, что в запрос передаются только изменённые поля, а фильтр email не пополняется.
+     */
+    @Test
+    @DisplayName("Частичное обновление пользователя без изменения email")
+    void testPatchWithoutEmail() {
+        UserMergePatch patch = UserMergePatch.parse(Map.of("age", 31));
+        UserEntity savedUserEntity = new UserEntity("John Doe", "john@example.com", 31);
+        savedUserEntity.setId(1L);
+
+        when(usersRepository.patchReturning(eq(1L), eq(Map.of(UserField.AGE, 31)), any(LocalDateTime.class), isNull()))
+                .thenReturn(Optional.of(savedUserEntity));
+
+        UserEntity result = usersServiceImpl.patch(1L, patch, null);
+
+        assertEquals(31, result.getAge());
+        verify(usersRepository, times(1)).evictFromEntityCache(1L);
+        verify(emailBloomFilter, never()).put(anyString());
+    }
+
+    /**
+     * Тестирует выброс исключения при частичном обновлении пользователя, изменённого другим запросом.
+     */
+    @Test
+    @DisplayName("Обработка конфликта версий при частичном обновлении пользователя")
+    void testPatchWithVersionConflict() {
+        UserMergePatch patch = UserMergePatch.parse(Map.of("name", "John Smith"));
+        when(usersRepository.patchReturning(eq(1L), any(), any(), eq(3L))).thenReturn(Optional.empty());
+        when(usersRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(UserVersionConflictException.class, () -> usersServiceImpl.patch(1L, patch, 3L));
+    }
+
+    /**
+     * Тестирует выброс исключения при пустом частичном обновлении.
+     */
+    @Test
+    @DisplayName("Обработка ошибки при пустом частичном обновлении")
+    void testPatchWhenEmpty() {
+        UserMergePatch patch = UserMergePatch.parse(Map.of());
+
+        assertThrows(IllegalArgumentException.class, () -> usersServiceImpl.patch(1L, patch, null));
+        verify(usersRepository, never()).patchReturning(any(), any(), any(), any());
     }
 
     /**
@@ -193,21 +587,15 @@ public class UsersServiceCrudImplTest {
     @Test
     @DisplayName("Обработка ошибки при обновлении пользователя с занятым email")
     void testUpdateWhenEmailAlreadyExists() {
-        UserEntity existingUserEntity = new UserEntity("John Doe", "john@example.com", 30);
-        existingUserEntity.setId(1L);
         UserEntity updatedUserEntity = new UserEntity("John Smith", "taken@example.com", 31);
 
-        when(usersRepository.findById(1L)).thenReturn(Optional.of(existingUserEntity));
-        when(usersRepository.existsByEmail("taken@example.com")).thenReturn(true);
-
-        System.out.println("Existing email: " + existingUserEntity.getEmail());
-        System.out.println("Updated email: " + updatedUserEntity.getEmail());
+        when(usersRepository.updateReturning(eq(1L), any(), any(), any(), anyInt(), any()))
+                .thenThrow(emailViolation());
 
-        assertThrows(IllegalArgumentException.class, () -> usersServiceImpl.update(1L, updatedUserEntity));
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> usersServiceImpl.update(1L, updatedUserEntity));
 
-        verify(usersRepository, times(1)).findById(1L);
-        verify(usersRepository, times(1)).existsByEmail("taken@example.com");
-        verify(usersRepository, never()).save(any(UserEntity.class));
+        assertEquals("Email уже занят", exception.getMessage());
     }
 
     /**
@@ -217,12 +605,16 @@ public class UsersServiceCrudImplTest {
     @Test
     @DisplayName("Успешное удаление пользователя")
     void testDeleteSuccess() {
-        when(usersRepository.existsById(1L)).thenReturn(true);
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(1L);
+        when(usersRepository.deleteReturning(eq(1L), any(LocalDateTime.class))).thenReturn(Optional.of(userEntity));
 
-        usersServiceImpl.delete(1L);
+        UserEntity deletedUserEntity = usersServiceImpl.delete(1L);
 
-        verify(usersRepository, times(1)).existsById(1L);
-        verify(usersRepository, times(1)).deleteById(1L);
+        assertEquals("john@example.com", deletedUserEntity.getEmail());
+        verify(usersRepository, times(1)).deleteReturning(eq(1L), any(LocalDateTime.class));
+        verify(usersRepository, never()).existsById(any());
+        verify(usersRepository, never()).deleteById(any());
     }
 
     /**
@@ -231,11 +623,16 @@ public class UsersServiceCrudImplTest {
     @Test
     @DisplayName("Обработка ошибки при удалении несуществующего пользователя")
     void testDeleteWhenUserNotFound() {
-        when(usersRepository.existsById(1L)).thenReturn(false);
+        when(usersRepository.deleteReturning(eq(1L), any(LocalDateTime.class))).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> usersServiceImpl.delete(1L));
 
-        verify(usersRepository, times(1)).existsById(1L);
-        verify(usersRepository, never()).deleteById(1L);
+        verify(usersRepository, times(1)).deleteReturning(eq(1L), any(LocalDateTime.class));
+    }
+
+    private DataIntegrityViolationException emailViolation() {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException(),
+                        UserEntity.EMAIL_UNIQUE_CONSTRAINT));
     }
-}
\ No newline at end of file
+}
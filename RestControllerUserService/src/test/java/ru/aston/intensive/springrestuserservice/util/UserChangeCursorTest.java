@@ -0,0 +1,39 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тестовый класс для проверки курсора ленты изменений {@link UserChangeCursor}.
+ */
+public class UserChangeCursorTest {
+
+    /**
+     * Проверяет, что курсор сохраняет время изменения и идентификатор после кодирования.
+     */
+    @Test
+    @DisplayName("Кодирование и декодирование курсора ленты изменений")
+    void testEncodeDecode() {
+        LocalDateTime changedAt = LocalDateTime.of(2025, 1, 15, 10, 30, 45, 123456000);
+
+        UserChangeCursor cursor = UserChangeCursor.decode(UserChangeCursor.of(changedAt, 42L).encode());
+
+        assertEquals(changedAt, cursor.getChangedAt());
+        assertEquals(42L, cursor.getId());
+    }
+
+    /**
+     * Проверяет, что повреждённый курсор отклоняется.
+     */
+    @Test
+    @DisplayName("Обработка повреждённого курсора ленты изменений")
+    void testDecodeInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> UserChangeCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> UserChangeCursor.decode("%%%"));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тестовый класс для проверки курсора постраничной выборки {@link UserCursor}.
+ */
+@TestPropertySource(locations = "/application-test.yaml")
+public class UserCursorTest {
+
+    /**
+     * Проверяет, что курсор сортировки по времени создания сохраняет значения после кодирования.
+     */
+    @Test
+    @DisplayName("Кодирование и декодирование курсора по времени создания")
+    void testEncodeDecodeCreatedAtCursor() {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(42L);
+        userEntity.setCreated_at(LocalDateTime.of(2025, 1, 15, 10, 30, 45, 123456000));
+
+        String token = UserCursor.of(UserSortField.CREATED_AT, userEntity).encode();
+        UserCursor cursor = UserCursor.decode(token, UserSortField.CREATED_AT);
+
+        assertEquals(UserSortField.CREATED_AT, cursor.getSortField());
+        assertEquals(42L, cursor.getId());
+        assertEquals(userEntity.getCreated_at(), cursor.getCreatedAt());
+    }
+
+    /**
+     * Проверяет, что имя с разделителем внутри корректно восстанавливается из курсора.
+     */
+    @Test
+    @DisplayName("Кодирование и декодирование курсора по имени")
+    void testEncodeDecodeNameCursor() {
+        UserEntity userEntity = new UserEntity("Jean:Luc", "jean@example.com", 40);
+        userEntity.setId(3L);
+
+        String token = UserCursor.of(UserSortField.NAME, userEntity).encode();
+        UserCursor cursor = UserCursor.decode(token, UserSortField.NAME);
+
+        assertEquals(3L, cursor.getId());
+        assertEquals("Jean:Luc", cursor.getName());
+    }
+
+    /**
+     * Проверяет, что при сортировке по id курсором может служить сам идентификатор.
+     */
+    @Test
+    @DisplayName("Декодирование идентификатора в открытом виде")
+    void testDecodePlainId() {
+        UserCursor cursor = UserCursor.decode("15", UserSortField.ID);
+
+        assertEquals(15L, cursor.getId());
+    }
+
+    /**
+     * Проверяет, что курсор другой сортировки отклоняется.
+     */
+    @Test
+    @DisplayName("Отклонение курсора другой сортировки")
+    void testDecodeCursorOfAnotherSort() {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(1L);
+        String token = UserCursor.of(UserSortField.NAME, userEntity).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> UserCursor.decode(token, UserSortField.ID));
+    }
+
+    /**
+     * Проверяет, что повреждённый курсор отклоняется.
+     */
+    @Test
+    @DisplayName("Отклонение повреждённого курсора")
+    void testDecodeMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> UserCursor.decode("not-a-cursor!", UserSortField.NAME));
+    }
+}
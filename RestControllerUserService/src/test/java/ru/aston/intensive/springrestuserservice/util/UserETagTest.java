@@ -0,0 +1,64 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тестовый класс для проверки преобразования версии пользователя в ETag {@link UserETag}.
+ */
+@TestPropertySource(locations = "/application-test.yaml")
+public class UserETagTest {
+
+    /**
+     * Проверяет, что версия из ETag восстанавливается из заголовка If-Match.
+     */
+    @Test
+    @DisplayName("Версия из ETag восстанавливается из If-Match")
+    void testParseIfMatch() {
+        assertEquals("\"7\"", UserETag.of(7));
+        assertEquals(7L, UserETag.parseIfMatch(UserETag.of(7)));
+    }
+
+    /**
+     * Проверяет, что отсутствующий заголовок и "*" не задают ожидаемую версию.
+     */
+    @Test
+    @DisplayName("If-Match без версии не задаёт ожидаемую версию")
+    void testParseIfMatchWithoutVersion() {
+        assertNull(UserETag.parseIfMatch(null));
+        assertNull(UserETag.parseIfMatch("*"));
+    }
+
+    /**
+     * Проверяет, что слабый и повреждённый ETag отклоняются.
+     */
+    @Test
+    @DisplayName("Некорректный If-Match отклоняется")
+    void testParseInvalidIfMatch() {
+        assertThrows(IllegalArgumentException.class, () -> UserETag.parseIfMatch("W/\"7\""));
+        assertThrows(IllegalArgumentException.class, () -> UserETag.parseIfMatch("7"));
+        assertThrows(IllegalArgumentException.class, () -> UserETag.parseIfMatch("\"abc\""));
+    }
+
+    /**
+     * Проверяет, что ETag списка различает изменения внутри одной секунды,
+     * а отсутствие времени изменения не задаёт Last-Modified.
+     */
+    @Test
+    @DisplayName("ETag и Last-Modified списка по времени последнего изменения")
+    void testLastChangeValidators() {
+        LocalDateTime changedAt = LocalDateTime.of(2025, 1, 15, 10, 30, 45, 100000);
+
+        assertNotEquals(UserETag.ofLastChange(changedAt), UserETag.ofLastChange(changedAt.plusNanos(1000)));
+        assertEquals(UserETag.lastModified(changedAt), UserETag.lastModified(changedAt.plusNanos(1000)));
+        assertEquals(-1, UserETag.lastModified(null));
+    }
+}
@@ -0,0 +1,46 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестовый класс для проверки разбора частичного обновления {@link UserMergePatch}.
+ */
+@TestPropertySource(locations = "/application-test.yaml")
+public class UserMergePatchTest {
+
+    /**
+     * Проверяет, что переданные поля попадают в изменения, а пустое тело не содержит изменений.
+     */
+    @Test
+    @DisplayName("Разбор частичного обновления")
+    void testParse() {
+        UserMergePatch patch = UserMergePatch.parse(Map.of("email", "jane@example.com", "age", 26));
+
+        assertEquals(Map.of(UserField.EMAIL, "jane@example.com", UserField.AGE, 26), patch.getChanges());
+        assertTrue(UserMergePatch.parse(Map.of()).isEmpty());
+    }
+
+    /**
+     * Проверяет, что неизменяемые и неизвестные поля, удаление поля и неверный тип значения отклоняются.
+     */
+    @Test
+    @DisplayName("Некорректное частичное обновление отклоняется")
+    void testParseInvalid() {
+        Map<String, Object> removal = new HashMap<>();
+        removal.put("name", null);
+
+        assertThrows(IllegalArgumentException.class, () -> UserMergePatch.parse(Map.of("id", 5)));
+        assertThrows(IllegalArgumentException.class, () -> UserMergePatch.parse(Map.of("phone", "123")));
+        assertThrows(IllegalArgumentException.class, () -> UserMergePatch.parse(removal));
+        assertThrows(IllegalArgumentException.class, () -> UserMergePatch.parse(Map.of("age", "26")));
+    }
+}
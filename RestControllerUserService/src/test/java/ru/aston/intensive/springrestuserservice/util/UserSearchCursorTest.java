@@ -0,0 +1,77 @@
+package ru.aston.intensive.springrestuserservice.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.aston.intensive.springrestuserservice.models.UserEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тестовый класс для проверки условий поиска {@link UserSearchCriteria} и курсора поиска {@link UserSearchCursor}.
+ */
+public class UserSearchCursorTest {
+
+    /**
+     * Проверяет нормализацию условий и выбор порядка выдачи по ведущему условию.
+     */
+    @Test
+    @DisplayName("Нормализация условий поиска и выбор порядка выдачи")
+    void testCriteria() {
+        UserSearchCriteria criteria = UserSearchCriteria.of(null, " @Example.COM ", 18, null);
+
+        assertEquals("example.com", criteria.getEmailDomain());
+        assertNull(criteria.getNamePrefix());
+        assertEquals(UserSearchCriteria.Order.EMAIL_DOMAIN, criteria.getOrder());
+        assertEquals(UserSearchCriteria.Order.NAME, UserSearchCriteria.of("jo", "example.com", 18, 30).getOrder());
+        assertEquals(UserSearchCriteria.Order.AGE, UserSearchCriteria.of(null, null, null, 30).getOrder());
+    }
+
+    /**
+     * Проверяет, что пустые и некорректные условия поиска отклоняются.
+     */
+    @Test
+    @DisplayName("Обработка некорректных условий поиска")
+    void testInvalidCriteria() {
+        assertThrows(IllegalArgumentException.class, () -> UserSearchCriteria.of(null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> UserSearchCriteria.of("", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> UserSearchCriteria.of(null, "a@b.com", null, null));
+        assertThrows(IllegalArgumentException.class, () -> UserSearchCriteria.of(null, null, 40, 30));
+        assertThrows(IllegalArgumentException.class, () -> UserSearchCriteria.of(null, null, -1, null));
+    }
+
+    /**
+     * Проверяет, что курсор сохраняет ключ сортировки и идентификатор после кодирования.
+     */
+    @Test
+    @DisplayName("Кодирование и декодирование курсора поиска")
+    void testEncodeDecode() {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(42L);
+
+        String token = UserSearchCursor.of(UserSearchCriteria.Order.AGE, userEntity).encode();
+        UserSearchCursor cursor = UserSearchCursor.decode(token, UserSearchCriteria.Order.AGE);
+
+        assertEquals(UserSearchCriteria.Order.AGE, cursor.getOrder());
+        assertEquals(42L, cursor.getId());
+        assertEquals(30, cursor.getAge());
+    }
+
+    /**
+     * Проверяет, что повреждённый курсор и курсор другого порядка выдачи отклоняются.
+     */
+    @Test
+    @DisplayName("Обработка повреждённого курсора поиска")
+    void testDecodeInvalidCursor() {
+        UserEntity userEntity = new UserEntity("John Doe", "john@example.com", 30);
+        userEntity.setId(42L);
+        String token = UserSearchCursor.of(UserSearchCriteria.Order.AGE, userEntity).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> UserSearchCursor.decode(token, UserSearchCriteria.Order.EMAIL_DOMAIN));
+        assertThrows(IllegalArgumentException.class,
+                () -> UserSearchCursor.decode("not-a-cursor", UserSearchCriteria.Order.AGE));
+        assertThrows(IllegalArgumentException.class, () -> UserSearchCursor.decode("%%%", UserSearchCriteria.Order.AGE));
+    }
+}
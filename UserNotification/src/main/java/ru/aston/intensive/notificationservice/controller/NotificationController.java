@@ -22,9 +22,6 @@ import ru.aston.intensive.notificationservice.services.EmailService;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 /**
  * REST-контроллер для управления email-уведомлениями.
  * Обрабатывает запросы на получение и удаление уведомлений.
@@ -70,22 +67,21 @@ public class NotificationController {
             @ApiResponse(responseCode = "503", description = "Сервис недоступен")
     })
     public CollectionModel<EmailNotificationDto> findAll() {
+        NotificationLinks links = NotificationLinks.forCurrentRequest();
+
         List<EmailNotificationDto> emailList = emailService.findAll().stream()
                 .map(emailEntity -> {
                     EmailNotificationDto emailDto = emailMapper.toEmailDto(emailEntity);
 
-                    emailDto.add(linkTo(methodOn(NotificationController.class)
-                            .findEmail(emailEntity.getId())).withSelfRel());
-                    emailDto.add(linkTo(methodOn(NotificationController.class).findAll()).withRel("notifications"));
-                    emailDto.add(linkTo(methodOn(NotificationController.class)
-                            .deleteEmail(emailEntity.getId())).withSelfRel());
+                    emailDto.add(links.self(emailEntity.getId()));
+                    emailDto.add(links.notifications());
+                    emailDto.add(links.delete(emailEntity.getId()).withSelfRel());
 
                     return emailDto;
                 })
                 .toList();
 
-        return CollectionModel.of(emailList,
-                linkTo(methodOn(NotificationController.class).findAll()).withSelfRel());
+        return CollectionModel.of(emailList, links.collectionSelf());
     }
 
     /**
@@ -115,8 +111,9 @@ public class NotificationController {
     ) {
         EmailNotificationDto emailDto = emailMapper.toEmailDto(emailService.findEmail(id));
 
-        emailDto.add(linkTo(methodOn(NotificationController.class).findAll()).withSelfRel());
-        emailDto.add(linkTo(methodOn(NotificationController.class).deleteEmail(id)).withRel("delete"));
+        NotificationLinks links = NotificationLinks.forCurrentRequest();
+        emailDto.add(links.collectionSelf());
+        emailDto.add(links.delete(id));
 
         return EntityModel.of(emailDto);
     }
@@ -0,0 +1,70 @@
+package ru.aston.intensive.notificationservice.controller;
+
+import org.springframework.hateoas.Link;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Шаблоны HATEOAS-ссылок на email-уведомления.
+ * Базовый URI контроллера вычисляется один раз на запрос, а ссылки на конкретное уведомление
+ * получаются подстановкой id в готовую строку, без прокси {@code methodOn} и повторного разбора запроса.
+ */
+final class NotificationLinks {
+
+    private final String notificationsUri;
+    private final Link notificationsLink;
+
+    private NotificationLinks(String notificationsUri) {
+        this.notificationsUri = notificationsUri;
+        this.notificationsLink = Link.of(notificationsUri, "notifications");
+    }
+
+    /**
+     * Создаёт шаблоны ссылок для текущего HTTP-запроса.
+     *
+     * @return шаблоны ссылок с базовым URI контроллера уведомлений
+     */
+    static NotificationLinks forCurrentRequest() {
+        return new NotificationLinks(linkTo(NotificationController.class).toUri().toString());
+    }
+
+    /**
+     * Ссылка на уведомление.
+     *
+     * @param id идентификатор уведомления
+     *
+     * @return ссылка с отношением self
+     */
+    Link self(Long id) {
+        return Link.of(notificationsUri + "/" + id);
+    }
+
+    /**
+     * Ссылка на список уведомлений.
+     *
+     * @return ссылка с отношением notifications
+     */
+    Link notifications() {
+        return notificationsLink;
+    }
+
+    /**
+     * Ссылка на список уведомлений с отношением self.
+     *
+     * @return ссылка с отношением self
+     */
+    Link collectionSelf() {
+        return Link.of(notificationsUri);
+    }
+
+    /**
+     * Ссылка на удаление уведомления.
+     *
+     * @param id идентификатор уведомления
+     *
+     * @return ссылка на удаление
+     */
+    Link delete(Long id) {
+        return Link.of(notificationsUri + "/delete/" + id, "delete");
+    }
+}
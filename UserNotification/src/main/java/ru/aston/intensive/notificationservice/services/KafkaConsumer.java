@@ -21,10 +21,13 @@ public class KafkaConsumer {
 
     /**
      * Слушает события пользователя из топика Kafka и отправляет email.
+     * Число потоков задаётся kafka.consumer.concurrency и не должно превышать число партиций топика;
+     * события одного пользователя обрабатываются одним потоком в порядке отправки.
      *
      * @param userNotificationDto событие связанное с пользователем
      */
-    @KafkaListener(topics = "user-event", groupId = "email-service")
+    @KafkaListener(topics = "user-event", groupId = "email-service",
+            concurrency = "${kafka.consumer.concurrency:3}")
     public void listenUserEvents(UserNotificationDto userNotificationDto) {
         emailService.sendEmail(userNotificationDto);
     }